@@ -0,0 +1 @@
+java -Xmx1G -cp target;lib/ECLA.jar;lib/DTNConsoleConnection.jar benchmark.MicrobenchmarkRunner %*
\ No newline at end of file
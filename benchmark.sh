@@ -0,0 +1,2 @@
+#! /bin/sh
+java -Xmx1G -cp target:lib/ECLA.jar:lib/DTNConsoleConnection.jar benchmark.MicrobenchmarkRunner $*
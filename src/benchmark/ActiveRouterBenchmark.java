@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package benchmark;
+
+import java.util.List;
+import java.util.Random;
+
+import routing.ActiveRouter;
+import core.ContactDetector;
+import core.DTNHost;
+import core.Message;
+import core.SimClock;
+
+/**
+ * Benchmark for {@link ActiveRouter#update()} (with the epidemic router).
+ * One operation creates a new message to a random host, moves all hosts
+ * for one update interval, updates the connections (with a
+ * {@link ContactDetector}) and updates the routers of all hosts.
+ */
+public class ActiveRouterBenchmark extends Microbenchmark {
+	/** simulated time of one update interval (seconds) */
+	public static final double UPDATE_INTERVAL = 0.1;
+	/** transmit range of the hosts (meters) */
+	public static final double TRANSMIT_RANGE = 50;
+	/** buffer size of the routers (bytes) */
+	public static final int BUFFER_SIZE = 5000000;
+	/** TTL of the messages (minutes) */
+	public static final int MSG_TTL = 5;
+	/** size of the messages (bytes) */
+	public static final int MSG_SIZE = 100000;
+
+	private List<DTNHost> hosts;
+	private ContactDetector contactDetector;
+	private Random rng;
+	private int nextMsgId;
+
+	@Override
+	public void setUp(int nrofHosts, double density) {
+		BenchmarkFixture fixture = new BenchmarkFixture(nrofHosts, density).
+			setTransmitRange(TRANSMIT_RANGE).setMoving(true).
+			setRouter("EpidemicRouter", BUFFER_SIZE, MSG_TTL).build();
+		this.hosts = fixture.getHosts();
+		this.contactDetector = new ContactDetector(hosts);
+		this.rng = fixture.getRandom();
+		this.nextMsgId = 0;
+	}
+
+	@Override
+	public Object run() {
+		DTNHost from = hosts.get(rng.nextInt(hosts.size()));
+		DTNHost to = hosts.get(rng.nextInt(hosts.size()));
+		from.createNewMessage(new Message(from, to, "M" + nextMsgId++,
+				MSG_SIZE));
+
+		for (DTNHost host : hosts) {
+			host.move(UPDATE_INTERVAL);
+		}
+		SimClock.getInstance().advance(UPDATE_INTERVAL);
+		contactDetector.update();
+		for (DTNHost host : hosts) {
+			host.update(false);
+		}
+		return from;
+	}
+
+	@Override
+	public double getSimTimePerOp() {
+		return UPDATE_INTERVAL;
+	}
+}
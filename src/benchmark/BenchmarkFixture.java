@@ -0,0 +1,203 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package benchmark;
+
+import interfaces.ConnectivityGrid;
+import interfaces.IndexedConnectivityGrid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import movement.MovementModel;
+import movement.RandomWaypoint;
+import routing.MessageRouter;
+import test.TestSettings;
+import test.TestUtils;
+import core.ConnectionListener;
+import core.Coord;
+import core.DTNHost;
+import core.Message;
+import core.MessageListener;
+import core.NetworkInterface;
+import core.SimClock;
+
+/**
+ * Builder for the hosts of microbenchmarks. Creates the given number of
+ * hosts (with {@link TestUtils}) to a square world whose size is chosen so
+ * that there are the given number of hosts per square kilometer. The hosts
+ * are either stationary at random locations or move with
+ * {@link RandomWaypoint}. All random values come from a fixed seed, so the
+ * same parameters always produce the same fixture.
+ */
+public class BenchmarkFixture {
+	/** default transmit range of the interfaces (meters) */
+	public static final double DEF_TRANSMIT_RANGE = 10;
+	/** seed of the random number generators */
+	public static final int SEED = 1;
+
+	private int nrofHosts;
+	private double density;
+	private double transmitRange;
+	private boolean moving;
+	private String routerClass;
+	private int bufferSize;
+	private int msgTtl;
+
+	private TestSettings settings;
+	private TestUtils utils;
+	private Random rng;
+	private int worldSize;
+
+	/**
+	 * Creates a new fixture builder
+	 * @param nrofHosts Number of hosts to create
+	 * @param density Number of hosts per square kilometer
+	 */
+	public BenchmarkFixture(int nrofHosts, double density) {
+		this.nrofHosts = nrofHosts;
+		this.density = density;
+		this.transmitRange = DEF_TRANSMIT_RANGE;
+		this.moving = false;
+		this.routerClass = null;
+		this.worldSize = (int)Math.ceil(Math.sqrt(nrofHosts / density) *
+				1000);
+	}
+
+	/**
+	 * Sets the transmit range of the hosts' interfaces
+	 * @param range The range (meters)
+	 * @return This fixture
+	 */
+	public BenchmarkFixture setTransmitRange(double range) {
+		this.transmitRange = range;
+		return this;
+	}
+
+	/**
+	 * Sets the hosts moving with random waypoint movement
+	 * @param moving If true, the hosts move. If false, the hosts are
+	 * stationary.
+	 * @return This fixture
+	 */
+	public BenchmarkFixture setMoving(boolean moving) {
+		this.moving = moving;
+		return this;
+	}
+
+	/**
+	 * Sets the router of the hosts
+	 * @param routerClass Name of the router class in the routing package
+	 * (e.g., "EpidemicRouter")
+	 * @param bufferSize Buffer size of the router (bytes)
+	 * @param msgTtl TTL of the messages (minutes)
+	 * @return This fixture
+	 */
+	public BenchmarkFixture setRouter(String routerClass, int bufferSize,
+			int msgTtl) {
+		this.routerClass = routerClass;
+		this.bufferSize = bufferSize;
+		this.msgTtl = msgTtl;
+		return this;
+	}
+
+	/**
+	 * Resets the simulator's static state and creates the hosts
+	 * @return This fixture
+	 */
+	public BenchmarkFixture build() {
+		this.settings = new TestSettings();
+		this.rng = new Random(SEED);
+
+		settings.putSetting(MovementModel.MOVEMENT_MODEL_NS + "." +
+				MovementModel.WORLD_SIZE, worldSize + "," + worldSize);
+		settings.putSetting(MovementModel.MOVEMENT_MODEL_NS + "." +
+				MovementModel.RNG_SEED, "" + SEED);
+		resetSimulator();
+
+		settings.setNameSpace(TestUtils.IFACE_NS);
+		settings.putSetting(NetworkInterface.TRANSMIT_RANGE_S,
+				"" + transmitRange);
+		settings.putSetting(NetworkInterface.TRANSMIT_SPEED_S, "250k");
+		settings.setNameSpace(null);
+
+		this.utils = new TestUtils(new ArrayList<ConnectionListener>(),
+				new ArrayList<MessageListener>(), settings);
+		if (routerClass != null) {
+			settings.putSetting(MessageRouter.B_SIZE_S, "" + bufferSize);
+			settings.putSetting(MessageRouter.MSG_TTL_S, "" + msgTtl);
+			utils.setMessageRouterProto((MessageRouter)settings.
+					createIntializedObject("routing." + routerClass));
+		}
+
+		MovementModel mmProto = moving ? new RandomWaypoint(settings) : null;
+		for (int i=0; i < nrofHosts; i++) {
+			if (moving) {
+				utils.createHost(mmProto, null);
+			}
+			else {
+				utils.createHost(new Coord(rng.nextDouble() * worldSize,
+						rng.nextDouble() * worldSize));
+			}
+		}
+
+		/* interfaces are added to the grids before the hosts have their
+		 * initial locations */
+		for (DTNHost host : utils.getAllHosts()) {
+			NetworkInterface ni = host.getInterfaces().get(0);
+			getConnectivityGrid(ni).updateLocation(ni);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Resets the static state of the simulator classes used by the
+	 * benchmarks
+	 */
+	private void resetSimulator() {
+		SimClock.reset();
+		DTNHost.reset();
+		NetworkInterface.reset();
+		Message.reset();
+		MovementModel.reset();
+		ConnectivityGrid.reset();
+		IndexedConnectivityGrid.reset();
+	}
+
+	/**
+	 * Returns the connectivity grid of an interface
+	 * @param ni The interface
+	 * @return The grid
+	 */
+	public ConnectivityGrid getConnectivityGrid(NetworkInterface ni) {
+		return ConnectivityGrid.ConnectivityGridFactory(
+				ni.getInterfaceType().hashCode(), ni.getTransmitRange());
+	}
+
+	/**
+	 * Returns the expected number of hosts within the transmit range of a
+	 * host
+	 */
+	public double getMeanNrofNeighbors() {
+		return density * Math.PI * transmitRange * transmitRange / 1e6;
+	}
+
+	public List<DTNHost> getHosts() {
+		return utils.getAllHosts();
+	}
+
+	public TestSettings getSettings() {
+		return settings;
+	}
+
+	public Random getRandom() {
+		return rng;
+	}
+
+	public int getWorldSize() {
+		return worldSize;
+	}
+}
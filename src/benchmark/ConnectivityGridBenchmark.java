@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package benchmark;
+
+import interfaces.ConnectivityGrid;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import core.DTNHost;
+import core.NetworkInterface;
+import core.SimClock;
+
+/**
+ * Benchmark for the {@link ConnectivityGrid}. One operation moves all
+ * hosts for one update interval, updates their locations in the grid and
+ * queries the near interfaces of every interface.
+ */
+public class ConnectivityGridBenchmark extends Microbenchmark {
+	/** simulated time of one update interval (seconds) */
+	public static final double UPDATE_INTERVAL = 0.1;
+
+	private List<DTNHost> hosts;
+	private List<NetworkInterface> interfaces;
+	private ConnectivityGrid grid;
+
+	@Override
+	public void setUp(int nrofHosts, double density) {
+		BenchmarkFixture fixture = new BenchmarkFixture(nrofHosts, density).
+			setMoving(true).build();
+		this.hosts = fixture.getHosts();
+		this.interfaces = new ArrayList<NetworkInterface>();
+		for (DTNHost host : hosts) {
+			interfaces.add(host.getInterfaces().get(0));
+		}
+		this.grid = fixture.getConnectivityGrid(interfaces.get(0));
+	}
+
+	@Override
+	public Object run() {
+		int nrofNear = 0;
+
+		for (DTNHost host : hosts) {
+			host.move(UPDATE_INTERVAL);
+		}
+		SimClock.getInstance().advance(UPDATE_INTERVAL);
+
+		for (NetworkInterface ni : interfaces) {
+			grid.updateLocation(ni);
+		}
+		for (NetworkInterface ni : interfaces) {
+			nrofNear += grid.getNearInterfaces(ni).size();
+		}
+		return nrofNear;
+	}
+
+	@Override
+	public double getSimTimePerOp() {
+		return UPDATE_INTERVAL;
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package benchmark;
+
+import java.util.Random;
+
+import movement.map.DijkstraPathFinder;
+import movement.map.MapNode;
+import core.Coord;
+
+/**
+ * Benchmark for {@link DijkstraPathFinder#getShortestPath(MapNode, MapNode)}.
+ * The map is a square lattice with one map node per host, with the node
+ * spacing chosen by the density. One operation finds the shortest path
+ * between a pair of random nodes.
+ */
+public class DijkstraPathFinderBenchmark extends Microbenchmark {
+	/** number of precomputed random node pairs */
+	public static final int NROF_PAIRS = 1024;
+
+	private DijkstraPathFinder finder;
+	private MapNode[] from;
+	private MapNode[] to;
+	private int next;
+
+	@Override
+	public void setUp(int nrofHosts, double density) {
+		int side = (int)Math.ceil(Math.sqrt(nrofHosts));
+		double spacing = 1000 / Math.sqrt(density);
+		MapNode[] nodes = new MapNode[side * side];
+		Random rng = new Random(BenchmarkFixture.SEED);
+
+		for (int y=0; y < side; y++) {
+			for (int x=0; x < side; x++) {
+				MapNode n = new MapNode(new Coord(x * spacing, y * spacing));
+				nodes[y * side + x] = n;
+				if (x > 0) {
+					connect(n, nodes[y * side + x - 1]);
+				}
+				if (y > 0) {
+					connect(n, nodes[(y - 1) * side + x]);
+				}
+			}
+		}
+
+		this.finder = new DijkstraPathFinder(null);
+		this.from = new MapNode[NROF_PAIRS];
+		this.to = new MapNode[NROF_PAIRS];
+		for (int i=0; i < NROF_PAIRS; i++) {
+			from[i] = nodes[rng.nextInt(nodes.length)];
+			to[i] = nodes[rng.nextInt(nodes.length)];
+		}
+		this.next = 0;
+	}
+
+	private void connect(MapNode a, MapNode b) {
+		a.addNeighbor(b);
+		b.addNeighbor(a);
+	}
+
+	@Override
+	public Object run() {
+		next = (next + 1) % NROF_PAIRS;
+		return finder.getShortestPath(from[next], to[next]);
+	}
+}
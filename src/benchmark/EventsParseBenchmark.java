@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package benchmark;
+
+import input.ExternalEvent;
+import input.StandardEventsReader;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Parse throughput benchmark for the {@link StandardEventsReader}. Parses
+ * an external events file repeatedly and prints the number of parsed
+ * events and bytes per second.
+ * <BR>Usage: <TT>java -cp target benchmark.EventsParseBenchmark
+ * [events file] [rounds]</TT>
+ */
+public class EventsParseBenchmark {
+	/** default events file ({@value}) */
+	public static final String DEF_EVENTS_FILE =
+		"ee/1400_events_2000_nodes_700ks.txt";
+	/** default number of measured rounds ({@value}) */
+	public static final int DEF_ROUNDS = 2000;
+	/** number of events requested from the reader at a time ({@value}) */
+	public static final int CHUNK_SIZE = 500;
+
+	public static void main(String[] args) {
+		File file = new File(args.length > 0 ? args[0] : DEF_EVENTS_FILE);
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEF_ROUNDS;
+
+		/* warm up with the same amount of rounds that is measured */
+		parse(file, rounds);
+
+		long start = System.nanoTime();
+		long nrofEvents = parse(file, rounds);
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.println("file: " + file.getPath());
+		System.out.println("rounds: " + rounds);
+		System.out.println("events: " + nrofEvents);
+		System.out.printf("time: %.3f s%n", seconds);
+		System.out.printf("events/s: %.0f%n", nrofEvents / seconds);
+		System.out.printf("MB/s: %.2f%n",
+				file.length() * rounds / seconds / 1e6);
+	}
+
+	/**
+	 * Parses the whole file the given number of times
+	 * @param file The file to parse
+	 * @param rounds How many times to parse the file
+	 * @return The total number of parsed events
+	 */
+	private static long parse(File file, int rounds) {
+		long nrofEvents = 0;
+		for (int i=0; i < rounds; i++) {
+			StandardEventsReader reader = new StandardEventsReader(file);
+			List<ExternalEvent> events = reader.readEvents(CHUNK_SIZE);
+			while (events.size() > 0) {
+				nrofEvents += events.size();
+				events = reader.readEvents(CHUNK_SIZE);
+			}
+			reader.close();
+		}
+		return nrofEvents;
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package benchmark;
+
+import java.util.List;
+
+import core.DTNHost;
+import core.SimClock;
+
+/**
+ * Benchmark for {@link DTNHost#move(double)}. One operation moves all
+ * hosts (with random waypoint movement) for one update interval.
+ */
+public class HostMoveBenchmark extends Microbenchmark {
+	/** simulated time of one update interval (seconds) */
+	public static final double UPDATE_INTERVAL = 0.1;
+
+	private List<DTNHost> hosts;
+
+	@Override
+	public void setUp(int nrofHosts, double density) {
+		this.hosts = new BenchmarkFixture(nrofHosts, density).
+			setMoving(true).build().getHosts();
+	}
+
+	@Override
+	public Object run() {
+		for (DTNHost host : hosts) {
+			host.move(UPDATE_INTERVAL);
+		}
+		SimClock.getInstance().advance(UPDATE_INTERVAL);
+		return hosts;
+	}
+
+	@Override
+	public double getSimTimePerOp() {
+		return UPDATE_INTERVAL;
+	}
+}
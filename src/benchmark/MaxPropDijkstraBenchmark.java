@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package benchmark;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import routing.maxprop.MaxPropDijkstra;
+import routing.maxprop.MeetingProbabilitySet;
+
+/**
+ * Benchmark for {@link MaxPropDijkstra#getCosts(Integer, Set)}. Every host
+ * has met random other hosts; the number of met hosts grows with the
+ * density. One operation computes the costs from a random host to
+ * {@value #NROF_TARGETS} random hosts.
+ */
+public class MaxPropDijkstraBenchmark extends Microbenchmark {
+	/** number of target hosts of a cost calculation */
+	public static final int NROF_TARGETS = 10;
+	/** number of precomputed random source hosts */
+	public static final int NROF_SOURCES = 1024;
+	/** number of hosts met per host per 100 hosts/km^2 */
+	public static final double MEETINGS_PER_DENSITY = 2.0 / 100;
+
+	private MaxPropDijkstra dijkstra;
+	private Integer[] sources;
+	private Set<Integer> targets;
+	private int next;
+
+	@Override
+	public void setUp(int nrofHosts, double density) {
+		Map<Integer, MeetingProbabilitySet> probs =
+			new HashMap<Integer, MeetingProbabilitySet>();
+		Random rng = new Random(BenchmarkFixture.SEED);
+		int nrofMet = Math.max(1, Math.min(nrofHosts - 1,
+				(int)(density * MEETINGS_PER_DENSITY)));
+
+		for (int i=0; i < nrofHosts; i++) {
+			MeetingProbabilitySet set = new MeetingProbabilitySet(
+					MeetingProbabilitySet.INFINITE_SET_SIZE, 1.0);
+			for (int j=0; j < nrofMet; j++) {
+				set.updateMeetingProbFor(rng.nextInt(nrofHosts));
+			}
+			probs.put(i, set);
+		}
+
+		this.dijkstra = new MaxPropDijkstra(probs);
+		this.sources = new Integer[NROF_SOURCES];
+		for (int i=0; i < NROF_SOURCES; i++) {
+			sources[i] = rng.nextInt(nrofHosts);
+		}
+		this.targets = new HashSet<Integer>();
+		while (targets.size() < Math.min(NROF_TARGETS, nrofHosts)) {
+			targets.add(rng.nextInt(nrofHosts));
+		}
+		this.next = 0;
+	}
+
+	@Override
+	public Object run() {
+		next = (next + 1) % NROF_SOURCES;
+		return dijkstra.getCosts(sources[next], targets);
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package benchmark;
+
+import java.util.List;
+
+import core.DTNHost;
+import core.Message;
+
+/**
+ * Benchmark for {@link Message#replicate()}. The replicated message has
+ * travelled through {@value #NROF_HOPS} hosts (or all hosts if there are
+ * fewer of them) and has a few properties.
+ */
+public class MessageReplicateBenchmark extends Microbenchmark {
+	/** number of hops on the message's path */
+	public static final int NROF_HOPS = 10;
+	/** message size (bytes) */
+	public static final int MSG_SIZE = 1000;
+
+	private Message msg;
+
+	@Override
+	public void setUp(int nrofHosts, double density) {
+		List<DTNHost> hosts = new BenchmarkFixture(nrofHosts, density).
+			build().getHosts();
+
+		this.msg = new Message(hosts.get(0), hosts.get(hosts.size() - 1),
+				"M1", MSG_SIZE);
+		for (int i=1; i < Math.min(NROF_HOPS, hosts.size()); i++) {
+			msg.addNodeOnPath(hosts.get(i));
+		}
+		msg.addProperty("benchmark.a", 1);
+		msg.addProperty("benchmark.b", "b");
+	}
+
+	@Override
+	public Object run() {
+		return msg.replicate();
+	}
+}
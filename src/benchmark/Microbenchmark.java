@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package benchmark;
+
+/**
+ * Superclass for microbenchmarks run by the {@link MicrobenchmarkRunner}.
+ * A benchmark sets up its state for the given number of hosts and host
+ * density and then runs the measured operation repeatedly.
+ */
+public abstract class Microbenchmark {
+
+	/**
+	 * Sets up the state of the benchmark. Called once for every
+	 * combination of the parameters before any operations are run.
+	 * @param nrofHosts Number of hosts
+	 * @param density Number of hosts per square kilometer
+	 */
+	public abstract void setUp(int nrofHosts, double density);
+
+	/**
+	 * Runs the measured operation once
+	 * @return Any result of the operation (returned so that the operation
+	 * can't be optimized away)
+	 */
+	public abstract Object run();
+
+	/**
+	 * Returns how many seconds of simulated time one operation advances
+	 * the simulation. The runner reports the throughput also as simulated
+	 * seconds per wall clock second for benchmarks that return a positive
+	 * value.
+	 * @return The simulated time per operation or 0 if the operation
+	 * doesn't advance simulation time
+	 */
+	public double getSimTimePerOp() {
+		return 0;
+	}
+
+	/**
+	 * Returns the name of the benchmark
+	 * @return The name
+	 */
+	public String getName() {
+		return getClass().getSimpleName();
+	}
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package benchmark;
+
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <P>Runs the microbenchmarks of the simulator's hot paths. Every benchmark
+ * is run with every combination of the host count and density parameters.
+ * For each combination, the benchmark's operation is first run for the
+ * warmup iterations and then for the measured iterations, each iteration
+ * lasting the iteration time. The mean and standard deviation of the
+ * operations per second (and simulated seconds per wall clock second, if
+ * the operation advances simulation time) of the measured iterations are
+ * reported.</P>
+ *
+ * <P>Usage: <TT>java -cp target benchmark.MicrobenchmarkRunner [options]
+ * [benchmark names]</TT><BR>
+ * Options:
+ * <UL>
+ * <LI><TT>-hosts n1,n2,...</TT> host counts (default
+ * {@value #DEF_HOSTS})</LI>
+ * <LI><TT>-density d1,d2,...</TT> hosts per square kilometer (default
+ * {@value #DEF_DENSITIES})</LI>
+ * <LI><TT>-warmup n</TT> number of warmup iterations (default
+ * {@value #DEF_WARMUP})</LI>
+ * <LI><TT>-iterations n</TT> number of measured iterations (default
+ * {@value #DEF_ITERATIONS})</LI>
+ * <LI><TT>-time s</TT> length of an iteration in seconds (default
+ * {@value #DEF_ITERATION_TIME})</LI>
+ * <LI><TT>-out file</TT> file where the results are also written as
+ * tab separated values</LI>
+ * </UL>
+ * If benchmark names are given, only the benchmarks whose name contains
+ * any of them are run.</P>
+ */
+public class MicrobenchmarkRunner {
+	/** default host counts ({@value}) */
+	public static final String DEF_HOSTS = "100,1000";
+	/** default densities ({@value}) */
+	public static final String DEF_DENSITIES = "200,2000";
+	/** default number of warmup iterations ({@value}) */
+	public static final int DEF_WARMUP = 3;
+	/** default number of measured iterations ({@value}) */
+	public static final int DEF_ITERATIONS = 5;
+	/** default length of an iteration in seconds ({@value}) */
+	public static final double DEF_ITERATION_TIME = 1.0;
+	/** how many operations are run between clock checks */
+	private static final int BATCH_SIZE = 16;
+
+	/** result columns */
+	private static final String HEADER = "benchmark\thosts\tdensity\t" +
+		"ops/s\tops/s_sd\tsim-s/s\tsim-s/s_sd";
+
+	/** counter for null results (consumes the results of the operations) */
+	private static long nullResults = 0;
+
+	/**
+	 * Returns all benchmarks
+	 * @return The benchmarks
+	 */
+	public static List<Microbenchmark> getBenchmarks() {
+		List<Microbenchmark> benchmarks = new ArrayList<Microbenchmark>();
+		benchmarks.add(new ConnectivityGridBenchmark());
+		benchmarks.add(new HostMoveBenchmark());
+		benchmarks.add(new ActiveRouterBenchmark());
+		benchmarks.add(new MessageReplicateBenchmark());
+		benchmarks.add(new DijkstraPathFinderBenchmark());
+		benchmarks.add(new MaxPropDijkstraBenchmark());
+		return benchmarks;
+	}
+
+	public static void main(String[] args) throws FileNotFoundException {
+		int[] hosts = parseInts(DEF_HOSTS);
+		double[] densities = parseDoubles(DEF_DENSITIES);
+		int warmup = DEF_WARMUP;
+		int iterations = DEF_ITERATIONS;
+		double time = DEF_ITERATION_TIME;
+		PrintWriter out = null;
+		List<String> filters = new ArrayList<String>();
+
+		for (int i=0; i < args.length; i++) {
+			if (args[i].equals("-hosts")) {
+				hosts = parseInts(args[++i]);
+			}
+			else if (args[i].equals("-density")) {
+				densities = parseDoubles(args[++i]);
+			}
+			else if (args[i].equals("-warmup")) {
+				warmup = Integer.parseInt(args[++i]);
+			}
+			else if (args[i].equals("-iterations")) {
+				iterations = Integer.parseInt(args[++i]);
+			}
+			else if (args[i].equals("-time")) {
+				time = Double.parseDouble(args[++i]);
+			}
+			else if (args[i].equals("-out")) {
+				out = new PrintWriter(args[++i]);
+			}
+			else {
+				filters.add(args[i]);
+			}
+		}
+
+		System.out.println(HEADER);
+		if (out != null) {
+			out.println(HEADER);
+		}
+
+		for (Microbenchmark b : getBenchmarks()) {
+			if (!matches(b.getName(), filters)) {
+				continue;
+			}
+			for (int n : hosts) {
+				for (double d : densities) {
+					String result = b.getName() + "\t" + n + "\t" + d + "\t" +
+						measure(b, n, d, warmup, iterations, time);
+					System.out.println(result);
+					if (out != null) {
+						out.println(result);
+						out.flush();
+					}
+				}
+			}
+		}
+
+		if (out != null) {
+			out.close();
+		}
+	}
+
+	/**
+	 * Sets up and measures a benchmark with the given parameters
+	 * @return The results as tab separated values
+	 */
+	private static String measure(Microbenchmark b, int nrofHosts,
+			double density, int warmup, int iterations, double time) {
+		b.setUp(nrofHosts, density);
+
+		for (int i=0; i < warmup; i++) {
+			runIteration(b, time);
+		}
+
+		double[] opsPerSecond = new double[iterations];
+		for (int i=0; i < iterations; i++) {
+			opsPerSecond[i] = runIteration(b, time);
+		}
+
+		double mean = mean(opsPerSecond);
+		double sd = standardDeviation(opsPerSecond, mean);
+		double simTime = b.getSimTimePerOp();
+
+		String result = format(mean) + "\t" + format(sd);
+		if (simTime > 0) {
+			result += "\t" + format(mean * simTime) + "\t" +
+				format(sd * simTime);
+		}
+		else {
+			result += "\t-\t-";
+		}
+		return result;
+	}
+
+	/**
+	 * Runs operations for the given time
+	 * @return Operations per second
+	 */
+	private static double runIteration(Microbenchmark b, double time) {
+		long duration = (long)(time * 1e9);
+		long start = System.nanoTime();
+		long elapsed;
+		long ops = 0;
+
+		do {
+			for (int i=0; i < BATCH_SIZE; i++) {
+				if (b.run() == null) {
+					nullResults++;
+				}
+			}
+			ops += BATCH_SIZE;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < duration);
+
+		return ops / (elapsed / 1e9);
+	}
+
+	private static boolean matches(String name, List<String> filters) {
+		if (filters.isEmpty()) {
+			return true;
+		}
+		for (String f : filters) {
+			if (name.contains(f)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static double mean(double[] values) {
+		double sum = 0;
+		for (double v : values) {
+			sum += v;
+		}
+		return sum / values.length;
+	}
+
+	private static double standardDeviation(double[] values, double mean) {
+		if (values.length < 2) {
+			return 0;
+		}
+		double sum = 0;
+		for (double v : values) {
+			sum += (v - mean) * (v - mean);
+		}
+		return Math.sqrt(sum / (values.length - 1));
+	}
+
+	private static String format(double value) {
+		return String.format(Locale.US, "%.2f", value);
+	}
+
+	private static int[] parseInts(String csv) {
+		String[] parts = csv.split(",");
+		int[] values = new int[parts.length];
+		for (int i=0; i < parts.length; i++) {
+			values[i] = Integer.parseInt(parts[i].trim());
+		}
+		return values;
+	}
+
+	private static double[] parseDoubles(String csv) {
+		String[] parts = csv.split(",");
+		double[] values = new double[parts.length];
+		for (int i=0; i < parts.length; i++) {
+			values[i] = Double.parseDouble(parts[i].trim());
+		}
+		return values;
+	}
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <P>World-level contact detection. Instead of every network interface
+ * checking its existing connections and near interfaces in its own
+ * {@link NetworkInterface#update()} (which tests every pair twice per
+ * update round), the detector finds the interface pairs that are within
+ * range once per round and only sets up or tears down the connections
+ * whose state changed. Enabled with {@link World#PAIRWISE_CONTACTS_S}.</P>
+ *
+ * <P>The pairs are found with a sweep-and-prune pass over the
+ * interfaces sorted by their x-coordinate. The sorted order is kept
+ * between update rounds, so re-sorting is typically close to linear as
+ * the interfaces move only a little between rounds. Only interfaces of the
+ * same type (i.e., interfaces that share a connectivity optimizer) are
+ * paired.</P>
+ *
+ * <P>New connections are created with
+ * {@link NetworkInterface#connect(NetworkInterface)} (first from the
+ * interface with the smaller x-coordinate and, if that doesn't connect,
+ * the other way around), so the interfaces' own conditions (scanning,
+ * activeness, etc.) still apply. After the connections are updated, every
+ * interface's {@link NetworkInterface#updateConnectionStates()} is called.
+ * </P>
+ *
+ * <P>The detected contacts are the same as without the detector, but the
+ * connections that come up during the same update round are set up in a
+ * different order (and possibly from the other end), so the routing
+ * results of a scenario can differ.</P>
+ */
+public class ContactDetector {
+	/** interfaces grouped by their type */
+	protected List<InterfaceGroup> groups;
+
+	/**
+	 * Creates a contact detector for the interfaces of the given hosts.
+	 * Interfaces without a connectivity optimizer (i.e., with no radio
+	 * range) are ignored.
+	 * @param hosts The hosts
+	 */
+	public ContactDetector(List<DTNHost> hosts) {
+		Map<String, List<NetworkInterface>> byType =
+			new LinkedHashMap<String, List<NetworkInterface>>();
+
+		for (DTNHost host : hosts) {
+			for (NetworkInterface ni : host.getInterfaces()) {
+				if (ni.optimizer == null) {
+					continue;
+				}
+				List<NetworkInterface> list = byType.get(ni.getInterfaceType());
+				if (list == null) {
+					list = new ArrayList<NetworkInterface>();
+					byType.put(ni.getInterfaceType(), list);
+				}
+				list.add(ni);
+			}
+		}
+
+		this.groups = new ArrayList<InterfaceGroup>(byType.size());
+		for (List<NetworkInterface> list : byType.values()) {
+			this.groups.add(createGroup(list));
+		}
+	}
+
+	/**
+	 * Creates a new group for interfaces of the same type
+	 * @param interfaces The interfaces of the group
+	 * @return The new group
+	 */
+	protected InterfaceGroup createGroup(List<NetworkInterface> interfaces) {
+		return new InterfaceGroup(interfaces);
+	}
+
+	/**
+	 * Tears down the connections whose interfaces are no longer within
+	 * range and sets up connections between the interfaces that came within
+	 * range.
+	 */
+	public void update() {
+		for (InterfaceGroup g : groups) {
+			g.removeLostContacts();
+		}
+		for (InterfaceGroup g : groups) {
+			g.addNewContacts();
+			g.updateConnectionStates();
+		}
+	}
+
+	/**
+	 * Interfaces of the same type in the order of their x-coordinates
+	 */
+	protected static class InterfaceGroup {
+		protected NetworkInterface[] interfaces;
+		protected double[] xs;
+
+		/**
+		 * Creates a new group
+		 * @param interfaces The interfaces of the group
+		 */
+		public InterfaceGroup(List<NetworkInterface> interfaces) {
+			this.interfaces = interfaces.toArray(
+					new NetworkInterface[interfaces.size()]);
+			this.xs = new double[this.interfaces.length];
+		}
+
+		/**
+		 * Tears down all connections that are out of range. Every
+		 * connection is checked once, from its initiating interface (or,
+		 * if the other interface doesn't belong to this group, from the
+		 * interface of this group).
+		 */
+		public void removeLostContacts() {
+			for (NetworkInterface ni : interfaces) {
+				List<Connection> cons = ni.connections;
+				for (int i=0; i < cons.size(); ) {
+					Connection con = cons.get(i);
+					NetworkInterface other = con.getOtherInterface(ni);
+
+					// all connections should be up at this stage
+					assert con.isUp() : "Connection " + con + " was down!";
+
+					if (con.fromInterface == ni || !isSameGroup(ni, other)) {
+						if (!ni.isWithinRange(other)) {
+							ni.disconnect(con, other);
+							cons.remove(i);
+							continue;
+						}
+					}
+					i++;
+				}
+			}
+		}
+
+		/**
+		 * Sorts the interfaces by x-coordinate and connects all pairs that
+		 * are within range but not yet connected.
+		 */
+		public void addNewContacts() {
+			int n = interfaces.length;
+			double maxRange = updateOrder();
+
+			/* sweep: only pairs overlapping on the x-axis can be in range */
+			for (int i=0; i < n; i++) {
+				NetworkInterface a = interfaces[i];
+				Coord aLoc = a.getLocation();
+				double aRange = a.getTransmitRange();
+
+				for (int j=i+1; j < n && xs[j] - xs[i] <= maxRange; j++) {
+					NetworkInterface b = interfaces[j];
+					Coord bLoc = b.getLocation();
+					double range = Math.min(aRange, b.getTransmitRange());
+
+					if (Math.abs(bLoc.getY() - aLoc.getY()) > range ||
+							xs[j] - xs[i] > range ||
+							aLoc.distance(bLoc) > range ||
+							a.isConnected(b)) {
+						continue;
+					}
+
+					tryConnect(a, b);
+				}
+			}
+		}
+
+		/**
+		 * Tries to connect two interfaces, first from a to b and, if that
+		 * doesn't succeed, from b to a.
+		 * @param a The first interface
+		 * @param b The second interface
+		 * @return True if the interfaces are connected after the call
+		 */
+		protected boolean tryConnect(NetworkInterface a, NetworkInterface b) {
+			a.connect(b);
+			if (!a.isConnected(b)) {
+				b.connect(a);
+				return a.isConnected(b);
+			}
+			return true;
+		}
+
+		/**
+		 * Updates the connection states of all interfaces in the group
+		 */
+		public void updateConnectionStates() {
+			for (NetworkInterface ni : interfaces) {
+				ni.updateConnectionStates();
+			}
+		}
+
+		/**
+		 * Updates the x-coordinates and sorts the interfaces by them
+		 * @return The largest transmit range of the interfaces
+		 */
+		protected double updateOrder() {
+			double maxRange = 0;
+
+			for (int i=0; i < interfaces.length; i++) {
+				xs[i] = interfaces[i].getLocation().getX();
+				double range = interfaces[i].getTransmitRange();
+				if (range > maxRange) {
+					maxRange = range;
+				}
+			}
+			sortByX();
+			return maxRange;
+		}
+
+		/**
+		 * Insertion sorts the interfaces (and their x-coordinates) by the
+		 * x-coordinate. The interfaces are in almost sorted order from the
+		 * previous round, so this is close to linear time.
+		 */
+		private void sortByX() {
+			for (int i=1, n = interfaces.length; i < n; i++) {
+				double x = xs[i];
+				NetworkInterface ni = interfaces[i];
+				int j = i - 1;
+				while (j >= 0 && xs[j] > x) {
+					xs[j+1] = xs[j];
+					interfaces[j+1] = interfaces[j];
+					j--;
+				}
+				xs[j+1] = x;
+				interfaces[j+1] = ni;
+			}
+		}
+
+		/**
+		 * Returns true if the two interfaces are of the same type and
+		 * both use a connectivity optimizer (i.e., belong to the same group)
+		 */
+		private boolean isSameGroup(NetworkInterface a, NetworkInterface b) {
+			return b.optimizer != null &&
+				a.getInterfaceType().equals(b.getInterfaceType());
+		}
+	}
+}
@@ -123,10 +123,28 @@ public class Coord implements Cloneable, Comparable<Coord> {
 
 	/**
 	 * Returns a hash code for this coordinate
-	 * (actually a hash of the String made of the coordinates)
+	 * (see {@link #hashCode(double, double)})
 	 */
 	public int hashCode() {
-		return (x+","+y).hashCode();
+		return hashCode(x, y);
+	}
+
+	/**
+	 * Returns the hash code of a coordinate with the given values. Mixes
+	 * the bits of the values so that also nearby coordinates get well
+	 * spread hash codes.
+	 * @param x The X-coordinate
+	 * @param y The Y-coordinate
+	 * @return The hash code
+	 */
+	public static int hashCode(double x, double y) {
+		/* 0.0 == -0.0, so they must have the same hash code */
+		long bx = (x == 0 ? 0 : Double.doubleToLongBits(x));
+		long by = (y == 0 ? 0 : Double.doubleToLongBits(y));
+		long h = bx * 0x9E3779B97F4A7C15L;
+		h = ((h ^ (h >>> 32)) + by) * 0xC2B2AE3D27D4EB4FL;
+		h = (h ^ (h >>> 29)) * 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32));
 	}
 
 	/**
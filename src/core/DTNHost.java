@@ -6,6 +6,7 @@ package core;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import movement.MovementModel;
@@ -34,7 +35,17 @@ public class DTNHost implements Comparable<DTNHost> {
 	private List<MessageListener> msgListeners;
 	private List<MovementListener> movListeners;
 	private List<NetworkInterface> net;
+	/** unmodifiable copy of the connections of all interfaces (or null if
+	 * it must be rebuilt) */
+	private List<Connection> connections;
+	/** total number of the interfaces' connections when the connection
+	 * list was built */
+	private int nrofListedConnections;
 	private ModuleCommunicationBus comBus;
+	/** store of the movement state (or null if not used) */
+	private HostMovementStore movementStore;
+	/** index of this host in the movement store */
+	private int movementStoreIndex;
 
 	static {
 		DTNSim.registerForReset(DTNHost.class.getCanonicalName());
@@ -165,25 +176,47 @@ public class DTNHost implements Comparable<DTNHost> {
 	 * @param con  The connection object whose state changed
 	 */
 	public void connectionUp(Connection con) {
+		invalidateConnections();
 		this.router.changedConnection(con);
 	}
 
 	public void connectionDown(Connection con) {
+		invalidateConnections();
 		this.router.changedConnection(con);
 	}
 
 	/**
-	 * Returns a copy of the list of connections this host has with other hosts
-	 * @return a copy of the list of connections this host has with other hosts
+	 * Returns an unmodifiable list of the connections this host has with
+	 * other hosts. The list is a copy that is shared by the calls until
+	 * the connections change, so it doesn't change while it's iterated
+	 * even if connections are set up or torn down meanwhile.
+	 * @return a list of connections this host has with other hosts
 	 */
 	public List<Connection> getConnections() {
-		List<Connection> lc = new ArrayList<Connection>();
-
-		for (NetworkInterface i : net) {
-			lc.addAll(i.getConnections());
+		/* interfaces may remove a connection only after informing the host,
+		 * so check the number of connections too */
+		int nrofConnections = 0;
+		for (int i=0, n=net.size(); i < n; i++) {
+			nrofConnections += net.get(i).getConnections().size();
+		}
+		if (this.connections == null ||
+				nrofConnections != this.nrofListedConnections) {
+			List<Connection> lc = new ArrayList<Connection>(nrofConnections);
+			for (NetworkInterface i : net) {
+				lc.addAll(i.getConnections());
+			}
+			this.connections = Collections.unmodifiableList(lc);
+			this.nrofListedConnections = nrofConnections;
 		}
 
-		return lc;
+		return this.connections;
+	}
+
+	/**
+	 * Makes the connection list to be rebuilt on the next request
+	 */
+	private void invalidateConnections() {
+		this.connections = null;
 	}
 
 	/**
@@ -204,12 +237,43 @@ public class DTNHost implements Comparable<DTNHost> {
 	}
 
 
+	/**
+	 * Returns the waypoint this node is currently moving towards or null if
+	 * the node is not moving (e.g., it is waiting for a new path).
+	 * @return The current destination or null
+	 */
+	public Coord getDestination() {
+		return this.destination;
+	}
+
+	/**
+	 * Returns the speed this node moves towards its current destination
+	 * @return The current speed (meters per second)
+	 */
+	public double getSpeed() {
+		return this.speed;
+	}
+
 	/**
 	 * Sets the Node's location overriding any location set by movement model
 	 * @param location The location to set
 	 */
 	public void setLocation(Coord location) {
 		this.location = location.clone();
+		if (this.movementStore != null) {
+			this.movementStore.load(this.movementStoreIndex);
+		}
+	}
+
+	/**
+	 * Sets the movement state store this host is moved with
+	 * @param store The store
+	 * @param index Index of this host in the store
+	 */
+	void setMovementStore(HostMovementStore store, int index) {
+		this.movementStore = store;
+		this.movementStoreIndex = index;
+		store.load(index);
 	}
 
 	/**
@@ -346,6 +410,28 @@ public class DTNHost implements Comparable<DTNHost> {
 		this.router.update();
 	}
 
+	/**
+	 * Updates the locations of this node's interfaces in their
+	 * connectivity optimizers.
+	 */
+	void updateOptimizerLocations() {
+		for (NetworkInterface i : net) {
+			i.updateOptimizerLocation();
+		}
+	}
+
+	/**
+	 * Collects the near interfaces of all of this node's interfaces for the
+	 * next network layer update. Doesn't modify any shared state so it
+	 * can be called for different nodes concurrently.
+	 * @see NetworkInterface#prepareUpdate()
+	 */
+	void prepareConnectivity() {
+		for (NetworkInterface i : net) {
+			i.prepareUpdate();
+		}
+	}
+
 	/**
 	 * Tears down all connections for this host.
 	 */
@@ -408,6 +494,48 @@ public class DTNHost implements Comparable<DTNHost> {
 		this.location.translate(dx, dy);
 	}
 
+	/**
+	 * Returns true if this node should move during the current update
+	 * round (i.e., its movement is active and it is time to move).
+	 * @return True if the node should move, false if it should wait
+	 */
+	boolean isReadyToMove() {
+		return isMovementActive() && SimClock.getTime() >= this.nextTimeToMove;
+	}
+
+	/**
+	 * Moves the node towards its current destination if it doesn't reach
+	 * the destination during this move. Doesn't request new waypoints nor
+	 * inform movement listeners so it can be called for different nodes
+	 * concurrently.
+	 * @param timeIncrement How long time the node moves
+	 * @return True if the node was moved, false if it has no destination or
+	 * would reach it, and should be moved with {@link #move(double)} instead
+	 */
+	boolean moveWithinSegment(double timeIncrement) {
+		double possibleMovement;
+		double distance;
+		double dx, dy;
+
+		if (this.destination == null) {
+			return false;
+		}
+
+		possibleMovement = timeIncrement * speed;
+		distance = this.location.distance(this.destination);
+
+		if (possibleMovement >= distance) {
+			return false; // would reach the waypoint
+		}
+
+		dx = (possibleMovement/distance) * (this.destination.getX() -
+				this.location.getX());
+		dy = (possibleMovement/distance) * (this.destination.getY() -
+				this.location.getY());
+		this.location.translate(dx, dy);
+		return true;
+	}
+
 	/**
 	 * Sets the next destination and speed to correspond the next waypoint
 	 * on the path.
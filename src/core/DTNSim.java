@@ -5,10 +5,13 @@
 package core;
 import gui.DTNSimGUI;
 
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 
+import ui.DTNSimBenchmarkUI;
 import ui.DTNSimTextUI;
 
 /**
@@ -20,6 +23,20 @@ public class DTNSim {
 	public static final String BATCH_MODE_FLAG = "-b";
 	/** Delimiter for batch mode index range values (colon) */
 	public static final String RANGE_DELIMETER = ":";
+	/** If this option ({@value}) is given to program, the benchmark mode
+	 * is used */
+	public static final String BENCHMARK_MODE_FLAG = "-bench";
+	/** Benchmark mode option ({@value}) for the result file path */
+	public static final String BENCHMARK_OUTPUT_FLAG = "-o";
+	/** Default benchmark result file path ({@value}) */
+	public static final String DEF_BENCHMARK_OUTPUT = "benchmark_results.txt";
+	/** Delimiter ({@value}) for the settings files of a benchmark scenario */
+	public static final String SCENARIO_FILE_DELIMITER = ",";
+	/** Scenarios that are run in the benchmark mode if no scenarios are
+	 * given */
+	public static final String[] REFERENCE_SCENARIOS = {
+		"default_settings.txt", "wdm_settings/Density2000.txt",
+		"example_settings/prophet_settings.txt"};
 
 	/** Name of the static method that all resettable classes must have
 	 * @see #registerForReset(String) */
@@ -37,6 +54,8 @@ public class DTNSim {
 	 * {@link Settings#setRunIndex(int)}). Following arguments are the settings
 	 * files for the simulation run (if any). For GUI mode, the number before
 	 * settings files (if given) is the run index to use for that run.
+	 * If first argument is {@link #BENCHMARK_MODE_FLAG}, the benchmark mode
+	 * is started (see {@link #runBenchmarks(String[])}).
 	 * @param args Command line arguments
 	 */
 	public static void main(String[] args) {
@@ -49,6 +68,11 @@ public class DTNSim {
 		/* set US locale to parse decimals in consistent way */
 		java.util.Locale.setDefault(java.util.Locale.US);
 
+		if (args.length > 0 && args[0].equals(BENCHMARK_MODE_FLAG)) {
+			runBenchmarks(args);
+			return;
+		}
+
 		if (args.length > 0) {
 			if (args[0].equals(BATCH_MODE_FLAG)) {
 				batchMode = true;
@@ -216,6 +240,72 @@ public class DTNSim {
 		return val;
 	}
 
+	/**
+	 * Runs the benchmark mode: every scenario is run the given number of
+	 * times with the headless {@link DTNSimBenchmarkUI} and the results
+	 * of every run are written to the result file as tab separated values.
+	 * Arguments (after {@link #BENCHMARK_MODE_FLAG}): number of repetitions
+	 * (default 1), {@link #BENCHMARK_OUTPUT_FLAG} and the result file path
+	 * (default {@value #DEF_BENCHMARK_OUTPUT}) and the scenarios (default
+	 * {@link #REFERENCE_SCENARIOS}). A scenario is a settings file or a list
+	 * of settings files delimited with {@value #SCENARIO_FILE_DELIMITER}.
+	 * @param args Command line arguments
+	 */
+	private static void runBenchmarks(String[] args) {
+		int repetitions = 1;
+		String outFile = DEF_BENCHMARK_OUTPUT;
+		List<String> scenarios = new ArrayList<String>();
+		int i = 1;
+
+		if (i < args.length && args[i].matches("\\d+")) {
+			repetitions = Integer.parseInt(args[i++]);
+		}
+		if (i + 1 < args.length && args[i].equals(BENCHMARK_OUTPUT_FLAG)) {
+			outFile = args[i + 1];
+			i += 2;
+		}
+		for (; i < args.length; i++) {
+			scenarios.add(args[i]);
+		}
+		if (scenarios.isEmpty()) {
+			for (String s : REFERENCE_SCENARIOS) {
+				scenarios.add(s);
+			}
+		}
+
+		PrintWriter out = null;
+		try {
+			out = new PrintWriter(outFile);
+		} catch (FileNotFoundException e) {
+			System.err.println("Can't open benchmark result file " + outFile);
+			System.exit(-1);
+		}
+
+		String header = "scenario\trepetition\t" +
+			DTNSimBenchmarkUI.RESULT_HEADER;
+		print(header);
+		out.println(header);
+
+		for (String scenario : scenarios) {
+			for (int rep = 1; rep <= repetitions; rep++) {
+				initSettings(scenario.split(SCENARIO_FILE_DELIMITER), 0);
+				Settings.setRunIndex(0);
+				resetForNextRun();
+				System.gc(); // don't charge the previous run's garbage
+
+				DTNSimBenchmarkUI ui = new DTNSimBenchmarkUI();
+				ui.start();
+
+				String result = scenario + "\t" + rep + "\t" + ui;
+				print(result);
+				out.println(result);
+				out.flush();
+			}
+		}
+
+		out.close();
+	}
+
 	/**
 	 * Prints text to stdout
 	 * @param txt Text to print
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package core;
+
+import java.util.List;
+
+/**
+ * <P>Struct of arrays store of the movement state of hosts for the
+ * {@link World}. Enabled with the {@link World#BULK_MOVEMENT_S} setting.
+ * The locations, destinations and speeds of the hosts are kept in
+ * primitive arrays indexed like the world's host list (i.e., by host
+ * address), so moving the hosts along their current path segments is a
+ * single loop over the arrays instead of a method call and two
+ * {@link Coord} lookups per host.</P>
+ *
+ * <P>The hosts keep their location objects, since interfaces, connectivity
+ * optimizers and listeners use them, and the store writes the new location
+ * to them after each move. Hosts that reach a waypoint during a move are
+ * moved afterwards one by one in address order with
+ * {@link DTNHost#move(double)}, like in {@link ParallelHostUpdater}, and
+ * their new state is read back to the store. The results are the same as
+ * with the default serial movement.</P>
+ */
+public class HostMovementStore {
+	private final DTNHost[] hosts;
+	/** the hosts' location objects where the new locations are written */
+	private final Coord[] locations;
+	private final double[] x;
+	private final double[] y;
+	private final double[] destX;
+	private final double[] destY;
+	private final double[] speed;
+	/** does the host have a destination */
+	private final boolean[] hasDest;
+	/** should the host move during the current move (0 = no, 1 = yes,
+	 * 2 = yes, but it reaches a waypoint) */
+	private final byte[] moveState;
+
+	/**
+	 * Creates a store for the hosts and attaches it to them
+	 * @param hosts The hosts (in address order)
+	 */
+	public HostMovementStore(List<DTNHost> hosts) {
+		int n = hosts.size();
+		this.hosts = hosts.toArray(new DTNHost[n]);
+		this.locations = new Coord[n];
+		this.x = new double[n];
+		this.y = new double[n];
+		this.destX = new double[n];
+		this.destY = new double[n];
+		this.speed = new double[n];
+		this.hasDest = new boolean[n];
+		this.moveState = new byte[n];
+
+		for (int i=0; i<n; i++) {
+			this.hosts[i].setMovementStore(this, i);
+		}
+	}
+
+	/**
+	 * Reads the movement state of a host to the store. Must be called
+	 * whenever the host's location, destination or speed changes outside
+	 * of {@link #moveAll(double)}.
+	 * @param index Index of the host in the store
+	 */
+	void load(int index) {
+		DTNHost host = hosts[index];
+		Coord loc = host.getLocation();
+		Coord dest = host.getDestination();
+
+		locations[index] = loc;
+		x[index] = loc.getX();
+		y[index] = loc.getY();
+		hasDest[index] = dest != null;
+		if (dest != null) {
+			destX[index] = dest.getX();
+			destY[index] = dest.getY();
+		}
+		speed[index] = host.getSpeed();
+	}
+
+	/**
+	 * Moves all hosts for the given amount of time.
+	 * @param timeIncrement The time how long all hosts should move
+	 */
+	public void moveAll(double timeIncrement) {
+		int n = hosts.length;
+
+		/* activeness handlers may be shared by hosts -> check first */
+		for (int i=0; i<n; i++) {
+			moveState[i] = (byte)(hosts[i].isReadyToMove() ? 1 : 0);
+		}
+
+		/* move the hosts that stay on their current path segment */
+		for (int i=0; i<n; i++) {
+			if (moveState[i] == 0) {
+				continue;
+			}
+			if (!hasDest[i]) {
+				moveState[i] = 2;
+				continue;
+			}
+
+			double possibleMovement = timeIncrement * speed[i];
+			double distX = x[i] - destX[i];
+			double distY = y[i] - destY[i];
+			double distance = Math.sqrt(distX*distX + distY*distY);
+
+			if (possibleMovement >= distance) {
+				moveState[i] = 2; // would reach the waypoint
+				continue;
+			}
+
+			x[i] += (possibleMovement/distance) * (destX[i] - x[i]);
+			y[i] += (possibleMovement/distance) * (destY[i] - y[i]);
+			locations[i].setLocation(x[i], y[i]);
+		}
+
+		/* hosts that reach a waypoint are moved in the serial order */
+		for (int i=0; i<n; i++) {
+			if (moveState[i] == 2) {
+				hosts[i].move(timeIncrement);
+				load(i);
+			}
+		}
+	}
+}
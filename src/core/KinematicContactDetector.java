@@ -0,0 +1,408 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package core;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * <P>Contact detector that predicts, from the current waypoints and speeds
+ * of the hosts, when pairs of interfaces come within range and checks the
+ * pairs only then, instead of every update round. Enabled with
+ * {@link World#PREDICT_CONTACTS_S}.</P>
+ *
+ * <P>The detector keeps a list of candidate pairs whose interfaces were
+ * within the radio range plus a "skin" distance (the largest radio range)
+ * from each other when the list was built. The list is rebuilt when some
+ * host has moved more than half of the skin distance after the previous
+ * build (interfaces of other pairs can't have come within range before
+ * that). For every candidate pair that is out of range, the time when the
+ * pair comes within range is solved assuming the hosts keep moving
+ * linearly towards their current destinations, and the pair is checked in
+ * the first update round at or after that time. When the motion of a host
+ * changes (it reaches a waypoint, starts or stops moving, or its range
+ * changes), all its pairs are re-predicted.</P>
+ *
+ * <P>Existing connections are checked every round like in
+ * {@link ContactDetector}, and pairs that are within range but not
+ * connected (e.g., because an interface was not scanning) are retried
+ * every round, so the checks stay aligned with the update rounds and the
+ * scanning and activeness rules of the interfaces still apply.</P>
+ */
+public class KinematicContactDetector extends ContactDetector {
+	/** how much earlier (meters) than at the exact range the crossings are
+	 * predicted to compensate for rounding errors */
+	private static final double RANGE_MARGIN = 0.01;
+	/** how much (meters) a host's location may differ from its predicted
+	 * location before its motion is considered changed */
+	private static final double MOTION_TOLERANCE = 0.0001;
+
+	/**
+	 * Creates a kinematic contact detector for the interfaces of the given
+	 * hosts
+	 * @param hosts The hosts
+	 */
+	public KinematicContactDetector(List<DTNHost> hosts) {
+		super(hosts);
+	}
+
+	@Override
+	protected InterfaceGroup createGroup(List<NetworkInterface> interfaces) {
+		return new KinematicGroup(interfaces);
+	}
+
+	@Override
+	public void update() {
+		for (InterfaceGroup g : groups) {
+			g.removeLostContacts();
+		}
+		for (InterfaceGroup g : groups) {
+			((KinematicGroup)g).updateContacts();
+			g.updateConnectionStates();
+		}
+	}
+
+	/**
+	 * Interface group that checks candidate pairs based on predictions
+	 */
+	private static class KinematicGroup extends InterfaceGroup {
+		/** nodes in the original order of the interfaces */
+		private Node[] nodes;
+		private Map<NetworkInterface, Node> nodesByInterface;
+		/** candidate pairs that were within range when last checked */
+		private List<Pair> inRange;
+		/** pending checks of candidate pairs that are out of range */
+		private PriorityQueue<PairCheck> checks;
+		/** distance the candidate pairs may be out of range */
+		private double skin;
+		private boolean built;
+		/** running id for checks (to keep the order of equal time checks) */
+		private long nextCheckId = 0;
+
+		public KinematicGroup(List<NetworkInterface> interfaces) {
+			super(interfaces);
+			this.nodes = new Node[interfaces.size()];
+			this.nodesByInterface =
+				new IdentityHashMap<NetworkInterface, Node>();
+			for (int i=0; i < nodes.length; i++) {
+				nodes[i] = new Node(interfaces.get(i));
+				nodesByInterface.put(nodes[i].ni, nodes[i]);
+			}
+			this.inRange = new ArrayList<Pair>();
+			this.checks = new PriorityQueue<PairCheck>();
+			this.built = false;
+		}
+
+		/**
+		 * Updates the connections of the pairs whose state may have
+		 * changed
+		 */
+		public void updateContacts() {
+			double now = SimClock.getTime();
+			boolean rebuild = !built;
+
+			for (Node n : nodes) {
+				if (rebuild) {
+					break;
+				}
+				if (n.hasMovedFarFromBuild(skin / 2)) {
+					rebuild = true;
+				}
+				else if (n.hasMotionChanged(now)) {
+					n.readMotion(now);
+					for (Pair p : n.pairs) {
+						schedule(p, now);
+					}
+				}
+			}
+
+			if (rebuild) {
+				build(now);
+				return;
+			}
+
+			/* retry connecting the in range pairs that are not connected */
+			for (int i=0; i < inRange.size(); ) {
+				Pair p = inRange.get(i);
+				if (p.a.ni.isConnected(p.b.ni)) {
+					i++; // lost connections are torn down elsewhere
+				}
+				else if (p.a.ni.isWithinRange(p.b.ni)) {
+					tryConnect(p.a.ni, p.b.ni);
+					i++;
+				}
+				else {
+					removeFromInRange(i); // moved the last pair to index i
+					schedule(p, predictEntry(p, now));
+				}
+			}
+
+			while (!checks.isEmpty() && checks.peek().time <= now) {
+				PairCheck pc = checks.poll();
+				if (pc.version == pc.pair.version) {
+					check(pc.pair, now);
+				}
+			}
+		}
+
+		/**
+		 * Builds the candidate pair list and checks all candidate pairs
+		 * @param now Current simulation time
+		 */
+		private void build(double now) {
+			double maxRange = updateOrder();
+			int n = interfaces.length;
+
+			this.skin = maxRange;
+			this.inRange.clear();
+			this.checks.clear();
+			for (Node node : nodes) {
+				node.pairs.clear();
+				node.readMotion(now);
+				node.setBuildLocation();
+			}
+
+			for (int i=0; i < n; i++) {
+				Node a = nodesByInterface.get(interfaces[i]);
+				Coord aLoc = a.ni.getLocation();
+				double aRange = a.ni.getTransmitRange();
+
+				for (int j=i+1; j < n && xs[j] - xs[i] <= maxRange + skin;
+						j++) {
+					Node b = nodesByInterface.get(interfaces[j]);
+					Coord bLoc = b.ni.getLocation();
+					double window = Math.min(aRange, b.ni.getTransmitRange()) +
+						skin;
+
+					if (Math.abs(bLoc.getY() - aLoc.getY()) > window ||
+							aLoc.distance(bLoc) > window) {
+						continue;
+					}
+
+					Pair p = new Pair(a, b);
+					a.pairs.add(p);
+					b.pairs.add(p);
+					check(p, now);
+				}
+			}
+			this.built = true;
+		}
+
+		/**
+		 * Checks the current state of an out of range pair and connects
+		 * the interfaces if they are within range. If not, schedules the
+		 * next check.
+		 * @param p The pair
+		 * @param now Current simulation time
+		 */
+		private void check(Pair p, double now) {
+			if (p.a.ni.isWithinRange(p.b.ni)) {
+				p.version++; // invalidate pending checks
+				p.inRangeIndex = inRange.size();
+				inRange.add(p);
+				if (!p.a.ni.isConnected(p.b.ni)) {
+					tryConnect(p.a.ni, p.b.ni);
+				}
+			}
+			else {
+				schedule(p, predictEntry(p, now));
+			}
+		}
+
+		/**
+		 * Schedules a check for an out of range pair. Any previously
+		 * scheduled check of the pair is cancelled.
+		 * @param p The pair
+		 * @param time Time of the check or {@link Double#MAX_VALUE} if the
+		 * pair should not be checked unless the motions change
+		 */
+		private void schedule(Pair p, double time) {
+			if (p.inRangeIndex >= 0) {
+				return; // in range pairs are checked every round
+			}
+			p.version++;
+			if (time < Double.MAX_VALUE) {
+				checks.add(new PairCheck(p, time, nextCheckId++));
+			}
+		}
+
+		/**
+		 * Removes a pair from the in range list by replacing it with the
+		 * last pair of the list
+		 * @param index Index of the pair in the list
+		 */
+		private void removeFromInRange(int index) {
+			Pair p = inRange.get(index);
+			Pair last = inRange.remove(inRange.size() - 1);
+			if (last != p) {
+				inRange.set(index, last);
+				last.inRangeIndex = index;
+			}
+			p.inRangeIndex = -1;
+		}
+
+		/**
+		 * Predicts when an out of range pair comes within range if both
+		 * hosts keep moving as they do now
+		 * @param p The pair
+		 * @param now Current simulation time
+		 * @return The predicted time or {@link Double#MAX_VALUE} if the pair
+		 * doesn't come within range with the current motions
+		 */
+		private double predictEntry(Pair p, double now) {
+			Coord aLoc = p.a.ni.getLocation();
+			Coord bLoc = p.b.ni.getLocation();
+			double range = Math.min(p.a.ni.getTransmitRange(),
+					p.b.ni.getTransmitRange()) + RANGE_MARGIN;
+
+			/* relative location and velocity of b with respect to a */
+			double px = bLoc.getX() - aLoc.getX();
+			double py = bLoc.getY() - aLoc.getY();
+			double wx = p.b.vx - p.a.vx;
+			double wy = p.b.vy - p.a.vy;
+
+			/* solve |p + w*t| = range for the first t > 0 */
+			double qa = wx*wx + wy*wy;
+			double qb = 2 * (px*wx + py*wy);
+			double qc = px*px + py*py - range*range;
+
+			if (qc <= 0) {
+				return Math.nextUp(now); // (almost) in range: check next round
+			}
+			if (qa == 0 || qb >= 0) {
+				return Double.MAX_VALUE; // not approaching each other
+			}
+
+			double discriminant = qb*qb - 4*qa*qc;
+			if (discriminant < 0) {
+				return Double.MAX_VALUE; // passing by outside of range
+			}
+
+			return now + (-qb - Math.sqrt(discriminant)) / (2*qa);
+		}
+	}
+
+	/**
+	 * Motion state of an interface's host
+	 */
+	private static class Node {
+		private NetworkInterface ni;
+		private List<Pair> pairs;
+		/** location, velocity and range when the motion was read */
+		private double x0, y0, t0, vx, vy, range;
+		/** location when the candidate pairs were built */
+		private double buildX, buildY;
+
+		public Node(NetworkInterface ni) {
+			this.ni = ni;
+			this.pairs = new ArrayList<Pair>();
+		}
+
+		/**
+		 * Reads the current motion of the host
+		 * @param now Current simulation time
+		 */
+		public void readMotion(double now) {
+			DTNHost host = ni.getHost();
+			Coord loc = host.getLocation();
+			Coord dest = host.getDestination();
+
+			this.x0 = loc.getX();
+			this.y0 = loc.getY();
+			this.t0 = now;
+			this.range = ni.getTransmitRange();
+			this.vx = 0;
+			this.vy = 0;
+
+			if (dest != null && host.isMovementActive()) {
+				double distance = loc.distance(dest);
+				if (distance > 0) {
+					this.vx = host.getSpeed() * (dest.getX() - x0) / distance;
+					this.vy = host.getSpeed() * (dest.getY() - y0) / distance;
+				}
+			}
+		}
+
+		/**
+		 * Returns true if the host is not where its motion predicts or its
+		 * range has changed
+		 * @param now Current simulation time
+		 */
+		public boolean hasMotionChanged(double now) {
+			Coord loc = ni.getLocation();
+			double dt = now - t0;
+			return Math.abs(loc.getX() - (x0 + vx * dt)) > MOTION_TOLERANCE ||
+				Math.abs(loc.getY() - (y0 + vy * dt)) > MOTION_TOLERANCE ||
+				range != ni.getTransmitRange();
+		}
+
+		/**
+		 * Stores the current location as the location of the latest
+		 * candidate pair build
+		 */
+		public void setBuildLocation() {
+			this.buildX = x0;
+			this.buildY = y0;
+		}
+
+		/**
+		 * Returns true if the host has moved more than the given distance
+		 * from its location at the latest candidate pair build
+		 */
+		public boolean hasMovedFarFromBuild(double distance) {
+			Coord loc = ni.getLocation();
+			double dx = loc.getX() - buildX;
+			double dy = loc.getY() - buildY;
+			return dx*dx + dy*dy > distance*distance;
+		}
+	}
+
+	/**
+	 * Candidate pair of interfaces
+	 */
+	private static class Pair {
+		private Node a;
+		private Node b;
+		/** index in the in range list or -1 if the pair is out of range */
+		private int inRangeIndex;
+		/** version of the pair's latest scheduled check */
+		private int version;
+
+		public Pair(Node a, Node b) {
+			this.a = a;
+			this.b = b;
+			this.inRangeIndex = -1;
+			this.version = 0;
+		}
+	}
+
+	/**
+	 * A scheduled check of a pair
+	 */
+	private static class PairCheck implements Comparable<PairCheck> {
+		private Pair pair;
+		private double time;
+		private int version;
+		private long id;
+
+		public PairCheck(Pair pair, double time, long id) {
+			this.pair = pair;
+			this.time = time;
+			this.version = pair.version;
+			this.id = id;
+		}
+
+		public int compareTo(PairCheck other) {
+			int c = Double.compare(this.time, other.time);
+			if (c == 0) {
+				c = this.id < other.id ? -1 : (this.id > other.id ? 1 : 0);
+			}
+			return c;
+		}
+	}
+}
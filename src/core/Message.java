@@ -4,50 +4,58 @@
  */
 package core;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
- * A message that is created at a node or passed between nodes.
+ * A message that is created at a node or passed between nodes. The data
+ * that is the same for all replicates of a message (e.g., the id, size and
+ * creation time) and the generic properties are shared by the replicates
+ * and copied only when a replicate modifies them. The paths of the
+ * replicates are immutable lists that share their common beginning.
  */
 public class Message implements Comparable<Message> {
 	/** Value for infinite TTL of message */
 	public static final int INFINITE_TTL = -1;
-	private DTNHost from;
-	private DTNHost to;
-	/** Identifier of the message */
-	private String id;
-	/** Size of the message (bytes) */
-	private int size;
-	/** List of nodes this message has passed */
-	private List<DTNHost> path;
+	/** Path recording level: nothing about the path is recorded */
+	public static final int PATH_NONE = 0;
+	/** Path recording level: only the hop count is recorded */
+	public static final int PATH_HOP_COUNT = 1;
+	/** Path recording level: all the nodes on the path are recorded */
+	public static final int PATH_FULL = 2;
+	/** Names of the path recording levels (indexed by the level) */
+	public static final String[] PATH_RECORDING_NAMES =
+		{"none", "hopCount", "full"};
+	/** Path recording level of all messages */
+	private static int pathRecording;
+	/** Data shared with the replicates of this message */
+	private Body body;
+	/** Is the body (possibly) shared with other replicates */
+	private boolean bodyShared;
+	/** List of nodes this message has passed (null if paths are not
+	 * recorded) */
+	private Path path;
+	/** Number of hops this message has passed */
+	private int hopCount;
 	/** Next unique identifier to be given */
 	private static int nextUniqueId;
+	/** Interned integer identifiers of the message identifiers */
+	private static Map<String, Integer> intIds;
 	/** Unique ID of this message */
 	private int uniqueId;
 	/** The time this message was received */
 	private double timeReceived;
-	/** The time when this message was created */
-	private double timeCreated;
-	/** Initial TTL of the message */
-	private int initTtl;
-
-	/** if a response to this message is required, this is the size of the
-	 * response message (or 0 if no response is requested) */
-	private int responseSize;
-	/** if this message is a response message, this is set to the request msg*/
-	private Message requestMsg;
 
 	/** Container for generic message properties. Note that all values
 	 * stored in the properties should be immutable because only a shallow
 	 * copy of the properties is made when replicating messages */
 	private Map<String, Object> properties;
-
-	/** Application ID of the application that created the message */
-	private String	appID;
+	/** Are the properties (possibly) shared with other replicates */
+	private boolean propertiesShared;
 
 	static {
 		reset();
@@ -63,31 +71,38 @@ public class Message implements Comparable<Message> {
 	 * @param size Size of the message (in bytes)
 	 */
 	public Message(DTNHost from, DTNHost to, String id, int size) {
-		this.from = from;
-		this.to = to;
-		this.id = id;
-		this.size = size;
-		this.path = new ArrayList<DTNHost>();
+		this.body = new Body(from, to, id, internId(id), size,
+				SimClock.getTime());
+		this.bodyShared = false;
+		this.path = null;
+		this.hopCount = -1;
 		this.uniqueId = nextUniqueId;
-
-		this.timeCreated = SimClock.getTime();
-		this.timeReceived = this.timeCreated;
-		this.initTtl = INFINITE_TTL;
-		this.responseSize = 0;
-		this.requestMsg = null;
+		this.timeReceived = this.body.timeCreated;
 		this.properties = null;
-		this.appID = null;
+		this.propertiesShared = false;
 
 		Message.nextUniqueId++;
 		addNodeOnPath(from);
 	}
 
+	/**
+	 * Creates a replicate of a message
+	 * @param m The message to replicate
+	 */
+	private Message(Message m) {
+		this.uniqueId = nextUniqueId;
+		this.timeReceived = SimClock.getTime();
+
+		Message.nextUniqueId++;
+		copyFrom(m);
+	}
+
 	/**
 	 * Returns the node this message is originally from
 	 * @return the node this message is originally from
 	 */
 	public DTNHost getFrom() {
-		return this.from;
+		return this.body.from;
 	}
 
 	/**
@@ -95,7 +110,7 @@ public class Message implements Comparable<Message> {
 	 * @return the node this message is originally to
 	 */
 	public DTNHost getTo() {
-		return this.to;
+		return this.body.to;
 	}
 
 	/**
@@ -103,7 +118,7 @@ public class Message implements Comparable<Message> {
 	 * @return The message id
 	 */
 	public String getId() {
-		return this.id;
+		return this.body.id;
 	}
 
 	/**
@@ -115,12 +130,22 @@ public class Message implements Comparable<Message> {
 		return this.uniqueId;
 	}
 
+	/**
+	 * Returns the interned integer ID of the message. All messages with
+	 * the same ID have the same integer ID, and the integer IDs are given
+	 * in the order the IDs are first used, starting from zero.
+	 * @return The integer ID
+	 */
+	public int getIntId() {
+		return this.body.intId;
+	}
+
 	/**
 	 * Returns the size of the message (in bytes)
 	 * @return the size of the message
 	 */
 	public int getSize() {
-		return this.size;
+		return this.body.size;
 	}
 
 	/**
@@ -128,23 +153,38 @@ public class Message implements Comparable<Message> {
 	 * @param node The node to add
 	 */
 	public void addNodeOnPath(DTNHost node) {
-		this.path.add(node);
+		this.hopCount++;
+		if (pathRecording == PATH_FULL) {
+			this.path = new Path(node, this.path);
+		}
 	}
 
 	/**
 	 * Returns a list of nodes this message has passed so far
-	 * @return The list as vector
+	 * @return The list (unmodifiable)
+	 * @throws SimError if the path recording level is not
+	 * {@link #PATH_FULL}
 	 */
 	public List<DTNHost> getHops() {
+		if (pathRecording < PATH_FULL) {
+			throw new SimError("Message paths are not recorded with path " +
+					"recording level " + PATH_RECORDING_NAMES[pathRecording]);
+		}
 		return this.path;
 	}
 
 	/**
 	 * Returns the amount of hops this message has passed
 	 * @return the amount of hops this message has passed
+	 * @throws SimError if the path recording level is {@link #PATH_NONE}
 	 */
 	public int getHopCount() {
-		return this.path.size() -1;
+		if (pathRecording < PATH_HOP_COUNT) {
+			throw new SimError("Message hop counts are not recorded with " +
+					"path recording level " +
+					PATH_RECORDING_NAMES[pathRecording]);
+		}
+		return this.hopCount;
 	}
 
 	/**
@@ -154,12 +194,12 @@ public class Message implements Comparable<Message> {
 	 * @return The TTL (minutes)
 	 */
 	public int getTtl() {
-		if (this.initTtl == INFINITE_TTL) {
+		if (this.body.initTtl == INFINITE_TTL) {
 			return Integer.MAX_VALUE;
 		}
 		else {
-			return (int)( ((this.initTtl * 60) -
-					(SimClock.getTime()-this.timeCreated)) /60.0 );
+			return (int)( ((this.body.initTtl * 60) -
+					(SimClock.getTime()-this.body.timeCreated)) /60.0 );
 		}
 	}
 
@@ -171,7 +211,15 @@ public class Message implements Comparable<Message> {
 	 * @param ttl The time-to-live to set
 	 */
 	public void setTtl(int ttl) {
-		this.initTtl = ttl;
+		writableBody().initTtl = ttl;
+	}
+
+	/**
+	 * Returns the initial TTL (minutes) of the message
+	 * @return The initial TTL or {@link #INFINITE_TTL}
+	 */
+	public int getInitTtl() {
+		return this.body.initTtl;
 	}
 
 	/**
@@ -195,7 +243,7 @@ public class Message implements Comparable<Message> {
 	 * @return the time when this message was created
 	 */
 	public double getCreationTime() {
-		return this.timeCreated;
+		return this.body.timeCreated;
 	}
 
 	/**
@@ -203,7 +251,7 @@ public class Message implements Comparable<Message> {
 	 * @param request The request message
 	 */
 	public void setRequest(Message request) {
-		this.requestMsg = request;
+		writableBody().requestMsg = request;
 	}
 
 	/**
@@ -212,7 +260,7 @@ public class Message implements Comparable<Message> {
 	 * @return the message this message is response to
 	 */
 	public Message getRequest() {
-		return this.requestMsg;
+		return this.body.requestMsg;
 	}
 
 	/**
@@ -220,7 +268,7 @@ public class Message implements Comparable<Message> {
 	 * @return true if this message is a response message
 	 */
 	public boolean isResponse() {
-		return this.requestMsg != null;
+		return this.body.requestMsg != null;
 	}
 
 	/**
@@ -229,7 +277,7 @@ public class Message implements Comparable<Message> {
 	 * @param size Size of the response message
 	 */
 	public void setResponseSize(int size) {
-		this.responseSize = size;
+		writableBody().responseSize = size;
 	}
 
 	/**
@@ -238,7 +286,7 @@ public class Message implements Comparable<Message> {
 	 * @return the size of the requested response message
 	 */
 	public int getResponseSize() {
-		return responseSize;
+		return this.body.responseSize;
 	}
 
 	/**
@@ -246,29 +294,39 @@ public class Message implements Comparable<Message> {
 	 * @return a string representation of the message
 	 */
 	public String toString () {
-		return id;
+		return this.body.id;
 	}
 
 	/**
-	 * Deep copies message data from other message. If new fields are
-	 * introduced to this class, most likely they should be copied here too
-	 * (unless done in constructor).
+	 * Copies message data from other message. The body and properties are
+	 * shared with the other message until either of the messages modifies
+	 * them. If new fields are introduced to this class, most likely they
+	 * should be copied here too (unless done in constructor).
 	 * @param m The message where the data is copied
 	 */
 	protected void copyFrom(Message m) {
-		this.path = new ArrayList<DTNHost>(m.path);
-		this.timeCreated = m.timeCreated;
-		this.responseSize = m.responseSize;
-		this.requestMsg  = m.requestMsg;
-		this.initTtl = m.initTtl;
-		this.appID = m.appID;
-
-		if (m.properties != null) {
-			Set<String> keys = m.properties.keySet();
-			for (String key : keys) {
-				updateProperty(key, m.getProperty(key));
-			}
+		this.body = m.body;
+		this.bodyShared = true;
+		m.bodyShared = true;
+		this.path = m.path;
+		this.hopCount = m.hopCount;
+
+		this.properties = m.properties;
+		this.propertiesShared = m.properties != null;
+		m.propertiesShared = this.propertiesShared;
+	}
+
+	/**
+	 * Returns the body of this message for modification. If the body is
+	 * shared with other replicates, it is copied first.
+	 * @return The body
+	 */
+	private Body writableBody() {
+		if (this.bodyShared) {
+			this.body = new Body(this.body);
+			this.bodyShared = false;
 		}
+		return this.body;
 	}
 
 	/**
@@ -317,6 +375,11 @@ public class Message implements Comparable<Message> {
 			   that don't use the property feature  */
 			this.properties = new HashMap<String, Object>();
 		}
+		else if (this.propertiesShared) {
+			/* copy on write; the other replicates keep the old values */
+			this.properties = new HashMap<String, Object>(this.properties);
+			this.propertiesShared = false;
+		}
 
 		this.properties.put(key, value);
 	}
@@ -326,9 +389,7 @@ public class Message implements Comparable<Message> {
 	 * @return A replicate of the message
 	 */
 	public Message replicate() {
-		Message m = new Message(from, to, id, size);
-		m.copyFrom(this);
-		return m;
+		return new Message(this);
 	}
 
 	/**
@@ -344,20 +405,204 @@ public class Message implements Comparable<Message> {
 	 */
 	public static void reset() {
 		nextUniqueId = 0;
+		intIds = new HashMap<String, Integer>();
+		pathRecording = PATH_FULL;
+	}
+
+	/**
+	 * Returns the interned integer ID of a message ID
+	 * @param id The message ID
+	 * @return The integer ID or -1 if no message has the ID
+	 * @see #getIntId()
+	 */
+	public static int toIntId(String id) {
+		Integer intId = intIds.get(id);
+		return intId != null ? intId : -1;
+	}
+
+	/**
+	 * Returns the interned integer ID of a message ID, giving the next
+	 * free integer ID to new IDs
+	 * @param id The message ID
+	 * @return The integer ID
+	 */
+	private static int internId(String id) {
+		Integer intId = intIds.get(id);
+		if (intId == null) {
+			intId = intIds.size();
+			intIds.put(id, intId);
+		}
+		return intId;
+	}
+
+	/**
+	 * Sets the path recording level of all messages. Should be set before
+	 * any messages are created.
+	 * @param level The level ({@link #PATH_NONE}, {@link #PATH_HOP_COUNT}
+	 * or {@link #PATH_FULL})
+	 */
+	public static void setPathRecording(int level) {
+		pathRecording = level;
+	}
+
+	/**
+	 * Returns the path recording level of all messages
+	 * @return The level
+	 */
+	public static int getPathRecording() {
+		return pathRecording;
 	}
 
 	/**
 	 * @return the appID
 	 */
 	public String getAppID() {
-		return appID;
+		return this.body.appID;
 	}
 
 	/**
 	 * @param appID the appID to set
 	 */
 	public void setAppID(String appID) {
-		this.appID = appID;
+		writableBody().appID = appID;
+	}
+
+	/**
+	 * Message data that is the same for all replicates of the message
+	 * unless a replicate modifies it
+	 */
+	private static class Body {
+		private final DTNHost from;
+		private final DTNHost to;
+		/** Identifier of the message */
+		private final String id;
+		/** Interned integer identifier of the message */
+		private final int intId;
+		/** Size of the message (bytes) */
+		private final int size;
+		/** The time when this message was created */
+		private final double timeCreated;
+		/** Initial TTL of the message */
+		private int initTtl;
+		/** if a response to this message is required, this is the size of
+		 * the response message (or 0 if no response is requested) */
+		private int responseSize;
+		/** if this message is a response message, this is set to the
+		 * request msg */
+		private Message requestMsg;
+		/** Application ID of the application that created the message */
+		private String appID;
+
+		public Body(DTNHost from, DTNHost to, String id, int intId,
+				int size, double timeCreated) {
+			this.from = from;
+			this.to = to;
+			this.id = id;
+			this.intId = intId;
+			this.size = size;
+			this.timeCreated = timeCreated;
+			this.initTtl = INFINITE_TTL;
+			this.responseSize = 0;
+			this.requestMsg = null;
+			this.appID = null;
+		}
+
+		/**
+		 * Copy constructor
+		 * @param b The body to copy
+		 */
+		public Body(Body b) {
+			this(b.from, b.to, b.id, b.intId, b.size, b.timeCreated);
+			this.initTtl = b.initTtl;
+			this.responseSize = b.responseSize;
+			this.requestMsg = b.requestMsg;
+			this.appID = b.appID;
+		}
 	}
 
+	/**
+	 * Immutable list of the nodes a message has passed. Each list is the
+	 * last node and the list of the nodes before it, so adding a node to a
+	 * replicate's path doesn't copy or modify the paths of other replicates.
+	 * The nodes are put in an array when the path is first iterated, so
+	 * iterating the same path again doesn't walk through the list.
+	 */
+	private static class Path extends AbstractList<DTNHost> {
+		private final DTNHost node;
+		private final Path previous;
+		private final int size;
+		/** the nodes in an array (or null if not created yet) */
+		private volatile DTNHost[] nodes;
+
+		/**
+		 * Creates a new path
+		 * @param node The last node of the path
+		 * @param previous The path before the last node (or null)
+		 */
+		public Path(DTNHost node, Path previous) {
+			this.node = node;
+			this.previous = previous;
+			this.size = previous == null ? 1 : previous.size + 1;
+		}
+
+		@Override
+		public DTNHost get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index +
+						", Size: " + size);
+			}
+			DTNHost[] nodes = this.nodes;
+			if (nodes != null) {
+				return nodes[index];
+			}
+			Path p = this;
+			for (int i = size - 1; i > index; i--) {
+				p = p.previous;
+			}
+			return p.node;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			for (Path p = this; p != null; p = p.previous) {
+				if (o == null ? p.node == null : o.equals(p.node)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public Object[] toArray() {
+			return nodes().clone();
+		}
+
+		@Override
+		public Iterator<DTNHost> iterator() {
+			return Arrays.asList(nodes()).iterator();
+		}
+
+		/**
+		 * Returns the nodes of the path in an array (first node first). The
+		 * array is shared and must not be modified.
+		 */
+		private DTNHost[] nodes() {
+			DTNHost[] nodes = this.nodes;
+			if (nodes == null) {
+				nodes = new DTNHost[size];
+				Path p = this;
+				for (int i = size - 1; i >= 0; i--) {
+					nodes[i] = p.node;
+					p = p.previous;
+				}
+				this.nodes = nodes;
+			}
+			return nodes;
+		}
+	}
 }
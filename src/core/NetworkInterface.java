@@ -6,8 +6,10 @@ package core;
 
 import interfaces.ConnectivityGrid;
 import interfaces.ConnectivityOptimizer;
+import interfaces.IndexedConnectivityGrid;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Random;
 
@@ -63,6 +65,13 @@ abstract public class NetworkInterface implements ModuleCommunicationListener {
 	/** scanning interval, or 0.0 if n/a */
 	private double scanInterval;
 	private double lastScanTime;
+	/** within range near interfaces collected by {@link #prepareUpdate()}
+	 * for the next update, or null if there are none */
+	private List<NetworkInterface> preparedNear = null;
+	/** index of this interface in its connectivity optimizer (or -1) */
+	private int optimizerIndex = -1;
+	/** buffer for near cell ids when using an indexed connectivity grid */
+	private int[] nearCellIds = null;
 
 	/** activeness handler for the node group */
 	private ActivenessHandler ah;
@@ -155,8 +164,14 @@ abstract public class NetworkInterface implements ModuleCommunicationListener {
 		}
 
 		if (transmitRange > 0) {
-			optimizer = ConnectivityGrid.ConnectivityGridFactory(
-					this.interfacetype.hashCode(), transmitRange);
+			if (IndexedConnectivityGrid.isEnabled()) {
+				optimizer = IndexedConnectivityGrid.
+					IndexedConnectivityGridFactory(
+							this.interfacetype.hashCode(), transmitRange);
+			} else {
+				optimizer = ConnectivityGrid.ConnectivityGridFactory(
+						this.interfacetype.hashCode(), transmitRange);
+			}
 			optimizer.addInterface(this);
 		} else {
 			optimizer = null;
@@ -398,6 +413,134 @@ abstract public class NetworkInterface implements ModuleCommunicationListener {
 	 */
 	abstract public void update();
 
+	/**
+	 * Updates the state of the current connections (e.g., transmission
+	 * speeds) after the set of connections has been updated. Called at the
+	 * end of {@link #update()} by interfaces that need it, and by the
+	 * {@link ContactDetector} (which sets up and tears down connections
+	 * instead of {@link #update()}). Default implementation does nothing.
+	 */
+	protected void updateConnectionStates() {
+		/* nothing to update by default */
+	}
+
+	/**
+	 * Updates this interface's location in the connectivity optimizer
+	 * (if the interface uses one).
+	 */
+	public void updateOptimizerLocation() {
+		if (optimizer != null) {
+			optimizer.updateLocation(this);
+		}
+	}
+
+	/**
+	 * Collects the near interfaces that are currently within range of this
+	 * interface for the next {@link #update()} call. Only reads the
+	 * optimizer and the other interfaces, so this can be called for
+	 * different interfaces concurrently as long as no interface is moved
+	 * or updated at the same time.
+	 */
+	public void prepareUpdate() {
+		if (optimizer == null) {
+			this.preparedNear = null;
+			return;
+		}
+
+		List<NetworkInterface> near = new ArrayList<NetworkInterface>();
+		if (optimizer instanceof IndexedConnectivityGrid) {
+			IndexedConnectivityGrid grid = (IndexedConnectivityGrid)optimizer;
+			int nrofCells = grid.getNearCells(this, getNearCellIdBuffer());
+			for (int c=0; c < nrofCells; c++) {
+				int cell = nearCellIds[c];
+				for (int i=0, n = grid.getNrofInterfaces(cell); i < n; i++) {
+					NetworkInterface ni = grid.getInterface(cell, i);
+					if (ni != this && isWithinRange(ni)) {
+						near.add(ni);
+					}
+				}
+			}
+		} else {
+			for (NetworkInterface ni : optimizer.getNearInterfaces(this)) {
+				if (ni != this && isWithinRange(ni)) {
+					near.add(ni);
+				}
+			}
+		}
+		this.preparedNear = near;
+	}
+
+	/**
+	 * Tries to connect this interface to all interfaces returned by
+	 * {@link #getNearInterfaces()} using {@link #connect(NetworkInterface)}.
+	 * With an {@link IndexedConnectivityGrid}, the near interfaces are
+	 * iterated without allocating a collection for them.
+	 */
+	protected void connectToNearInterfaces() {
+		if (this.preparedNear == null &&
+				optimizer instanceof IndexedConnectivityGrid) {
+			IndexedConnectivityGrid grid = (IndexedConnectivityGrid)optimizer;
+			int nrofCells = grid.getNearCells(this, getNearCellIdBuffer());
+			for (int c=0; c < nrofCells; c++) {
+				int cell = nearCellIds[c];
+				for (int i=0, n = grid.getNrofInterfaces(cell); i < n; i++) {
+					connect(grid.getInterface(cell, i));
+				}
+			}
+			return;
+		}
+
+		for (NetworkInterface ni : getNearInterfaces()) {
+			connect(ni);
+		}
+	}
+
+	/**
+	 * Returns the (lazily created) buffer for near cell ids
+	 * @return the buffer for near cell ids
+	 */
+	private int[] getNearCellIdBuffer() {
+		if (this.nearCellIds == null) {
+			this.nearCellIds =
+				new int[IndexedConnectivityGrid.MAX_NEAR_CELLS];
+		}
+		return this.nearCellIds;
+	}
+
+	/**
+	 * Returns the index of this interface in its connectivity optimizer.
+	 * Used by optimizers that index their interfaces (e.g.
+	 * {@link IndexedConnectivityGrid}).
+	 * @return The index or -1 if the interface is not indexed
+	 */
+	public int getOptimizerIndex() {
+		return this.optimizerIndex;
+	}
+
+	/**
+	 * Sets the index of this interface in its connectivity optimizer
+	 * @param index The index (or -1 if the interface is not indexed)
+	 */
+	public void setOptimizerIndex(int index) {
+		this.optimizerIndex = index;
+	}
+
+	/**
+	 * Returns the interfaces that this interface could connect to. If
+	 * {@link #prepareUpdate()} was called after the previous call of this
+	 * method, the prepared interfaces are returned; otherwise the near
+	 * interfaces are requested from the connectivity optimizer.
+	 * @return The possibly connectable interfaces
+	 */
+	protected Collection<NetworkInterface> getNearInterfaces() {
+		if (this.preparedNear != null) {
+			List<NetworkInterface> near = this.preparedNear;
+			this.preparedNear = null;
+			return near;
+		}
+		return optimizer.getNearInterfaces(this);
+	}
+
 	/**
 	 * Notifies all the connection listeners about a change in connections.
 	 * @param type Type of the change (e.g. {@link #CON_DOWN} )
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <P>Multi-threaded host update engine for the {@link World}. Enabled with
+ * the {@link World#PARALLEL_UPDATE_S} setting.</P>
+ *
+ * <P>Only the parts of an update round that don't depend on the order of
+ * the hosts are run concurrently, so the results are the same with any
+ * number of threads:
+ * <UL>
+ * <LI>Movement: hosts that stay on their current path segment are moved
+ * concurrently. Hosts that reach a waypoint (and may thus request new
+ * paths from the shared movement model random number generator or inform
+ * movement listeners) are moved afterwards one by one in address order,
+ * just like in the serial update.</LI>
+ * <LI>Connectivity: the within range interfaces of every interface are
+ * collected concurrently (the {@link World} has already updated the
+ * locations of all interfaces in the connectivity optimizers).</LI>
+ * <LI>Connections and routers are updated one host at a time in the normal
+ * update order (first the connections and then the router of a host), just
+ * like in the serial update, using the collected near interfaces.</LI>
+ * </UL></P>
+ */
+public class ParallelHostUpdater {
+	/** idle time (seconds) after which worker threads are terminated */
+	private static final long THREAD_KEEP_ALIVE = 60;
+
+	private final int nrofThreads;
+	private final ExecutorService executor;
+
+	/**
+	 * Creates a new parallel updater
+	 * @param nrofThreads Number of worker threads to use
+	 */
+	public ParallelHostUpdater(int nrofThreads) {
+		this.nrofThreads = nrofThreads;
+		ThreadPoolExecutor tpe = new ThreadPoolExecutor(nrofThreads,
+				nrofThreads, THREAD_KEEP_ALIVE, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "HostUpdater");
+				t.setDaemon(true); // don't prevent the simulator from exiting
+				return t;
+			}
+		});
+		tpe.allowCoreThreadTimeOut(true);
+		this.executor = tpe;
+	}
+
+	/**
+	 * Moves all hosts for the given amount of time.
+	 * @param hosts The hosts to move (in address order)
+	 * @param timeIncrement The time how long all hosts should move
+	 */
+	public void moveHosts(final List<DTNHost> hosts,
+			final double timeIncrement) {
+		int n = hosts.size();
+		final boolean[] ready = new boolean[n];
+		final boolean[] moved = new boolean[n];
+
+		/* activeness handlers may be shared by hosts -> check serially */
+		for (int i=0; i<n; i++) {
+			ready[i] = hosts.get(i).isReadyToMove();
+		}
+
+		runInParallel(n, new RangeTask() {
+			public void run(int from, int to) {
+				for (int i=from; i<to; i++) {
+					if (ready[i]) {
+						moved[i] = hosts.get(i).moveWithinSegment(
+								timeIncrement);
+					}
+				}
+			}
+		});
+
+		/* hosts that reach a waypoint are moved in the serial order */
+		for (int i=0; i<n; i++) {
+			if (ready[i] && !moved[i]) {
+				hosts.get(i).move(timeIncrement);
+			}
+		}
+	}
+
+	/**
+	 * Updates the connections and routers of all hosts. The locations of
+	 * the hosts' interfaces must be up to date in the connectivity
+	 * optimizers.
+	 * @param hosts The hosts in the order they should be updated
+	 * @param simulateConnections Should the network layer be updated too
+	 */
+	public void updateHosts(final List<DTNHost> hosts,
+			boolean simulateConnections) {
+		int n = hosts.size();
+
+		if (simulateConnections) {
+			runInParallel(n, new RangeTask() {
+				public void run(int from, int to) {
+					for (int i=from; i<to; i++) {
+						hosts.get(i).prepareConnectivity();
+					}
+				}
+			});
+		}
+
+		for (int i=0; i<n; i++) {
+			hosts.get(i).update(simulateConnections);
+		}
+	}
+
+	/**
+	 * Splits the index range [0, n) to (at most) one chunk per thread,
+	 * runs the task for all chunks and waits until all of them are done.
+	 * @param n Size of the index range
+	 * @param task The task to run
+	 */
+	private void runInParallel(int n, final RangeTask task) {
+		int chunkSize = (n + nrofThreads - 1) / nrofThreads;
+		List<Future<?>> futures = new ArrayList<Future<?>>(nrofThreads);
+
+		if (n == 0) {
+			return;
+		}
+		if (nrofThreads == 1) {
+			task.run(0, n);
+			return;
+		}
+
+		for (int start = 0; start < n; start += chunkSize) {
+			final int from = start;
+			final int to = Math.min(n, start + chunkSize);
+			futures.add(executor.submit(new Runnable() {
+				public void run() {
+					task.run(from, to);
+				}
+			}));
+		}
+
+		for (Future<?> f : futures) {
+			try {
+				f.get();
+			} catch (InterruptedException e) {
+				throw new SimError("Parallel update interrupted:" + e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof Error) {
+					throw (Error)cause; // e.g., SimError from a host
+				}
+				throw new SimError("Parallel update failed: " + cause, e);
+			}
+		}
+	}
+
+	/**
+	 * A task that processes a range of indices
+	 */
+	private interface RangeTask {
+		/**
+		 * Processes the indices from (inclusive) to (exclusive)
+		 * @param from The first index
+		 * @param to The index after the last index
+		 */
+		public void run(int from, int to);
+	}
+}
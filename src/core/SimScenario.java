@@ -39,6 +39,10 @@ public class SimScenario implements Serializable {
 	public static final String UP_INT_S = "updateInterval";
 	/** simulate connections -setting id ({@value})*/
 	public static final String SIM_CON_S = "simulateConnections";
+	/** message path recording level -setting id ({@value}). One of
+	 * {@link Message#PATH_RECORDING_NAMES}. If not given, the lowest level
+	 * that all reports and routers need is used. */
+	public static final String PATH_RECORDING_S = "pathRecording";
 
 	/** namespace for interface type settings ({@value}) */
 	public static final String INTTYPE_NS = "Interface";
@@ -6,6 +6,7 @@ package core;
 
 import input.EventQueue;
 import input.ExternalEvent;
+import input.MergedEventQueue;
 import input.ScheduledUpdatesQueue;
 
 import java.util.ArrayList;
@@ -48,9 +49,49 @@ public class World {
 	 */
 	public static final String SIMULATE_CON_ONCE_S = "simulateConnectionsOnce";
 
+	/**
+	 * Should hosts be moved and updated using multiple threads -setting id
+	 * ({@value}). Boolean (true/false) variable. Default = false.
+	 * The results don't depend on the number of threads, but they can
+	 * differ from the serial update's results since the connectivity
+	 * optimizer locations of all hosts are updated before the host updates.
+	 * See {@link ParallelHostUpdater} for details.
+	 */
+	public static final String PARALLEL_UPDATE_S = "parallelUpdate";
+	/**
+	 * Number of threads used for parallel host updates -setting id
+	 * ({@value}). Integer value. Default is the number of available
+	 * processors.
+	 */
+	public static final String NROF_UPDATE_THREADS_S = "nrofUpdateThreads";
+
+	/**
+	 * Should contacts be detected once per update round for all interface
+	 * pairs instead of every interface updating its own connections
+	 * -setting id ({@value}). Boolean (true/false) variable. Default = false.
+	 * The same contacts are detected, but the connections of an update
+	 * round come up in a different order, so routing results can differ.
+	 * See {@link ContactDetector} for details.
+	 */
+	public static final String PAIRWISE_CONTACTS_S = "pairwiseContacts";
+	/**
+	 * Should contacts be predicted from the hosts' movement and checked
+	 * only when they may change -setting id ({@value}). Boolean (true/false)
+	 * variable. Implies {@link #PAIRWISE_CONTACTS_S} (and can change the
+	 * results the same way). Default = false.
+	 * See {@link KinematicContactDetector} for details.
+	 */
+	public static final String PREDICT_CONTACTS_S = "predictContacts";
+	/**
+	 * Should hosts be moved in bulk using a struct of arrays store of their
+	 * movement state -setting id ({@value}). Boolean (true/false) variable.
+	 * Default = false. Can't be used with {@link #PARALLEL_UPDATE_S}.
+	 * See {@link HostMovementStore} for details.
+	 */
+	public static final String BULK_MOVEMENT_S = "bulkMovement";
+
 	private int sizeX;
 	private int sizeY;
-	private List<EventQueue> eventQueues;
 	private double updateInterval;
 	private SimClock simClock;
 	private double nextQueueEventTime;
@@ -70,6 +111,13 @@ public class World {
 	
 	private boolean realtimeSimulation;
 	private long simStartRealtime;
+	/** multi-threaded host updater (or null if hosts are updated serially) */
+	private ParallelHostUpdater parallelUpdater;
+	/** world-level contact detector (or null if interfaces detect their own
+	 * contacts) */
+	private ContactDetector contactDetector;
+	/** movement state store for bulk movement (or null if not used) */
+	private HostMovementStore movementStore;
 
 	/**
 	 * Constructor.
@@ -83,10 +131,11 @@ public class World {
 		this.updateInterval = updateInterval;
 		this.updateListeners = updateListeners;
 		this.simulateConnections = simulateConnections;
-		this.eventQueues = eventQueues;
 
 		this.simClock = SimClock.getInstance();
 		this.scheduledUpdates = new ScheduledUpdatesQueue();
+		this.nextEventQueue = new MergedEventQueue(
+				Collections.singletonList(this.scheduledUpdates), eventQueues);
 		this.isCancelled = false;
 
 		this.simStartRealtime = -1;
@@ -107,6 +156,44 @@ public class World {
 		
 		this.realtimeSimulation = s.getBoolean(REALTIME_SIM_S ,false);
 
+		if (s.getBoolean(PARALLEL_UPDATE_S, false) &&
+				s.getBoolean(BULK_MOVEMENT_S, false)) {
+			throw new SettingsError(OPTIMIZATION_SETTINGS_NS + "." +
+					PARALLEL_UPDATE_S + " can't be used together with " +
+					OPTIMIZATION_SETTINGS_NS + "." + BULK_MOVEMENT_S);
+		}
+
+		if (s.getBoolean(PARALLEL_UPDATE_S, false)) {
+			int nrofThreads = s.getInt(NROF_UPDATE_THREADS_S,
+					Runtime.getRuntime().availableProcessors());
+			if (nrofThreads < 1) {
+				throw new SettingsError("Too small value (" + nrofThreads +
+						") for " + OPTIMIZATION_SETTINGS_NS + "." +
+						NROF_UPDATE_THREADS_S);
+			}
+			this.parallelUpdater = new ParallelHostUpdater(nrofThreads);
+		}
+		else {
+			this.parallelUpdater = null;
+		}
+
+		if (s.getBoolean(PREDICT_CONTACTS_S, false)) {
+			this.contactDetector = new KinematicContactDetector(this.hosts);
+		}
+		else if (s.getBoolean(PAIRWISE_CONTACTS_S, false)) {
+			this.contactDetector = new ContactDetector(this.hosts);
+		}
+		else {
+			this.contactDetector = null;
+		}
+
+		if (s.getBoolean(BULK_MOVEMENT_S, false)) {
+			this.movementStore = new HostMovementStore(this.hosts);
+		}
+		else {
+			this.movementStore = null;
+		}
+
 		if(randomizeUpdates) {
 			// creates the update order array that can be shuffled
 			this.updateOrder = new ArrayList<DTNHost>(this.hosts);
@@ -139,23 +226,12 @@ public class World {
 	}
 
 	/**
-	 * Goes through all event Queues and sets the
-	 * event queue that has the next event.
+	 * Sets the time of the next event in any of the event queues. The
+	 * queues are merged in a {@link MergedEventQueue} so this doesn't have
+	 * to go through all the queues.
 	 */
 	public void setNextEventQueue() {
-		EventQueue nextQueue = scheduledUpdates;
-		double earliest = nextQueue.nextEventsTime();
-
-		/* find the queue that has the next event */
-		for (EventQueue eq : eventQueues) {
-			if (eq.nextEventsTime() < earliest){
-				nextQueue = eq;
-				earliest = eq.nextEventsTime();
-			}
-		}
-
-		this.nextEventQueue = nextQueue;
-		this.nextQueueEventTime = earliest;
+		this.nextQueueEventTime = this.nextEventQueue.nextEventsTime();
 	}
 
 	/**
@@ -212,12 +288,22 @@ public class World {
 	 * are made in random order.
 	 */
 	private void updateHosts() {
-		if (this.updateOrder == null) { // randomizing is off
+		boolean updateInterfaces = simulateConnections;
+
+		if (this.contactDetector != null && simulateConnections) {
+			this.contactDetector.update();
+			updateInterfaces = false; // connections are already up to date
+		}
+
+		if (this.parallelUpdater != null) {
+			updateHostsInParallel(updateInterfaces);
+		}
+		else if (this.updateOrder == null) { // randomizing is off
 			for (int i=0, n = hosts.size();i < n; i++) {
 				if (this.isCancelled) {
 					break;
 				}
-				hosts.get(i).update(simulateConnections);
+				hosts.get(i).update(updateInterfaces);
 			}
 		}
 		else { // update order randomizing is on
@@ -229,7 +315,7 @@ public class World {
 				if (this.isCancelled) {
 					break;
 				}
-				this.updateOrder.get(i).update(simulateConnections);
+				this.updateOrder.get(i).update(updateInterfaces);
 			}
 		}
 
@@ -238,11 +324,52 @@ public class World {
 		}
 	}
 
+	/**
+	 * Updates all hosts using the parallel host updater. The update order
+	 * is randomized the same way as in the serial update. Unlike in the
+	 * serial update, where an interface's location in the connectivity
+	 * optimizer is updated only when its own host is updated, the
+	 * locations of all interfaces are updated first, so the connections may
+	 * come up in a different order than in the serial update.
+	 * @param updateInterfaces Should the network interfaces be updated
+	 */
+	private void updateHostsInParallel(boolean updateInterfaces) {
+		List<DTNHost> order = this.hosts;
+
+		if (this.isCancelled) {
+			return;
+		}
+		if (this.updateOrder != null) {
+			Random rng = new Random(SimClock.getIntTime());
+			Collections.shuffle(this.updateOrder, rng);
+			order = this.updateOrder;
+		}
+
+		if (updateInterfaces) {
+			/* the near interfaces are collected concurrently, so all
+			 * interfaces see the same locations during the round */
+			for (int i=0, n = hosts.size(); i < n; i++) {
+				hosts.get(i).updateOptimizerLocations();
+			}
+		}
+
+		this.parallelUpdater.updateHosts(order, updateInterfaces);
+	}
+
 	/**
 	 * Moves all hosts in the world for a given amount of time
 	 * @param timeIncrement The time how long all nodes should move
 	 */
 	private void moveHosts(double timeIncrement) {
+		if (this.movementStore != null) {
+			this.movementStore.moveAll(timeIncrement);
+			return;
+		}
+		if (this.parallelUpdater != null) {
+			this.parallelUpdater.moveHosts(this.hosts, timeIncrement);
+			return;
+		}
+
 		for (int i=0,n = hosts.size(); i<n; i++) {
 			DTNHost host = hosts.get(i);
 			host.move(timeIncrement);
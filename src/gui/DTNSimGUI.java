@@ -21,6 +21,7 @@ import movement.Path;
 import ui.DTNSimUI;
 import core.Coord;
 import core.DTNHost;
+import core.Message;
 import core.SimClock;
 
 /**
@@ -53,6 +54,11 @@ public class DTNSimGUI extends DTNSimUI {
 		}
 	}
 
+	@Override
+	protected int getRequiredPathRecording() {
+		return Message.PATH_FULL; // info panel shows the paths
+	}
+
 	/**
 	 * Initializes the GUI
 	 */
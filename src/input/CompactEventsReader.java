@@ -0,0 +1,226 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package input;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import core.SimError;
+
+/**
+ * <P>Reads external events from a compact binary file created with
+ * {@link CompactEventsWriter}. The file is memory mapped and read in
+ * windows of at most {@value #WINDOW_RECORDS} events, so files larger than
+ * the available memory (or 2GB) can be streamed.</P>
+ *
+ * <P>File layout (all values big-endian):
+ * <UL>
+ * <LI>header: magic number ({@value #MAGIC}), format version, number of
+ * events (long) and offset of the string table (long)</LI>
+ * <LI>events as fixed size records of {@value #RECORD_SIZE} bytes: time
+ * (double), type, host address, second host address, string table index
+ * of the message or interface id (-1 for none), message size and response
+ * size</LI>
+ * <LI>string table: number of strings and every string as its UTF-8 byte
+ * count and bytes</LI>
+ * </UL>
+ * All events with the same message id share the same String object.</P>
+ */
+public class CompactEventsReader implements ExternalEventsReader {
+	/** Extension of compact binary external events file ({@value}) */
+	public static final String COMPACT_EXT = ".cee";
+	/** Magic number in the beginning of the file ({@value}) */
+	public static final int MAGIC = 0x4F4E4545;
+	/** Version of the file format ({@value}) */
+	public static final int VERSION = 1;
+	/** Size of the header in bytes ({@value}) */
+	public static final int HEADER_SIZE = 24;
+	/** Size of an event record in bytes ({@value}) */
+	public static final int RECORD_SIZE = 32;
+	/** Maximum number of event records mapped at a time ({@value}) */
+	public static final int WINDOW_RECORDS = 1 << 20;
+
+	/** event type of message creation */
+	public static final int CREATE = 0;
+	/** event type of message transfer start */
+	public static final int SEND = MessageRelayEvent.SENDING;
+	/** event type of message delivery */
+	public static final int DELIVERED = MessageRelayEvent.TRANSFERRED;
+	/** event type of aborted message transfer */
+	public static final int ABORT = MessageRelayEvent.ABORTED;
+	/** event type of message drop */
+	public static final int DROP = 4;
+	/** event type of message removal */
+	public static final int REMOVE = 5;
+	/** event type of connection up */
+	public static final int CONN_UP = 6;
+	/** event type of connection down */
+	public static final int CONN_DOWN = 7;
+
+	private RandomAccessFile file;
+	private FileChannel channel;
+	private String[] strings;
+	private long nrofEvents;
+	private long eventsRead;
+	/** currently mapped window of event records */
+	private MappedByteBuffer window;
+
+	/**
+	 * Constructor.
+	 * @param eventsFile The file where the events are read
+	 */
+	public CompactEventsReader(File eventsFile) {
+		try {
+			this.file = new RandomAccessFile(eventsFile, "r");
+			this.channel = file.getChannel();
+
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					HEADER_SIZE);
+			if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+				close();
+				throw new SimError("Invalid compact external events file " +
+						eventsFile.getAbsolutePath());
+			}
+			this.nrofEvents = header.getLong();
+			readStrings(header.getLong());
+		} catch (IOException e) {
+			throw new SimError("Can't read compact external events file " +
+					eventsFile.getAbsolutePath(), e);
+		}
+		this.eventsRead = 0;
+	}
+
+	/**
+	 * Reads the string table
+	 * @param offset Offset of the string table in the file
+	 * @throws IOException if reading fails
+	 */
+	private void readStrings(long offset) throws IOException {
+		ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+				channel.size() - offset);
+		int nrof = table.getInt();
+		byte[] bytes = new byte[64];
+
+		this.strings = new String[nrof];
+		for (int i=0; i < nrof; i++) {
+			int len = table.getInt();
+			if (len > bytes.length) {
+				bytes = new byte[len];
+			}
+			table.get(bytes, 0, len);
+			strings[i] = new String(bytes, 0, len, "UTF-8");
+		}
+	}
+
+	/**
+	 * Read events from a compact file
+	 * @param nrof Maximum number of events to read
+	 * @return Events in an ArrayList (empty list if didn't read any)
+	 */
+	public List<ExternalEvent> readEvents(int nrof) {
+		int count = (int)Math.min(nrof, nrofEvents - eventsRead);
+		ArrayList<ExternalEvent> events = new ArrayList<ExternalEvent>(count);
+
+		try {
+			for (int i=0; i < count; i++) {
+				if (window == null || !window.hasRemaining()) {
+					mapNextWindow();
+				}
+				events.add(readEvent(window));
+				eventsRead++;
+			}
+		} catch (IOException e) {
+			throw new SimError("Reading compact external events failed", e);
+		}
+
+		return events;
+	}
+
+	/**
+	 * Maps the next window of event records
+	 * @throws IOException if mapping fails
+	 */
+	private void mapNextWindow() throws IOException {
+		long nrofRecords = Math.min(WINDOW_RECORDS, nrofEvents - eventsRead);
+		window = channel.map(FileChannel.MapMode.READ_ONLY,
+				HEADER_SIZE + eventsRead * RECORD_SIZE,
+				nrofRecords * RECORD_SIZE);
+	}
+
+	/**
+	 * Reads one event record from a buffer
+	 * @param buf The buffer
+	 * @return The event
+	 */
+	private ExternalEvent readEvent(ByteBuffer buf) {
+		double time = buf.getDouble();
+		int type = buf.getInt();
+		int from = buf.getInt();
+		int to = buf.getInt();
+		int stringId = buf.getInt();
+		int size = buf.getInt();
+		int respSize = buf.getInt();
+		String id = stringId < 0 ? null : strings[stringId];
+
+		switch (type) {
+		case CREATE:
+			return new MessageCreateEvent(from, to, id, size, respSize, time);
+		case SEND:
+		case DELIVERED:
+		case ABORT:
+			return new MessageRelayEvent(from, to, id, time, type);
+		case DROP:
+		case REMOVE:
+			return new MessageDeleteEvent(from, id, time, type == DROP);
+		case CONN_UP:
+		case CONN_DOWN:
+			return new ConnectionEvent(from, to, id, type == CONN_UP, time);
+		default:
+			throw new SimError("Unknown event type " + type + " in event " +
+					(eventsRead + 1) + " of compact external events file");
+		}
+	}
+
+	/**
+	 * Checks if the given file is a compact external events file
+	 * @param file The file to check
+	 * @return True if the file name has the {@link #COMPACT_EXT} extension
+	 * and the file starts with the compact file header
+	 */
+	public static boolean isCompactEeFile(File file) {
+		if (!file.getName().endsWith(COMPACT_EXT)) {
+			return false;
+		}
+
+		try {
+			RandomAccessFile raf = new RandomAccessFile(file, "r");
+			try {
+				return raf.length() >= HEADER_SIZE &&
+					raf.readInt() == MAGIC && raf.readInt() == VERSION;
+			}
+			finally {
+				raf.close();
+			}
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	public void close() {
+		try {
+			this.window = null;
+			this.file.close();
+		}
+		catch (IOException ioe) {
+			throw new SimError(ioe);
+		}
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package input;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import core.SimError;
+
+/**
+ * <P>Writes external events to the compact binary format read by
+ * {@link CompactEventsReader}. The events are written as fixed size
+ * records and all message and interface identifiers are stored only once,
+ * in a string table at the end of the file. See {@link CompactEventsReader}
+ * for the file layout.</P>
+ *
+ * <P>Standard format event files can be converted from the command line:
+ * <BR><TT>java -cp target input.CompactEventsWriter &lt;text events file&gt;
+ * &lt;compact events file&gt;</TT></P>
+ */
+public class CompactEventsWriter {
+	/** how many events are read at a time when converting a text file */
+	private static final int CONVERT_BATCH = 10000;
+
+	private File file;
+	private DataOutputStream out;
+	private Map<String, Integer> stringIds;
+	private List<String> strings;
+	private long nrofEvents;
+
+	/**
+	 * Creates a writer that writes events to the given file
+	 * @param file The file to write to
+	 * @throws IOException if the file can't be created
+	 */
+	public CompactEventsWriter(File file) throws IOException {
+		this.file = file;
+		this.out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file), 1 << 16));
+		this.stringIds = new HashMap<String, Integer>();
+		this.strings = new ArrayList<String>();
+		this.nrofEvents = 0;
+
+		/* header is re-written when the writer is closed */
+		writeHeader(this.out, 0, 0);
+	}
+
+	/**
+	 * Writes an event. The events should be written in the order of their
+	 * times.
+	 * @param ee The event to write
+	 * @throws IOException if writing fails
+	 * @throws SimError if the event type has no compact representation
+	 */
+	public void write(ExternalEvent ee) throws IOException {
+		int type;
+		int from = 0;
+		int to = 0;
+		int stringId = -1;
+		int size = 0;
+		int respSize = 0;
+
+		if (ee instanceof ConnectionEvent) {
+			ConnectionEvent ce = (ConnectionEvent)ee;
+			type = ce.isUp ? CompactEventsReader.CONN_UP :
+				CompactEventsReader.CONN_DOWN;
+			from = ce.fromAddr;
+			to = ce.toAddr;
+			stringId = getStringId(ce.interfaceId);
+		}
+		else if (ee instanceof MessageEvent) {
+			MessageEvent me = (MessageEvent)ee;
+			from = me.fromAddr;
+			to = me.toAddr;
+			stringId = getStringId(me.id);
+
+			if (me instanceof MessageCreateEvent) {
+				type = CompactEventsReader.CREATE;
+				size = ((MessageCreateEvent)me).size;
+				respSize = ((MessageCreateEvent)me).responseSize;
+			}
+			else if (me instanceof MessageRelayEvent) {
+				type = ((MessageRelayEvent)me).stage;
+			}
+			else if (me instanceof MessageDeleteEvent) {
+				type = ((MessageDeleteEvent)me).drop ?
+						CompactEventsReader.DROP : CompactEventsReader.REMOVE;
+			}
+			else {
+				throw new SimError("No compact format for event " + ee);
+			}
+		}
+		else {
+			throw new SimError("No compact format for event " + ee);
+		}
+
+		out.writeDouble(ee.getTime());
+		out.writeInt(type);
+		out.writeInt(from);
+		out.writeInt(to);
+		out.writeInt(stringId);
+		out.writeInt(size);
+		out.writeInt(respSize);
+		nrofEvents++;
+	}
+
+	/**
+	 * Writes the string table and the final header and closes the file
+	 * @throws IOException if writing fails
+	 */
+	public void close() throws IOException {
+		long stringsOffset = CompactEventsReader.HEADER_SIZE +
+			nrofEvents * CompactEventsReader.RECORD_SIZE;
+
+		out.writeInt(strings.size());
+		for (String s : strings) {
+			byte[] bytes = s.getBytes("UTF-8");
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+		out.close();
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			writeHeader(raf, nrofEvents, stringsOffset);
+		}
+		finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Returns the index of a string in the string table. New strings are
+	 * added to the table.
+	 * @param s The string (or null)
+	 * @return The index of the string or -1 for null
+	 */
+	private int getStringId(String s) {
+		if (s == null) {
+			return -1;
+		}
+		Integer id = stringIds.get(s);
+		if (id == null) {
+			id = strings.size();
+			strings.add(s);
+			stringIds.put(s, id);
+		}
+		return id;
+	}
+
+	private static void writeHeader(DataOutput out, long nrofEvents,
+			long stringsOffset) throws IOException {
+		out.writeInt(CompactEventsReader.MAGIC);
+		out.writeInt(CompactEventsReader.VERSION);
+		out.writeLong(nrofEvents);
+		out.writeLong(stringsOffset);
+	}
+
+	/**
+	 * Converts a standard format external events file to a compact
+	 * binary file.
+	 * @param textFile The standard format file
+	 * @param compactFile The file where the compact events are written
+	 * @return Number of converted events
+	 * @throws IOException if writing fails
+	 * @see StandardEventsReader
+	 */
+	public static long convert(File textFile, File compactFile)
+			throws IOException {
+		StandardEventsReader reader = new StandardEventsReader(textFile);
+		CompactEventsWriter writer = new CompactEventsWriter(compactFile);
+
+		try {
+			List<ExternalEvent> events = reader.readEvents(CONVERT_BATCH);
+			while (events.size() > 0) {
+				for (ExternalEvent ee : events) {
+					writer.write(ee);
+				}
+				events = reader.readEvents(CONVERT_BATCH);
+			}
+		}
+		finally {
+			reader.close();
+		}
+		writer.close();
+
+		return writer.nrofEvents;
+	}
+
+	/**
+	 * Converts a standard format external events file to a compact file
+	 * @param args The text file and the compact file paths
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.out.println("Usage: CompactEventsWriter <text events " +
+					"file> <compact events file" +
+					CompactEventsReader.COMPACT_EXT + ">");
+			System.exit(1);
+		}
+
+		long nrof = convert(new File(args[0]), new File(args[1]));
+		System.out.println("Converted " + nrof + " events to " + args[1]);
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package input;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <P>Event queue that merges the events of other event queues in the order
+ * of their times. The queues are kept in a min-heap keyed by their
+ * {@link EventQueue#nextEventsTime()}, so finding the queue with the next
+ * event doesn't require scanning all the queues.</P>
+ *
+ * <P>A queue's key is refreshed only after an event is taken from it, so
+ * the next event time of a queue in the heap must not change in any other
+ * way. Queues whose next event time can change at any time (like the
+ * {@link ScheduledUpdatesQueue} that gets update requests from the
+ * simulation objects or the {@link DTN2Events} that receives bundles from
+ * outside of the simulator) are instead polled every time the next event
+ * time is requested.</P>
+ *
+ * <P>If multiple queues have an event at the same time, the event of the
+ * polled queues (in the order they were given) comes first and the event
+ * of the queue that is earlier in the queue list after that.</P>
+ */
+public class MergedEventQueue implements EventQueue {
+	/** queues that are polled every time */
+	private EventQueue[] polled;
+	/** all other queues */
+	private EventQueue[] queues;
+	/** indexes of the queues in heap order */
+	private int[] heap;
+	/** cached next event times of the queues (indexed by queue index) */
+	private double[] times;
+
+	/**
+	 * Creates a new merged event queue
+	 * @param polled Queues whose next event time may change at any time
+	 * and that must be polled every time
+	 * @param queues Other queues. Queues that are known to change their
+	 * times without {@link EventQueue#nextEvent()} calls are polled
+	 * instead.
+	 */
+	public MergedEventQueue(List<? extends EventQueue> polled,
+			List<? extends EventQueue> queues) {
+		List<EventQueue> pollList = new ArrayList<EventQueue>(polled);
+		List<EventQueue> heapList = new ArrayList<EventQueue>();
+
+		for (EventQueue eq : queues) {
+			if (eq instanceof DTN2Events ||
+					eq instanceof ScheduledUpdatesQueue) {
+				pollList.add(eq);
+			}
+			else {
+				heapList.add(eq);
+			}
+		}
+
+		this.polled = pollList.toArray(new EventQueue[pollList.size()]);
+		this.queues = heapList.toArray(new EventQueue[heapList.size()]);
+		this.heap = new int[this.queues.length];
+		this.times = new double[this.queues.length];
+
+		for (int i=0; i < this.queues.length; i++) {
+			this.times[i] = this.queues[i].nextEventsTime();
+			this.heap[i] = i;
+		}
+		for (int i = this.heap.length / 2 - 1; i >= 0; i--) {
+			siftDown(i);
+		}
+	}
+
+	/**
+	 * Returns the next event of the queue that has the earliest event or
+	 * an ExternalEvent with time Double.MAX_VALUE if there are no events
+	 * left in any queue.
+	 * @return The next event
+	 */
+	public ExternalEvent nextEvent() {
+		EventQueue eq = nextPolledQueue();
+
+		if (eq == null || (heap.length > 0 &&
+				times[heap[0]] < eq.nextEventsTime())) {
+			if (heap.length == 0) {
+				return new ExternalEvent(Double.MAX_VALUE);
+			}
+			/* take the event from the heap's root and re-key the queue */
+			int index = heap[0];
+			ExternalEvent ee = queues[index].nextEvent();
+			times[index] = queues[index].nextEventsTime();
+			siftDown(0);
+			return ee;
+		}
+
+		return eq.nextEvent();
+	}
+
+	/**
+	 * Returns the earliest next event time of the queues or
+	 * Double.MAX_VALUE if there are no events left in any queue.
+	 * @return The next event's time
+	 */
+	public double nextEventsTime() {
+		double earliest = heap.length > 0 ? times[heap[0]] : Double.MAX_VALUE;
+		EventQueue eq = nextPolledQueue();
+
+		if (eq != null && eq.nextEventsTime() <= earliest) {
+			earliest = eq.nextEventsTime();
+		}
+		return earliest;
+	}
+
+	/**
+	 * Returns the polled queue with the earliest next event time
+	 * @return The queue or null if there are no polled queues
+	 */
+	private EventQueue nextPolledQueue() {
+		EventQueue next = null;
+		double earliest = Double.MAX_VALUE;
+
+		for (EventQueue eq : polled) {
+			if (next == null || eq.nextEventsTime() < earliest) {
+				next = eq;
+				earliest = eq.nextEventsTime();
+			}
+		}
+		return next;
+	}
+
+	/**
+	 * Moves the heap item at the given position down until the heap order
+	 * is restored
+	 * @param pos Position of the item in the heap
+	 */
+	private void siftDown(int pos) {
+		int index = heap[pos];
+		int n = heap.length;
+
+		while (true) {
+			int child = 2 * pos + 1;
+			if (child >= n) {
+				break;
+			}
+			if (child + 1 < n && isBefore(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if (!isBefore(heap[child], index)) {
+				break;
+			}
+			heap[pos] = heap[child];
+			pos = child;
+		}
+		heap[pos] = index;
+	}
+
+	/**
+	 * Returns true if the queue with index a has its next event before the
+	 * queue with index b (or at the same time and a is earlier in the list)
+	 */
+	private boolean isBefore(int a, int b) {
+		return times[a] < times[b] || (times[a] == times[b] && a < b);
+	}
+
+	public String toString() {
+		return "MergedEventQueue of " + (polled.length + queues.length) +
+			" queues @ " + nextEventsTime();
+	}
+}
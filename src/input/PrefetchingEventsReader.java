@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package input;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import core.DTNSim;
+import core.SimError;
+
+/**
+ * External events reader that reads the events of another reader in a
+ * background thread. The reader thread reads the next chunks of events
+ * into a bounded queue while the simulation consumes the previous ones,
+ * so reading and parsing the events doesn't stall the simulation. The
+ * events are returned in the same order as the other reader returns them.
+ * Errors of the other reader are thrown to the caller of
+ * {@link #readEvents(int)}, also on all the later calls since the
+ * reading can't continue after an error.
+ */
+public class PrefetchingEventsReader implements ExternalEventsReader {
+	/** how many chunks are read ahead */
+	private static final int NROF_CHUNKS = 2;
+	/** readers whose threads may still be running */
+	private static List<PrefetchingEventsReader> readers;
+
+	static {
+		DTNSim.registerForReset(PrefetchingEventsReader.class.
+				getCanonicalName());
+		reset();
+	}
+
+	private ExternalEventsReader reader;
+	private BlockingQueue<Chunk> chunks;
+	private Thread thread;
+	/** events left from the latest chunk */
+	private List<ExternalEvent> current;
+	private int currentIndex;
+	private boolean allEventsRead;
+	/** the error that stopped the reader thread (or null) */
+	private Throwable error;
+
+	/**
+	 * Creates a new prefetching reader and starts reading events
+	 * @param reader The reader to read the events from
+	 * @param chunkSize How many events to read at a time
+	 */
+	public PrefetchingEventsReader(ExternalEventsReader reader,
+			final int chunkSize) {
+		this.reader = reader;
+		this.chunks = new ArrayBlockingQueue<Chunk>(NROF_CHUNKS);
+		this.current = new ArrayList<ExternalEvent>(0);
+		this.currentIndex = 0;
+		this.allEventsRead = false;
+		this.error = null;
+
+		this.thread = new Thread("EventsPrefetcher") {
+			public void run() {
+				prefetch(chunkSize);
+			}
+		};
+		this.thread.setDaemon(true); // don't prevent the simulator from exiting
+		synchronized (PrefetchingEventsReader.class) {
+			readers.add(this);
+		}
+		this.thread.start();
+	}
+
+	/**
+	 * Reads chunks from the other reader until all events are read or the
+	 * thread is interrupted. An empty chunk marks the end of events.
+	 * @param chunkSize How many events to read at a time
+	 */
+	private void prefetch(int chunkSize) {
+		try {
+			while (true) {
+				Chunk c;
+				try {
+					c = new Chunk(reader.readEvents(chunkSize), null);
+				} catch (Throwable e) { // also SimErrors of bad input
+					c = new Chunk(new ArrayList<ExternalEvent>(0), e);
+				}
+				chunks.put(c);
+				if (c.events.size() == 0) {
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			return; // reader was closed
+		}
+	}
+
+	/**
+	 * Returns the next prefetched events
+	 * @param nrof Maximum number of events to read
+	 * @return Events in a List (empty list if there are no events left)
+	 */
+	public List<ExternalEvent> readEvents(int nrof) {
+		if (error != null) {
+			throwError(); // the reader thread has stopped
+		}
+		if (currentIndex == current.size() && !allEventsRead) {
+			Chunk c;
+			try {
+				c = chunks.take();
+			} catch (InterruptedException e) {
+				throw new SimError("Interrupted while waiting for events", e);
+			}
+			if (c.error != null) {
+				error = c.error;
+				throwError();
+			}
+			current = c.events;
+			currentIndex = 0;
+			allEventsRead = current.size() == 0;
+		}
+
+		if (currentIndex == 0 && nrof >= current.size()) {
+			currentIndex = current.size();
+			return current; // the whole chunk
+		}
+
+		int end = Math.min(current.size(), currentIndex + nrof);
+		List<ExternalEvent> events =
+			new ArrayList<ExternalEvent>(current.subList(currentIndex, end));
+		currentIndex = end;
+		return events;
+	}
+
+	/**
+	 * Throws the error that stopped the reader thread. The other reader can
+	 * only throw unchecked exceptions and errors, which are thrown as such.
+	 */
+	private void throwError() {
+		if (error instanceof RuntimeException) {
+			throw (RuntimeException)error;
+		}
+		if (error instanceof Error) {
+			throw (Error)error;
+		}
+		throw new SimError("Error while reading events: " + error);
+	}
+
+	/**
+	 * Stops the reader thread and closes the other reader
+	 */
+	public void close() {
+		stop();
+		synchronized (PrefetchingEventsReader.class) {
+			readers.remove(this);
+		}
+	}
+
+	private void stop() {
+		thread.interrupt();
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			throw new SimError("Interrupted while closing events reader", e);
+		}
+		reader.close();
+	}
+
+	/**
+	 * Stops the threads of all readers that were not closed
+	 */
+	public static synchronized void reset() {
+		if (readers != null) {
+			for (PrefetchingEventsReader r : readers) {
+				r.stop();
+			}
+		}
+		readers = new ArrayList<PrefetchingEventsReader>();
+	}
+
+	/**
+	 * Events read at once and the possible error that stopped reading
+	 */
+	private static class Chunk {
+		private List<ExternalEvent> events;
+		private Throwable error;
+
+		public Chunk(List<ExternalEvent> events, Throwable error) {
+			this.events = events;
+			this.error = error;
+		}
+	}
+}
@@ -4,25 +4,32 @@
  */
 package input;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Event queue where simulation objects can request an update to happen
  * at the specified simulation time. Multiple updates at the same time
  * are merged to a single update.
+ * The update times are kept in a binary min-heap, so adding a request
+ * and taking the next update are logarithmic in the number of pending
+ * requests. Requests for a time that is already pending may be stored
+ * more than once, but they are merged when the update is taken from
+ * the queue.
  */
 public class ScheduledUpdatesQueue implements EventQueue {
-	/** Time of the event (simulated seconds) */
-	private ExternalEvent nextEvent;
-	private List<ExternalEvent> updates;
+	/** Initial capacity of the heap */
+	private static final int INITIAL_CAPACITY = 16;
+	/** Pending update times as a binary min-heap */
+	private double[] heap;
+	/** Number of times in the heap */
+	private int size;
 
 	/**
 	 * Constructor. Creates an empty update queue.
 	 */
 	public ScheduledUpdatesQueue(){
-		this.nextEvent = new ExternalEvent(Double.MAX_VALUE);
-		this.updates = new ArrayList<ExternalEvent>();
+		this.heap = new double[INITIAL_CAPACITY];
+		this.size = 0;
 	}
 
 	/**
@@ -31,16 +38,17 @@ public class ScheduledUpdatesQueue implements EventQueue {
 	 * @return the next scheduled event
 	 */
 	public ExternalEvent nextEvent() {
-		ExternalEvent event = this.nextEvent;
-
-		if (this.updates.size() == 0) {
-			this.nextEvent = new ExternalEvent(Double.MAX_VALUE);
+		if (this.size == 0) {
+			return new ExternalEvent(Double.MAX_VALUE);
 		}
-		else {
-			this.nextEvent = this.updates.remove(0);
+
+		double time = this.heap[0];
+		/* remove also all the duplicate requests for the same time */
+		while (this.size > 0 && this.heap[0] == time) {
+			removeFirst();
 		}
 
-		return event;
+		return new ExternalEvent(time);
 	}
 
 	/**
@@ -49,7 +57,7 @@ public class ScheduledUpdatesQueue implements EventQueue {
 	 * @return the next scheduled event's time
 	 */
 	public double nextEventsTime() {
-		return this.nextEvent.getTime();
+		return this.size == 0 ? Double.MAX_VALUE : this.heap[0];
 	}
 
 	/**
@@ -57,49 +65,68 @@ public class ScheduledUpdatesQueue implements EventQueue {
 	 * @param simTime The time when the update should happen
 	 */
 	public void addUpdate(double simTime) {
-		ExternalEvent ee = new ExternalEvent(simTime);
-
-		if (ee.compareTo(nextEvent) == 0) { // this event is already next
-			return;
+		if (this.size > 0 && this.heap[0] == simTime) {
+			return; // this update is already next
 		}
-		else if (this.nextEvent.getTime() > simTime) { // new nextEvent
-			putToQueue(this.nextEvent); // put the old nextEvent back to q
-			this.nextEvent = ee;
+
+		if (this.size == this.heap.length) {
+			this.heap = Arrays.copyOf(this.heap, this.size * 2);
 		}
-		else { // given event happens later..
-			putToQueue(ee);
+
+		/* sift up */
+		int i = this.size++;
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (this.heap[parent] <= simTime) {
+				break;
+			}
+			this.heap[i] = this.heap[parent];
+			i = parent;
 		}
+		this.heap[i] = simTime;
 	}
 
 	/**
-	 * Puts a event to the queue in the right place
-	 * @param ee The event to put to the queue
+	 * Removes the first (smallest) time from the heap
 	 */
-	private void putToQueue(ExternalEvent ee) {
-		double eeTime = ee.getTime();
+	private void removeFirst() {
+		double last = this.heap[--this.size];
+		int i = 0;
 
-		for (int i=0, n=this.updates.size(); i<n; i++) {
-			double time = updates.get(i).getTime();
-			if (time == eeTime) {
-				return; // update with the given time exists -> no need for new
+		/* sift the last time down from the root */
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= this.size) {
+				break;
 			}
-			else if (eeTime < time) {
-				this.updates.add(i, ee);
-				return;
+			if (child + 1 < this.size &&
+					this.heap[child + 1] < this.heap[child]) {
+				child++;
 			}
+			if (last <= this.heap[child]) {
+				break;
+			}
+			this.heap[i] = this.heap[child];
+			i = child;
 		}
-
-		/* all existing updates are earlier -> add to the end of the list */
-		this.updates.add(ee);
+		this.heap[i] = last;
 	}
 
 	public String toString() {
-		String times = "updates @ " + this.nextEvent.getTime();
+		if (this.size == 0) {
+			return "updates @ " + Double.MAX_VALUE;
+		}
 
-		for (ExternalEvent ee : this.updates) {
-			times += ", " + ee.getTime();
+		double[] times = Arrays.copyOf(this.heap, this.size);
+		Arrays.sort(times);
+		String str = "updates @ " + times[0];
+
+		for (int i=1; i < times.length; i++) {
+			if (times[i] != times[i-1]) {
+				str += ", " + times[i];
+			}
 		}
 
-		return times;
+		return str;
 	}
 }
@@ -4,20 +4,19 @@
  */
 package input;
 
-import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
-import java.lang.Integer;
-import java.lang.NumberFormatException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Scanner;
-import java.util.regex.Pattern;
 
 import core.SimError;
 
+
 /**
  * <P>
  * External events reader for standard-format events
@@ -66,218 +65,449 @@ public class StandardEventsReader implements ExternalEventsReader {
 	/** Message identifier to use to refer to all messages ({@value}) */
 	public static final String ALL_MESSAGES_ID = "*";
 
-	//private Scanner scanner;
-	private BufferedReader reader;
+	/** initial size of the read buffer (characters) */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** powers of ten that are exact doubles */
+	private static final double[] POW10 = new double[23];
+	/** largest integer that is an exact double */
+	private static final long MAX_EXACT_LONG = 1L << 53;
+
+	static {
+		POW10[0] = 1;
+		for (int i=1; i < POW10.length; i++) {
+			POW10[i] = POW10[i-1] * 10;
+		}
+	}
+
+	private Reader reader;
+	/** characters read from the file */
+	private char[] buf;
+	/** index of the next unprocessed character and end of the valid data */
+	private int pos, limit;
+	private boolean eof;
+	/** true if a '\n' following a '\r' should be skipped */
+	private boolean skipLF;
+	/** current line's and token's boundaries in the buffer */
+	private int lineStart, lineEnd, tokenStart, tokenEnd;
 
 	public StandardEventsReader(File eventsFile){
 		try {
-			//this.scanner = new Scanner(eventsFile);
-			this.reader = new BufferedReader(new FileReader(eventsFile));
+			this.reader = new InputStreamReader(
+					new FileInputStream(eventsFile));
 		} catch (FileNotFoundException e) {
 			throw new SimError(e.getMessage(),e);
 		}
+		this.buf = new char[BUFFER_SIZE];
+		this.pos = 0;
+		this.limit = 0;
+		this.eof = false;
+		this.skipLF = false;
 	}
 
 
 	public List<ExternalEvent> readEvents(int nrof) {
 		ArrayList<ExternalEvent> events = new ArrayList<ExternalEvent>(nrof);
-		int eventsRead = 0;
-		// skip empty and comment lines
-		Pattern skipPattern = Pattern.compile("(#.*)|(^\\s*$)");
 
-		String line;
-		try {
-			line = this.reader.readLine();
-		} catch (IOException e1) {
-			throw new SimError("Reading from external event file failed.");
-		}
-		while (eventsRead < nrof && line != null) {
-			Scanner lineScan = new Scanner(line);
-			if (skipPattern.matcher(line).matches()) {
-				// skip empty and comment lines
-				try {
-					line = this.reader.readLine();
-				} catch (IOException e) {
-					lineScan.close();
-					throw new SimError("Reading from external event file " +
-							"failed.");
-				}
-				continue;
+		while (events.size() < nrof && nextLine()) {
+			if (!nextToken() || buf[lineStart] == '#') {
+				continue; // skip empty and comment lines
 			}
-			
-			double time;
-			String action;
-			String msgId;
-			int hostAddr;
-			int host2Addr;
 
 			try {
-				time = lineScan.nextDouble();
-				action = lineScan.next();
-
-				if (action.equals(DROP)) {
-					msgId = lineScan.next();
-					hostAddr = getHostAddress(lineScan.next());
-					events.add(new MessageDeleteEvent(hostAddr, msgId,
-							time, true));
-				}
-				else if (action.equals(REMOVE)) {
-					msgId = lineScan.next();
-					hostAddr = getHostAddress(lineScan.next());
-					events.add(new MessageDeleteEvent(hostAddr, msgId,
-							time, false));
-				}
-				else if (action.equals(CONNECTION)) {
-					String connEventType;
-					boolean isUp;
-					hostAddr = getHostAddress(lineScan.next());
-					host2Addr = getHostAddress(lineScan.next());
-					connEventType = lineScan.next();
-
-					String interfaceId = null;
-					if (lineScan.hasNext()) {
-						interfaceId = lineScan.next();
-					}
+				events.add(parseEvent());
+			} catch (Exception e) {
+				throw new SimError("Can't parse external event " +
+						(events.size()+1) + " from '" +
+						new String(buf, lineStart, lineEnd - lineStart) + "'",
+						e);
+			}
+		}
 
-					if (connEventType.equalsIgnoreCase(CONNECTION_UP)) {
-						isUp = true;
-					}
-					else if (connEventType.equalsIgnoreCase(CONNECTION_DOWN)) {
-						isUp = false;
-					}
-					else {
-						throw new SimError("Unknown up/down value '" +
-								connEventType + "'");
-					}
+		return events;
+	}
 
-					ConnectionEvent ce = new ConnectionEvent(hostAddr,
-							host2Addr, interfaceId, isUp, time);
+	/**
+	 * Parses an event from the current line. The first token of the line
+	 * must be the current token.
+	 * @return The event
+	 */
+	private ExternalEvent parseEvent() {
+		double time = parseDouble();
+		String msgId;
+		int hostAddr;
+		int host2Addr;
 
-					events.add(ce);
-				}
-				else {
-					msgId = lineScan.next();
-					hostAddr = getHostAddress(lineScan.next());
-
-					host2Addr = getHostAddress(lineScan.next());
-
-					if (action.equals(CREATE)){
-						int size = 0;
-
-						if (lineScan.hasNextInt()){
-							size = lineScan.nextInt();
-						}
-						else if (lineScan.hasNext()){
-							size = convertToInteger(lineScan.next());
-						}else{
-							throw new Exception("Invalid number of columns for CREATE event");
-						}
-
-						int respSize = 0;
-						if (lineScan.hasNextInt()) {
-							respSize = lineScan.nextInt();
-						}
-						else if(lineScan.hasNext()) {
-							respSize = convertToInteger(lineScan.next());
-						}
-						events.add(new MessageCreateEvent(hostAddr, host2Addr,
-								msgId, size, respSize, time));
-					}
-					else {
-						int stage = -1;
-						if (action.equals(SEND)) {
-							stage = MessageRelayEvent.SENDING;
-						}
-						else if (action.equals(DELIVERED)) {
-							stage = MessageRelayEvent.TRANSFERRED;
-						}
-						else if (action.equals(ABORT)) {
-							stage = MessageRelayEvent.ABORTED;
-						}
-						else {
-							throw new SimError("Unknown action '" + action +
-								"' in external events");
-						}
-						events.add(new MessageRelayEvent(hostAddr, host2Addr,
-								msgId, time, stage));
+		requireToken();
+
+		if (tokenEquals(DROP) || tokenEquals(REMOVE)) {
+			boolean drop = tokenEquals(DROP);
+			requireToken();
+			msgId = tokenString();
+			requireToken();
+			hostAddr = parseHostAddress();
+			return new MessageDeleteEvent(hostAddr, msgId, time, drop);
+		}
+		else if (tokenEquals(CONNECTION)) {
+			boolean isUp;
+			requireToken();
+			hostAddr = parseHostAddress();
+			requireToken();
+			host2Addr = parseHostAddress();
+			requireToken();
+
+			if (tokenEqualsIgnoreCase(CONNECTION_UP)) {
+				isUp = true;
+			}
+			else if (tokenEqualsIgnoreCase(CONNECTION_DOWN)) {
+				isUp = false;
+			}
+			else {
+				throw new SimError("Unknown up/down value '" +
+						tokenString() + "'");
+			}
+
+			String interfaceId = null;
+			if (nextToken()) {
+				interfaceId = tokenString();
+			}
+
+			return new ConnectionEvent(hostAddr, host2Addr, interfaceId,
+					isUp, time);
+		}
+
+		int stage;
+		if (tokenEquals(CREATE)) {
+			stage = -1;
+		}
+		else if (tokenEquals(SEND)) {
+			stage = MessageRelayEvent.SENDING;
+		}
+		else if (tokenEquals(DELIVERED)) {
+			stage = MessageRelayEvent.TRANSFERRED;
+		}
+		else if (tokenEquals(ABORT)) {
+			stage = MessageRelayEvent.ABORTED;
+		}
+		else {
+			throw new SimError("Unknown action '" + tokenString() +
+				"' in external events");
+		}
+
+		requireToken();
+		msgId = tokenString();
+		requireToken();
+		hostAddr = parseHostAddress();
+		requireToken();
+		host2Addr = parseHostAddress();
+
+		if (stage >= 0) {
+			return new MessageRelayEvent(hostAddr, host2Addr, msgId, time,
+					stage);
+		}
+
+		if (!nextToken()) {
+			throw new SimError("Invalid number of columns for CREATE event");
+		}
+		int size = parseSize();
+		int respSize = 0;
+		if (nextToken()) {
+			respSize = parseSize();
+		}
+		return new MessageCreateEvent(hostAddr, host2Addr, msgId, size,
+				respSize, time);
+	}
+
+	/**
+	 * Moves to the next line. The whole line is kept in the buffer.
+	 * @return True if there was a line, false if the end of file was reached
+	 */
+	private boolean nextLine() {
+		int i = pos;
+
+		while (true) {
+			for (; i < limit; i++) {
+				char c = buf[i];
+				if (skipLF) {
+					skipLF = false;
+					if (c == '\n') {
+						pos++;
+						continue;
 					}
 				}
-				// discard the newline in the end
-				if (lineScan.hasNextLine()) {
-					lineScan.nextLine(); // TODO: test
+				if (c == '\n' || c == '\r') {
+					setLine(pos, i);
+					pos = i + 1;
+					skipLF = (c == '\r');
+					return true;
 				}
-				eventsRead++;
-				if (eventsRead < nrof) {
-					line = this.reader.readLine();
+			}
+
+			if (eof) {
+				if (pos < limit) { // last line without a line terminator
+					setLine(pos, limit);
+					pos = limit;
+					return true;
 				}
-			} catch (Exception e) {
-				e.printStackTrace();
-				throw new SimError("Can't parse external event " +
-						(eventsRead+1) + " from '" + line + "'", e);
+				return false;
+			}
+
+			i -= pos;
+			fill();
+		}
+	}
+
+	/**
+	 * Sets the current line and resets the token position to its start
+	 */
+	private void setLine(int start, int end) {
+		this.lineStart = start;
+		this.lineEnd = end;
+		this.tokenStart = start;
+		this.tokenEnd = start;
+	}
+
+	/**
+	 * Moves the unprocessed characters to the beginning of the buffer
+	 * (growing the buffer if it's full) and reads more characters
+	 */
+	private void fill() {
+		int left = limit - pos;
+		if (left == buf.length) {
+			buf = Arrays.copyOf(buf, buf.length * 2); // very long line
+		}
+		else if (pos > 0) {
+			System.arraycopy(buf, pos, buf, 0, left);
+		}
+		pos = 0;
+		limit = left;
+
+		try {
+			int n = reader.read(buf, limit, buf.length - limit);
+			if (n < 0) {
+				eof = true;
 			}
-			finally {
-				lineScan.close();
+			else {
+				limit += n;
 			}
+		} catch (IOException e) {
+			throw new SimError("Reading from external event file failed.", e);
 		}
+	}
 
-		return events;
+	/**
+	 * Moves to the next whitespace separated token of the current line
+	 * @return True if there was a token, false if the line ended
+	 */
+	private boolean nextToken() {
+		int i = tokenEnd;
+		while (i < lineEnd && Character.isWhitespace(buf[i])) {
+			i++;
+		}
+		if (i == lineEnd) {
+			return false;
+		}
+
+		tokenStart = i;
+		while (i < lineEnd && !Character.isWhitespace(buf[i])) {
+			i++;
+		}
+		tokenEnd = i;
+		return true;
 	}
 
 	/**
-	 * Parses a host address from a hostId string (the numeric part after
-	 * optional non-numeric part).
-	 * @param hostId The id to parse the address from
+	 * Moves to the next token of the current line
+	 * @throws SimError if the line has no more tokens
+	 */
+	private void requireToken() {
+		if (!nextToken()) {
+			throw new SimError("Missing field");
+		}
+	}
+
+	private String tokenString() {
+		return new String(buf, tokenStart, tokenEnd - tokenStart);
+	}
+
+	private boolean tokenEquals(String s) {
+		if (tokenEnd - tokenStart != s.length()) {
+			return false;
+		}
+		for (int i=0; i < s.length(); i++) {
+			if (buf[tokenStart + i] != s.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean tokenEqualsIgnoreCase(String s) {
+		if (tokenEnd - tokenStart != s.length()) {
+			return false;
+		}
+		for (int i=0; i < s.length(); i++) {
+			if (Character.toLowerCase(buf[tokenStart + i]) !=
+					Character.toLowerCase(s.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Parses the current token as a double value. Plain decimal values
+	 * (like "123.4") are parsed directly from the buffer. Values whose
+	 * digits don't fit in an exact double and values with exponents are
+	 * parsed with {@link Double#parseDouble(String)}.
+	 * @return The value
+	 */
+	private double parseDouble() {
+		int i = tokenStart;
+		boolean negative = false;
+		long mantissa = 0;
+		int fractionDigits = 0;
+		boolean dot = false;
+		int digits = 0;
+
+		if (buf[i] == '-' || buf[i] == '+') {
+			negative = buf[i] == '-';
+			i++;
+		}
+		for (; i < tokenEnd; i++) {
+			char c = buf[i];
+			if (c >= '0' && c <= '9') {
+				mantissa = mantissa * 10 + (c - '0');
+				digits++;
+				if (dot) {
+					fractionDigits++;
+				}
+				if (mantissa >= MAX_EXACT_LONG) {
+					break;
+				}
+			}
+			else if (c == '.' && !dot) {
+				dot = true;
+			}
+			else {
+				break;
+			}
+		}
+
+		if (i < tokenEnd || digits == 0 || fractionDigits >= POW10.length) {
+			return Double.parseDouble(tokenString()); // not a plain decimal
+		}
+
+		/* both values are exact, so the division is correctly rounded */
+		double value = mantissa / POW10[fractionDigits];
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Parses a host address from the current token: a hostId string (the
+	 * numeric part after optional non-numeric part).
 	 * @return The address
 	 * @throws SimError if no address could be parsed from the id
 	 */
-	private int getHostAddress(String hostId) {
-		String addressPart = "";
-		if (hostId.matches("^\\d+$")) {
-			addressPart = hostId; // host id is only the address
+	private int parseHostAddress() {
+		int digitsStart = tokenEnd;
+		while (digitsStart > tokenStart && isDigit(buf[digitsStart - 1])) {
+			digitsStart--;
 		}
-		else if (hostId.matches("^\\D+\\d+$")) {
-			String [] parts = hostId.split("\\D");
-			addressPart = parts[parts.length-1]; // last occurence is the addr
+		boolean validPrefix = digitsStart < tokenEnd;
+		for (int i=tokenStart; validPrefix && i < digitsStart; i++) {
+			validPrefix = !isDigit(buf[i]);
 		}
-		else {
-			throw new SimError("Invalid host ID '" + hostId + "'");
+		if (!validPrefix) {
+			throw new SimError("Invalid host ID '" + tokenString() + "'");
 		}
 
-		return Integer.parseInt(addressPart);
+		return parseInt(digitsStart, tokenEnd);
 	}
 
-	public void close() {
-		try {
-			this.reader.close();
-		} catch (IOException e) {}
-	}
+	/**
+	 * Parses the current token as a size value: either an integer or a
+	 * number followed by one of the units k, M, G, kiB, MiB or GiB.
+	 * @return The size
+	 */
+	private int parseSize() {
+		int i = tokenStart;
+		if (i < tokenEnd && (buf[i] == '-' || buf[i] == '+')) {
+			i++;
+		}
+		int digitsEnd = i;
+		while (digitsEnd < tokenEnd && isDigit(buf[digitsEnd])) {
+			digitsEnd++;
+		}
+		if (digitsEnd == tokenEnd && digitsEnd > i) {
+			return parseInt(tokenStart, tokenEnd); // plain integer
+		}
 
-	private int convertToInteger(String str){
-		String dataUnit = str.replaceAll("[\\d.]","").trim();
-		String numericPart = str.replaceAll("[^\\d.]","");
-		int number = Integer.parseInt(numericPart);
+		int unitStart = digitsEnd;
+		int number = parseInt(tokenStart, digitsEnd);
+		String unit = new String(buf, unitStart, tokenEnd - unitStart);
 
-		if (dataUnit.equals("k")) {
+		if (unit.equals("k")) {
 			return (number * 1000);
 		}
-		else if (dataUnit.equals("M")) {
+		else if (unit.equals("M")) {
 			return (number * 1000000);
 		}
-		else if (dataUnit.equals("G")) {
+		else if (unit.equals("G")) {
 			return (number * 1000000000);
 		}
-		else if (dataUnit.equals("kiB")) {
+		else if (unit.equals("kiB")) {
 			return (number * 1024);
 		}
-		else if (dataUnit.equals("MiB")) {
+		else if (unit.equals("MiB")) {
 			return (number * 1048576);
 		}
-		else if (dataUnit.equals("GiB")) {
+		else if (unit.equals("GiB")) {
 			return (number * 1073741824);
 		}
 		else{
-			throw new NumberFormatException("Invalid number format for StandardEventsReader: ["+str+"]");
+			throw new NumberFormatException("Invalid number format for " +
+					"StandardEventsReader: [" + tokenString() + "]");
 		}
 	}
 
+	/**
+	 * Parses an integer from the buffer
+	 * @param start Index of the first character
+	 * @param end Index after the last character
+	 * @return The integer
+	 * @throws NumberFormatException if the characters are not an integer
+	 */
+	private int parseInt(int start, int end) {
+		int i = start;
+		boolean negative = false;
+		if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+			negative = buf[i] == '-';
+			i++;
+		}
+		if (i == end || end - i > 9) {
+			/* no digits or may overflow: let Integer report the error */
+			return Integer.parseInt(new String(buf, start, end - start));
+		}
+
+		int value = 0;
+		for (; i < end; i++) {
+			if (!isDigit(buf[i])) {
+				throw new NumberFormatException("For input string: \"" +
+						new String(buf, start, end - start) + "\"");
+			}
+			value = value * 10 + (buf[i] - '0');
+		}
+		return negative ? -value : value;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	public void close() {
+		try {
+			this.reader.close();
+		} catch (IOException e) {}
+	}
+
 }
@@ -4,7 +4,6 @@
  */
 package interfaces;
 
-import java.util.Collection;
 import core.Connection;
 import core.NetworkInterface;
 import core.Settings;
@@ -95,13 +94,16 @@ public class DistanceCapacityInterface extends NetworkInterface {
 			}
 		}
 		// Then find new possible connections
-		Collection<NetworkInterface> interfaces =
-			optimizer.getNearInterfaces(this);
-		for (NetworkInterface i : interfaces) {
-			connect(i);
-		}
+		connectToNearInterfaces();
+
+		updateConnectionStates();
+	}
 
-		/* update all connections */
+	/**
+	 * Updates the transmission speeds of all connections
+	 */
+	@Override
+	protected void updateConnectionStates() {
 		for (Connection con : getConnections()) {
 			con.update();
 		}
@@ -0,0 +1,393 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package interfaces;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+
+import movement.MovementModel;
+import core.Coord;
+import core.DTNSim;
+import core.NetworkInterface;
+import core.Settings;
+import core.SettingsError;
+import core.World;
+
+/**
+ * <P>
+ * Overlay grid of the world that works like {@link ConnectivityGrid} but
+ * keeps the cell memberships in primitive arrays instead of hash maps and
+ * lists. Every interface gets a dense index when it is added to the grid
+ * (see {@link NetworkInterface#getOptimizerIndex()}) and the grid stores
+ * the cell of each interface and the position of the interface in the
+ * cell's member array. Moving an interface to another cell is a constant
+ * time swap-remove from the old cell and an append to the new one.
+ * </P>
+ * <P>
+ * In addition to the {@link ConnectivityOptimizer} methods, the grid
+ * provides an allocation-free way to iterate over the near interfaces
+ * (see {@link #getNearCells(NetworkInterface, int[])}).
+ * The order of the interfaces within a cell is not preserved
+ * when interfaces move between cells.
+ * </P>
+ * <P>
+ * Used instead of ConnectivityGrid if {@link #INDEXED_GRID_S} setting is
+ * true. The cell size is determined the same way as with ConnectivityGrid.
+ * Like ConnectivityGrid, this class does NOT support negative coordinates.
+ * </P>
+ */
+public class IndexedConnectivityGrid extends ConnectivityOptimizer {
+
+	/**
+	 * Use indexed connectivity grid -setting id ({@value}). Boolean
+	 * (true/false) variable. Used in {@link World#OPTIMIZATION_SETTINGS_NS}
+	 * name space. Default = false.
+	 */
+	public static final String INDEXED_GRID_S = "indexedGrid";
+
+	/** maximum number of cells returned by getNearCells ({@value}) */
+	public static final int MAX_NEAR_CELLS = 9;
+
+	/** initial size of the interface arrays */
+	private static final int INITIAL_CAPACITY = 64;
+	/** initial size of a cell's member array */
+	private static final int EXPECTED_INTERFACE_COUNT = 5;
+
+	private int cellSize;
+	private int rows;
+	private int cols;
+	/** number of columns including the empty border columns */
+	private int rowLength;
+
+	/** interfaces by their index */
+	private NetworkInterface[] interfaces;
+	/** cell id of every interface by interface index */
+	private int[] cellOf;
+	/** position in the cell's member array by interface index */
+	private int[] posInCell;
+	/** number of interfaces in the grid */
+	private int nrofInterfaces;
+
+	/** indices of the interfaces in each cell */
+	private int[][] cellMembers;
+	/** number of interfaces in each cell */
+	private int[] cellCounts;
+
+	private static int worldSizeX;
+	private static int worldSizeY;
+	private static int cellSizeMultiplier;
+	private static boolean useIndexedGrid;
+
+	static HashMap<Integer,IndexedConnectivityGrid> gridobjects;
+
+	static {
+		DTNSim.registerForReset(
+				IndexedConnectivityGrid.class.getCanonicalName());
+		reset();
+	}
+
+	public static void reset() {
+		gridobjects = new HashMap<Integer, IndexedConnectivityGrid>();
+
+		Settings s = new Settings(MovementModel.MOVEMENT_MODEL_NS);
+		int [] worldSize = s.getCsvInts(MovementModel.WORLD_SIZE,2);
+		worldSizeX = worldSize[0];
+		worldSizeY = worldSize[1];
+
+		s.setNameSpace(World.OPTIMIZATION_SETTINGS_NS);
+		cellSizeMultiplier = s.getInt(ConnectivityGrid.CELL_SIZE_MULT_S,
+				ConnectivityGrid.DEF_CON_CELL_SIZE_MULT);
+		if (cellSizeMultiplier < 1) {
+			throw new SettingsError("Too small value (" + cellSizeMultiplier +
+					") for " + World.OPTIMIZATION_SETTINGS_NS +
+					"." + ConnectivityGrid.CELL_SIZE_MULT_S);
+		}
+		useIndexedGrid = s.getBoolean(INDEXED_GRID_S, false);
+	}
+
+	/**
+	 * Returns true if the indexed grid should be used instead of
+	 * {@link ConnectivityGrid} (i.e., {@link #INDEXED_GRID_S} is true)
+	 * @return true if the indexed grid should be used
+	 */
+	public static boolean isEnabled() {
+		return useIndexedGrid;
+	}
+
+	/**
+	 * Creates a new indexed overlay connectivity grid
+	 * @param cellSize Cell's edge's length (must be larger than the largest
+	 * 	radio coverage's diameter)
+	 */
+	private IndexedConnectivityGrid(int cellSize) {
+		this.rows = worldSizeY/cellSize + 1;
+		this.cols = worldSizeX/cellSize + 1;
+		// leave empty cells on both sides to make neighbor search easier
+		this.rowLength = cols + 2;
+		this.cellSize = cellSize;
+
+		int nrofCells = (rows + 2) * rowLength;
+		this.cellMembers = new int[nrofCells][];
+		this.cellCounts = new int[nrofCells];
+
+		this.interfaces = new NetworkInterface[INITIAL_CAPACITY];
+		this.cellOf = new int[INITIAL_CAPACITY];
+		this.posInCell = new int[INITIAL_CAPACITY];
+		this.nrofInterfaces = 0;
+	}
+
+	/**
+	 * Returns an indexed connectivity grid object based on a hash value
+	 * @param key A hash value that separates different interfaces from each
+	 * other
+	 * @param maxRange Maximum range used by the radio technology using this
+	 *  connectivity grid.
+	 * @return The connectivity grid object for a specific interface
+	 */
+	public static IndexedConnectivityGrid IndexedConnectivityGridFactory(
+			int key, double maxRange) {
+		IndexedConnectivityGrid grid = gridobjects.get(key);
+		if (grid == null) {
+			grid = new IndexedConnectivityGrid((int)Math.ceil(maxRange *
+					cellSizeMultiplier));
+			gridobjects.put(key, grid);
+		}
+		return grid;
+	}
+
+	/**
+	 * Adds a network interface to the overlay grid (unless it is already
+	 * present)
+	 * @param ni The new network interface
+	 */
+	public void addInterface(NetworkInterface ni) {
+		if (contains(ni)) {
+			return;
+		}
+
+		if (nrofInterfaces == interfaces.length) {
+			int newSize = interfaces.length * 2;
+			interfaces = Arrays.copyOf(interfaces, newSize);
+			cellOf = Arrays.copyOf(cellOf, newSize);
+			posInCell = Arrays.copyOf(posInCell, newSize);
+		}
+
+		int index = nrofInterfaces++;
+		interfaces[index] = ni;
+		ni.setOptimizerIndex(index);
+		addToCell(index, cellIdFromCoord(ni.getLocation()));
+	}
+
+	/**
+	 * Removes a network interface from the overlay grid
+	 * @param ni The interface to be removed
+	 */
+	public void removeInterface(NetworkInterface ni) {
+		if (!contains(ni)) {
+			return;
+		}
+
+		int index = ni.getOptimizerIndex();
+		int last = --nrofInterfaces;
+		removeFromCell(index);
+
+		if (index != last) {
+			/* move the last interface to the removed one's place */
+			NetworkInterface moved = interfaces[last];
+			int cell = cellOf[last];
+			interfaces[index] = moved;
+			cellOf[index] = cell;
+			posInCell[index] = posInCell[last];
+			cellMembers[cell][posInCell[index]] = index;
+			moved.setOptimizerIndex(index);
+		}
+
+		interfaces[last] = null;
+		ni.setOptimizerIndex(-1);
+	}
+
+	/**
+	 * Adds interfaces to overlay grid
+	 * @param interfaces Collection of interfaces to add
+	 */
+	public void addInterfaces(Collection<NetworkInterface> interfaces) {
+		for (NetworkInterface n : interfaces) {
+			addInterface(n);
+		}
+	}
+
+	/**
+	 * Checks and updates (if necessary) interface's position in the grid
+	 * @param ni The interface to update
+	 */
+	public void updateLocation(NetworkInterface ni) {
+		int index = ni.getOptimizerIndex();
+		int newCell = cellIdFromCoord(ni.getLocation());
+
+		assert contains(ni) : "Interface " + ni + " is not in the grid";
+
+		if (newCell != cellOf[index]) {
+			removeFromCell(index);
+			addToCell(index, newCell);
+		}
+	}
+
+	/**
+	 * Writes the ids of the cell of the given interface and all its
+	 * neighboring cells to the given array. The interfaces in the cells can
+	 * be iterated using {@link #getNrofInterfaces(int)} and
+	 * {@link #getInterface(int, int)}. Doesn't allocate any memory nor
+	 * modify the grid, so it can be called concurrently.
+	 * @param ni The interface whose neighboring cells are requested
+	 * @param cellIds Array where the cell ids are written to. Must have
+	 * room for at least {@link #MAX_NEAR_CELLS} ids.
+	 * @return Number of cell ids written to the array (0 if the interface
+	 * is not in the grid)
+	 */
+	public int getNearCells(NetworkInterface ni, int[] cellIds) {
+		if (!contains(ni)) {
+			return 0;
+		}
+
+		int center = cellIdFromCoord(ni.getLocation());
+		int count = 0;
+		for (int dRow = -rowLength; dRow <= rowLength; dRow += rowLength) {
+			for (int dCol = -1; dCol <= 1; dCol++) {
+				cellIds[count++] = center + dRow + dCol;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of interfaces in a cell
+	 * @param cellId Id of the cell
+	 * @return The number of interfaces in the cell
+	 */
+	public int getNrofInterfaces(int cellId) {
+		return cellCounts[cellId];
+	}
+
+	/**
+	 * Returns an interface in a cell
+	 * @param cellId Id of the cell
+	 * @param i Position of the interface in the cell
+	 * (0 &lt;= i &lt; {@link #getNrofInterfaces(int)})
+	 * @return The interface
+	 */
+	public NetworkInterface getInterface(int cellId, int i) {
+		return interfaces[cellMembers[cellId][i]];
+	}
+
+	/**
+	 * Returns all interfaces that use the same technology and channel
+	 */
+	public Collection<NetworkInterface> getAllInterfaces() {
+		return Collections.unmodifiableList(Arrays.asList(
+				interfaces).subList(0, nrofInterfaces));
+	}
+
+	/**
+	 * Returns all interfaces that are "near" (i.e., in neighboring grid cells)
+	 * and use the same technology and channel as the given interface
+	 * @param ni The interface whose neighboring interfaces are returned
+	 * @return List of near interfaces
+	 */
+	public Collection<NetworkInterface> getNearInterfaces(
+			NetworkInterface ni) {
+		ArrayList<NetworkInterface> niList = new ArrayList<NetworkInterface>();
+		int[] cellIds = new int[MAX_NEAR_CELLS];
+		int nrofCells = getNearCells(ni, cellIds);
+
+		for (int c=0; c < nrofCells; c++) {
+			for (int i=0, n = cellCounts[cellIds[c]]; i < n; i++) {
+				niList.add(getInterface(cellIds[c], i));
+			}
+		}
+
+		return niList;
+	}
+
+	/**
+	 * Returns true if the interface is in this grid
+	 * @param ni The interface
+	 * @return true if the interface is in this grid
+	 */
+	private boolean contains(NetworkInterface ni) {
+		int index = ni.getOptimizerIndex();
+		return index >= 0 && index < nrofInterfaces &&
+			interfaces[index] == ni;
+	}
+
+	/**
+	 * Appends an interface to a cell's member array
+	 * @param index Index of the interface
+	 * @param cell Id of the cell
+	 */
+	private void addToCell(int index, int cell) {
+		int[] members = cellMembers[cell];
+		int count = cellCounts[cell];
+
+		if (members == null) {
+			members = new int[EXPECTED_INTERFACE_COUNT];
+			cellMembers[cell] = members;
+		} else if (count == members.length) {
+			members = Arrays.copyOf(members, count * 2);
+			cellMembers[cell] = members;
+		}
+
+		members[count] = index;
+		cellCounts[cell] = count + 1;
+		cellOf[index] = cell;
+		posInCell[index] = count;
+	}
+
+	/**
+	 * Removes an interface from its current cell by replacing it with the
+	 * cell's last member
+	 * @param index Index of the interface
+	 */
+	private void removeFromCell(int index) {
+		int cell = cellOf[index];
+		int[] members = cellMembers[cell];
+		int last = --cellCounts[cell];
+		int pos = posInCell[index];
+
+		if (pos != last) {
+			int movedIndex = members[last];
+			members[pos] = movedIndex;
+			posInCell[movedIndex] = pos;
+		}
+	}
+
+	/**
+	 * Get the id of the cell having the specific coordinates
+	 * @param c Coordinates
+	 * @return The cell id
+	 */
+	private int cellIdFromCoord(Coord c) {
+		// +1 due empty cells on both sides of the matrix
+		int row = (int)(c.getY()/cellSize) + 1;
+		int col = (int)(c.getX()/cellSize) + 1;
+
+		assert row > 0 && row <= rows && col > 0 && col <= cols : "Location " +
+		c + " is out of world's bounds";
+
+		return row * rowLength + col;
+	}
+
+	/**
+	 * Returns a string representation of the grid
+	 * @return a string representation of the grid
+	 */
+	public String toString() {
+		return getClass().getSimpleName() + " of size " +
+			this.cols + "x" + this.rows + ", cell size=" + this.cellSize;
+	}
+
+}
@@ -4,8 +4,6 @@
  */
 package interfaces;
 
-import java.util.Collection;
-
 import core.Connection;
 import core.NetworkInterface;
 import core.Settings;
@@ -98,11 +96,17 @@ public class InterferenceLimitedInterface extends NetworkInterface {
 			}
 		}
 		// Then find new possible connections
-		Collection<NetworkInterface> interfaces =
-			optimizer.getNearInterfaces(this);
-		for (NetworkInterface i : interfaces)
-			connect(i);
+		connectToNearInterfaces();
+
+		updateConnectionStates();
+	}
 
+	/**
+	 * Updates the current transmission speed based on the number of ongoing
+	 * transmissions and updates all connections
+	 */
+	@Override
+	protected void updateConnectionStates() {
 		// Find the current number of transmissions
 		// (to calculate the current transmission speed
 		numberOfTransmissions = 0;
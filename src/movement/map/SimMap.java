@@ -6,9 +6,11 @@ package movement.map;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import util.CoordHashMap;
 import core.Coord;
 
 /**
@@ -20,7 +22,7 @@ public class SimMap implements Serializable {
 	/** list representation of the map for efficient list-returning */
 	private ArrayList<MapNode> nodes;
 	/** hash map presentation of the map for efficient finding node by coord */
-	private Map<Coord, MapNode> nodesMap;
+	private CoordHashMap<MapNode> nodesMap;
 	/** offset of map translations */
 	private Coord offset;
 	/** is this map data mirrored after reading */
@@ -29,10 +31,20 @@ public class SimMap implements Serializable {
 	/** is re-hash needed before using hash mode (some coordinates changed) */
 	private boolean needsRehash = false;
 
+	/**
+	 * Creates a new map of the given nodes. The node list is sorted by the
+	 * node coordinates so that its order doesn't depend on the order of the
+	 * given mapping.
+	 * @param nodes The map nodes mapped by their locations
+	 */
 	public SimMap(Map<Coord, MapNode> nodes) {
 		this.offset = new Coord(0,0);
 		this.nodes = new ArrayList<MapNode>(nodes.values());
-		this.nodesMap = nodes;
+		Collections.sort(this.nodes);
+		this.nodesMap = new CoordHashMap<MapNode>(this.nodes.size());
+		for (MapNode node : this.nodes) {
+			nodesMap.put(node.getLocation(), node);
+		}
 		this.isMirrored = false;
 		setBounds();
 	}
@@ -57,6 +69,7 @@ public class SimMap implements Serializable {
 			for (MapNode node : getNodes()) {
 				nodesMap.put(node.getLocation(), node); // re-hash
 			}
+			needsRehash = false;
 		}
 
 		return nodesMap.get(c);
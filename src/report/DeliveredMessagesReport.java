@@ -4,7 +4,6 @@
  */
 package report;
 
-import java.util.List;
 
 import core.DTNHost;
 import core.Message;
@@ -38,11 +37,13 @@ public class DeliveredMessagesReport extends Report implements MessageListener {
 	 * @return hop path as a string
 	 */
 	private String getPathString(Message m) {
-		List<DTNHost> hops = m.getHops();
-		String str = m.getFrom().toString();
+		String str = "";
 
-		for (int i=1; i<hops.size(); i++) {
-			str += "->" + hops.get(i);
+		for (DTNHost h : m.getHops()) { // the first node is the source
+			if (str.length() > 0) {
+				str += "->";
+			}
+			str += h;
 		}
 
 		return str;
@@ -76,4 +77,9 @@ public class DeliveredMessagesReport extends Report implements MessageListener {
 	public void done() {
 		super.done();
 	}
+
+	@Override
+	public int getRequiredPathRecording() {
+		return Message.PATH_FULL;
+	}
 }
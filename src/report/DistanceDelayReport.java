@@ -52,7 +52,7 @@ public class DistanceDelayReport extends Report implements MessageListener {
 		}
 
 		report(m.getId(), info.getLoc1().distance(info.getLoc2()),
-				getSimTime() - info.getTime(), m.getHops().size()-1);
+				getSimTime() - info.getTime(), m.getHopCount());
 	}
 
 	/**
@@ -133,4 +133,8 @@ public class DistanceDelayReport extends Report implements MessageListener {
 		}
 	}
 
+	@Override
+	public int getRequiredPathRecording() {
+		return Message.PATH_HOP_COUNT;
+	}
 }
@@ -4,7 +4,6 @@
  */
 package report;
 
-import java.util.List;
 import java.util.Vector;
 
 import core.DTNHost;
@@ -60,11 +59,13 @@ public class MessageGraphvizReport extends Report implements MessageListener {
 		setPrefix("\t"); // indent following lines by one tab
 
 		for (Message m : deliveredMessages) {
-			List<DTNHost> path = m.getHops();
-			String pathString = path.remove(0).toString(); // start node
+			String pathString = "";
 
-			for (DTNHost next : path) {
-				pathString += "->" + next.toString();
+			for (DTNHost h : m.getHops()) {
+				if (pathString.length() > 0) {
+					pathString += "->";
+				}
+				pathString += h.toString();
 			}
 
 			write (pathString + ";");
@@ -76,4 +77,8 @@ public class MessageGraphvizReport extends Report implements MessageListener {
 		super.done();
 	}
 
+	@Override
+	public int getRequiredPathRecording() {
+		return Message.PATH_FULL;
+	}
 }
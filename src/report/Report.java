@@ -14,6 +14,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import core.Message;
 import core.Settings;
 import core.SimClock;
 import core.SimError;
@@ -324,6 +325,16 @@ public abstract class Report {
 		return s;
 	}
 
+	/**
+	 * Returns the lowest message path recording level this report needs
+	 * (see {@link Message#setPathRecording(int)}). Reports that use the
+	 * hop counts or paths of the messages must override this method.
+	 * @return The path recording level
+	 */
+	public int getRequiredPathRecording() {
+		return Message.PATH_NONE;
+	}
+
 	/**
 	 * Called when the simulation is done, user requested
 	 * premature termination or intervalled report generating decided
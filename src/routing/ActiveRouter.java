@@ -5,14 +5,19 @@
 package routing;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
+import routing.util.DestinationIndex;
+import routing.util.DropPolicy;
 import routing.util.EnergyModel;
 import routing.util.MessageTransferAcceptPolicy;
 import routing.util.RoutingInfo;
+import routing.util.ShortestTtlDropPolicy;
+import routing.util.SummaryVector;
 import util.Tuple;
 
 import core.Connection;
@@ -36,6 +41,23 @@ public abstract class ActiveRouter extends MessageRouter {
 	/** should messages that final recipient marks as delivered be deleted
 	 * from message buffer */
 	protected boolean deleteDelivered;
+	/** Exact TTL expiry -setting id ({@value}). Boolean valued.
+	 * If set to true, messages are dropped as soon as their TTL has passed
+	 * (and the router is not sending) instead of checking every
+	 * {@link #TTL_CHECK_INTERVAL} seconds for messages with less than
+	 * a minute of TTL left. Default=false. */
+	public static final String EXACT_TTL_EXPIRY_S = "exactTtlExpiry";
+	/** should messages be dropped exactly when their TTL passes */
+	protected boolean exactTtlExpiry;
+	/** Summary vectors -setting id ({@value}). Boolean valued.
+	 * If set to true, the messages that the other host of a connection has
+	 * at the start of the contact, or is later found to have, are not
+	 * offered to it again during the same contact (see {@link SummaryVector}).
+	 * Messages that are refused for other reasons (e.g., the other host is
+	 * busy or has no space) are offered again as usual. Default=false. */
+	public static final String SUMMARY_VECTORS_S = "summaryVectors";
+	/** should summary vectors be used */
+	protected boolean summaryVectors;
 
 	/** prefix of all response message IDs */
 	public static final String RESPONSE_PREFIX = "R_";
@@ -48,6 +70,14 @@ public abstract class ActiveRouter extends MessageRouter {
 
 	private MessageTransferAcceptPolicy policy;
 	private EnergyModel energy;
+	/** policy for choosing the messages to drop when the buffer is full */
+	private DropPolicy dropPolicy;
+	/** the buffered messages ordered by the time their TTL expires */
+	private DropPolicy expiryQueue;
+	/** the buffered messages by their destinations */
+	private DestinationIndex destinations;
+	/** summary vectors of the current connections */
+	private Map<Connection, SummaryVector> summaries;
 
 	/**
 	 * Constructor. Creates a new message router based on the settings in
@@ -60,6 +90,12 @@ public abstract class ActiveRouter extends MessageRouter {
 		this.policy = new MessageTransferAcceptPolicy(s);
 
 		this.deleteDelivered = s.getBoolean(DELETE_DELIVERED_S, false);
+		this.exactTtlExpiry = s.getBoolean(EXACT_TTL_EXPIRY_S, false);
+		this.summaryVectors = s.getBoolean(SUMMARY_VECTORS_S, false);
+		this.dropPolicy = DropPolicy.createPolicy(s);
+		this.expiryQueue = new ShortestTtlDropPolicy(s);
+		this.destinations = new DestinationIndex();
+		this.summaries = new HashMap<Connection, SummaryVector>();
 
 		if (s.contains(EnergyModel.INIT_ENERGY_S)) {
 			this.energy = new EnergyModel(s);
@@ -77,6 +113,12 @@ public abstract class ActiveRouter extends MessageRouter {
 		this.deleteDelivered = r.deleteDelivered;
 		this.policy = r.policy;
 		this.energy = (r.energy != null ? r.energy.replicate() : null);
+		this.exactTtlExpiry = r.exactTtlExpiry;
+		this.summaryVectors = r.summaryVectors;
+		this.dropPolicy = r.dropPolicy.replicate();
+		this.expiryQueue = r.expiryQueue.replicate();
+		this.destinations = new DestinationIndex();
+		this.summaries = new HashMap<Connection, SummaryVector>();
 	}
 
 	@Override
@@ -89,7 +131,8 @@ public abstract class ActiveRouter extends MessageRouter {
 	/**
 	 * Called when a connection's state changes. If energy modeling is enabled,
 	 * and a new connection is created to this node, reduces the energy for the
-	 * device discovery (scan response) amount
+	 * device discovery (scan response) amount. If summary vectors are used,
+	 * creates the summary vector of a new connection.
 	 * @param con The connection whose state changed
 	 */
 	@Override
@@ -97,6 +140,53 @@ public abstract class ActiveRouter extends MessageRouter {
 		if (this.energy != null && con.isUp() && !con.isInitiator(getHost())) {
 			this.energy.reduceDiscoveryEnergy();
 		}
+
+		if (this.summaryVectors) {
+			if (con.isUp()) {
+				this.summaries.put(con, createSummaryVector(con));
+			}
+			else {
+				this.summaries.remove(con);
+			}
+		}
+	}
+
+	/**
+	 * Creates the summary vector of a new connection, i.e., finds out which
+	 * of the messages of this router the other host already has (or has
+	 * received as the final recipient)
+	 * @param con The new connection
+	 * @return The summary vector
+	 */
+	private SummaryVector createSummaryVector(Connection con) {
+		SummaryVector summary = new SummaryVector();
+		MessageRouter other = con.getOtherNode(getHost()).getRouter();
+		if (!(other instanceof ActiveRouter)) {
+			return summary; // filled only by the replies of the other host
+		}
+
+		for (Message m : getMessageCollection()) {
+			if (other.hasMessage(m.getIntId()) || other.isDeliveredMessage(m) ||
+					other.isBlacklistedMessage(m.getIntId())) {
+				summary.add(m);
+			}
+		}
+		return summary;
+	}
+
+	/**
+	 * Returns true if summary vectors are used and the host on the other end
+	 * of the connection is known to have (or to have had) the message
+	 * @param con The connection
+	 * @param m The message
+	 * @return True if the message should not be offered to the other host
+	 */
+	protected boolean isInSummaryVector(Connection con, Message m) {
+		if (!this.summaryVectors) {
+			return false;
+		}
+		SummaryVector summary = this.summaries.get(con);
+		return summary != null && summary.contains(m);
 	}
 
 	@Override
@@ -106,15 +196,11 @@ public abstract class ActiveRouter extends MessageRouter {
 		}
 
 		DTNHost other = con.getOtherNode(getHost());
-		/* do a copy to avoid concurrent modification exceptions
-		 * (startTransfer may remove messages) */
-		ArrayList<Message> temp =
-			new ArrayList<Message>(this.getMessageCollection());
-		for (Message m : temp) {
-			if (other == m.getTo()) {
-				if (startTransfer(m, con) == RCV_OK) {
-					return true;
-				}
+		/* the index returns a copy, so startTransfer may remove messages */
+		for (Message m : this.destinations.getMessagesTo(other,
+				getMessageCollection())) {
+			if (startTransfer(m, con) == RCV_OK) {
+				return true;
 			}
 		}
 		return false;
@@ -172,7 +258,9 @@ public abstract class ActiveRouter extends MessageRouter {
 	 * @param m The message to transfer
 	 * @param con The connection to use
 	 * @return the value returned by
-	 * {@link Connection#startTransfer(DTNHost, Message)}
+	 * {@link Connection#startTransfer(DTNHost, Message)} (DENIED_OLD
+	 * without asking the other host if the message is in the summary vector
+	 * of the connection)
 	 */
 	protected int startTransfer(Message m, Connection con) {
 		int retVal;
@@ -186,7 +274,18 @@ public abstract class ActiveRouter extends MessageRouter {
 			return MessageRouter.DENIED_POLICY;
 		}
 
-		retVal = con.startTransfer(getHost(), m);
+		SummaryVector summary = (this.summaryVectors ?
+				this.summaries.get(con) : null);
+		if (summary != null && summary.contains(m)) {
+			retVal = DENIED_OLD; // the other host is known to have the msg
+		}
+		else {
+			retVal = con.startTransfer(getHost(), m);
+			if (summary != null && retVal == DENIED_OLD) {
+				summary.add(m);
+			}
+		}
+
 		if (retVal == RCV_OK) { // started transfer
 			addToSendingConnections(con);
 		}
@@ -232,8 +331,8 @@ public abstract class ActiveRouter extends MessageRouter {
 			return TRY_LATER_BUSY; // only one connection at a time
 		}
 
-		if ( hasMessage(m.getId()) || isDeliveredMessage(m) ||
-				super.isBlacklistedMessage(m.getId())) {
+		if ( hasMessage(m.getIntId()) || isDeliveredMessage(m) ||
+				super.isBlacklistedMessage(m.getIntId())) {
 			return DENIED_OLD; // already seen this message -> reject it
 		}
 
@@ -288,18 +387,36 @@ public abstract class ActiveRouter extends MessageRouter {
 	}
 
 	/**
-	 * Drops messages whose TTL is less than zero.
+	 * Drops messages whose TTL is less than zero (or, with
+	 * {@link #EXACT_TTL_EXPIRY_S}, whose TTL has passed). Only the messages
+	 * that expire first are checked.
 	 */
 	protected void dropExpiredMessages() {
-		Message[] messages = getMessageCollection().toArray(new Message[0]);
-		for (int i=0; i<messages.length; i++) {
-			int ttl = messages[i].getTtl();
-			if (ttl <= 0) {
-				deleteMessage(messages[i].getId(), true);
-			}
+		List<Message> none = Collections.emptyList();
+		Message m = this.expiryQueue.getNext(none);
+
+		while (m != null && isExpired(m)) {
+			deleteMessage(m.getId(), true);
+			m = this.expiryQueue.getNext(none);
 		}
 	}
 
+	/**
+	 * Returns true if the TTL of the message has expired
+	 * @param m The message
+	 * @return True if the message should be dropped
+	 */
+	private boolean isExpired(Message m) {
+		if (m.getInitTtl() == Message.INFINITE_TTL) {
+			return false;
+		}
+		if (this.exactTtlExpiry) {
+			return SimClock.getTime() >=
+				m.getCreationTime() + m.getInitTtl() * 60.0;
+		}
+		return m.getTtl() <= 0;
+	}
+
 	/**
 	 * Tries to make room for a new message. Current implementation simply
 	 * calls {@link #makeRoomForMessage(int)} and ignores the return value.
@@ -313,33 +430,60 @@ public abstract class ActiveRouter extends MessageRouter {
 
 
 	/**
-	 * Returns the oldest (by receive time) message in the message buffer
-	 * (that is not being sent if excludeMsgBeingSent is true).
+	 * Returns the message that the drop policy of this router would drop
+	 * first from the message buffer (that is not being sent if
+	 * excludeMsgBeingSent is true). With the default policy, this is the
+	 * oldest (by receive time) message; of equally old messages, the one
+	 * that comes first in the message collection.
 	 * @param excludeMsgBeingSent If true, excludes message(s) that are
-	 * being sent from the oldest message check (i.e. if oldest message is
+	 * being sent from the check (i.e. if oldest message is
 	 * being sent, the second oldest message is returned)
-	 * @return The oldest message or null if no message could be returned
+	 * @return The message to drop or null if no message could be returned
 	 * (no messages in buffer or all messages in buffer are being sent and
 	 * exludeMsgBeingSent is true)
+	 * @see DropPolicy
 	 */
 	protected Message getNextMessageToRemove(boolean excludeMsgBeingSent) {
-		Collection<Message> messages = this.getMessageCollection();
-		Message oldest = null;
-		for (Message m : messages) {
-
-			if (excludeMsgBeingSent && isSending(m.getId())) {
-				continue; // skip the message(s) that router is sending
-			}
+		List<Message> sending = Collections.emptyList();
 
-			if (oldest == null ) {
-				oldest = m;
-			}
-			else if (oldest.getReceiveTime() > m.getReceiveTime()) {
-				oldest = m;
+		if (excludeMsgBeingSent && !this.sendingConnections.isEmpty()) {
+			sending = new ArrayList<Message>(this.sendingConnections.size());
+			for (Connection con : this.sendingConnections) {
+				if (con.getMessage() != null) {
+					sending.add(con.getMessage());
+				}
 			}
 		}
 
-		return oldest;
+		return this.dropPolicy.getNext(sending, getMessageCollection());
+	}
+
+	/**
+	 * Informs the drop policy that the drop priority of a buffered message
+	 * may have changed (e.g., a property that the policy uses was updated)
+	 * @param m The message
+	 */
+	protected void updateDropPriority(Message m) {
+		this.dropPolicy.update(m);
+	}
+
+	@Override
+	protected void addToMessages(Message m, boolean newMessage) {
+		this.dropPolicy.add(m);
+		this.expiryQueue.add(m);
+		this.destinations.add(m);
+		super.addToMessages(m, newMessage);
+	}
+
+	@Override
+	protected Message removeFromMessages(String id) {
+		Message m = super.removeFromMessages(id);
+		if (m != null) {
+			this.dropPolicy.remove(m);
+			this.expiryQueue.remove(m);
+			this.destinations.remove(m);
+		}
+		return m;
 	}
 
 	/**
@@ -353,18 +497,8 @@ public abstract class ActiveRouter extends MessageRouter {
 			return new ArrayList<Tuple<Message, Connection>>(0);
 		}
 
-		List<Tuple<Message, Connection>> forTuples =
-			new ArrayList<Tuple<Message, Connection>>();
-		for (Message m : getMessageCollection()) {
-			for (Connection con : getConnections()) {
-				DTNHost to = con.getOtherNode(getHost());
-				if (m.getTo() == to) {
-					forTuples.add(new Tuple<Message, Connection>(m,con));
-				}
-			}
-		}
-
-		return forTuples;
+		return this.destinations.getMessagesFor(getHost(), getConnections(),
+				getMessageCollection());
 	}
 
 	/**
@@ -590,6 +724,10 @@ public abstract class ActiveRouter extends MessageRouter {
 			/* finalize ready transfers */
 			if (con.isMessageTransferred()) {
 				if (con.getMessage() != null) {
+					if (this.summaryVectors && this.summaries.containsKey(con)) {
+						/* the other host has the message now */
+						this.summaries.get(con).add(con.getMessage());
+					}
 					transferDone(con);
 					con.finalizeTransfer();
 				} /* else: some other entity aborted transfer */
@@ -618,7 +756,8 @@ public abstract class ActiveRouter extends MessageRouter {
 		}
 
 		/* time to do a TTL check and drop old messages? Only if not sending */
-		if (SimClock.getTime() - lastTtlCheck >= TTL_CHECK_INTERVAL &&
+		if ((exactTtlExpiry ||
+				SimClock.getTime() - lastTtlCheck >= TTL_CHECK_INTERVAL) &&
 				sendingConnections.size() == 0) {
 			dropExpiredMessages();
 			lastTtlCheck = SimClock.getTime();
@@ -647,6 +786,14 @@ public abstract class ActiveRouter extends MessageRouter {
 	 */
 	protected void transferDone(Connection con) { }
 
+	@Override
+	public int getRequiredPathRecording() {
+		if (policy.usesHopCount()) {
+			return Message.PATH_HOP_COUNT;
+		}
+		return super.getRequiredPathRecording();
+	}
+
 	@Override
 	public RoutingInfo getRoutingInfo() {
 		RoutingInfo top = super.getRoutingInfo();
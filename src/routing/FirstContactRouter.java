@@ -66,6 +66,11 @@ public class FirstContactRouter extends ActiveRouter {
 		this.deleteMessage(con.getMessage().getId(), false);
 	}
 
+	@Override
+	public int getRequiredPathRecording() {
+		return Message.PATH_FULL;
+	}
+
 	@Override
 	public FirstContactRouter replicate() {
 		return new FirstContactRouter(this);
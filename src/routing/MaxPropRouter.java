@@ -14,14 +14,18 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import routing.maxprop.AckedMessageSet;
 import routing.maxprop.MaxPropDijkstra;
 import routing.maxprop.MeetingProbabilitySet;
+import routing.maxprop.MeetingProbabilityTable;
 import routing.util.RoutingInfo;
 import util.Tuple;
 import core.Connection;
 import core.DTNHost;
 import core.Message;
 import core.Settings;
+import core.SettingsError;
+import core.SimClock;
 
 /**
  * Implementation of MaxProp router as described in
@@ -45,22 +49,37 @@ public class MaxPropRouter extends ActiveRouter {
     /** Default value for the meeting probability set maximum size ({@value}).*/
     public static final int DEFAULT_PROB_SET_MAX_SIZE = 50;
     private static int probSetMaxSize;
+	/**
+	 * ACK time to live -setting id ({@value}). Value is in minutes and must
+	 * be an integer. ACKs of delivered messages are forgotten when this much
+	 * time has passed since the delivery, so the value should be at least
+	 * as long as the TTL of the messages. Default is infinite TTL.
+	 */
+	public static final String ACK_TTL_S = "ackTtl";
 
 	/** probabilities of meeting hosts */
 	private MeetingProbabilitySet probs;
+	/** copy of the current probabilities that is given to other hosts (or
+	 * null if not created after the latest update) */
+	private MeetingProbabilitySet probsSnapshot;
 	/** meeting probabilities of all hosts from this host's point of view
-	 * mapped using host's network address */
-	private Map<Integer, MeetingProbabilitySet> allProbs;
-	/** the cost-to-node calculator */
-	private MaxPropDijkstra dijkstra;
+	 * mapped using host's network address. Except for this host's own
+	 * probabilities, the sets are never modified so they are shared between
+	 * the routers. */
+	private MeetingProbabilityTable allProbs;
+	/** versions of the other hosts' probability tables when they were last
+	 * exchanged, mapped using host's network address */
+	private Map<Integer, Integer> seenVersions;
+	/** the cost-to-node calculators mapped using the address of the host
+	 * where the costs are calculated from */
+	private Map<Integer, MaxPropDijkstra> costCalculators;
 	/** IDs of the messages that are known to have reached the final dst */
-	private Set<String> ackedMessageIds;
-	/** mapping of the current costs for all messages. This should be set to
-	 * null always when the costs should be updated (a host is met or a new
-	 * message is received) */
-	private Map<Integer, Double> costsForMessages;
-	/** From host of the last cost calculation */
-	private DTNHost lastCostFrom;
+	private AckedMessageSet ackedMessages;
+	/** versions of the other hosts' ACK sets when they were last
+	 * exchanged, mapped using host's network address */
+	private Map<Integer, Integer> seenAckVersions;
+	/** time to live of the ACKs (seconds) */
+	private double ackTtl;
 
 	/** Map of which messages have been sent to which hosts from this host */
 	private Map<DTNHost, Set<String>> sentMessages;
@@ -103,6 +122,17 @@ public class MaxPropRouter extends ActiveRouter {
         } else {
             probSetMaxSize = DEFAULT_PROB_SET_MAX_SIZE;
         }
+
+		if (maxPropSettings.contains(ACK_TTL_S)) {
+			ackTtl = maxPropSettings.getInt(ACK_TTL_S) * 60;
+			if (ackTtl <= 0) {
+				throw new SettingsError("Invalid value for " +
+						maxPropSettings.getFullPropertyName(ACK_TTL_S) +
+						". Must be positive.");
+			}
+		} else {
+			ackTtl = AckedMessageSet.INFINITE_TTL;
+		}
 	}
 
 	/**
@@ -112,10 +142,13 @@ public class MaxPropRouter extends ActiveRouter {
 	protected MaxPropRouter(MaxPropRouter r) {
 		super(r);
 		this.alpha = r.alpha;
+		this.ackTtl = r.ackTtl;
 		this.probs = new MeetingProbabilitySet(probSetMaxSize, this.alpha);
-		this.allProbs = new HashMap<Integer, MeetingProbabilitySet>();
-		this.dijkstra = new MaxPropDijkstra(this.allProbs);
-		this.ackedMessageIds = new HashSet<String>();
+		this.allProbs = new MeetingProbabilityTable();
+		this.seenVersions = new HashMap<Integer, Integer>();
+		this.costCalculators = new HashMap<Integer, MaxPropDijkstra>();
+		this.ackedMessages = new AckedMessageSet(this.ackTtl);
+		this.seenAckVersions = new HashMap<Integer, Integer>();
 		this.avgSamples = new int[BYTES_TRANSFERRED_AVG_SAMPLES];
 		this.sentMessages = new HashMap<DTNHost, Set<String>>();
 	}
@@ -125,8 +158,6 @@ public class MaxPropRouter extends ActiveRouter {
 		super.changedConnection(con);
 
 		if (con.isUp()) { // new connection
-			this.costsForMessages = null; // invalidate old cost estimates
-
 			if (con.isInitiator(getHost())) {
 				/* initiator performs all the actions on behalf of the
 				 * other node too (so that the meeting probs are updated
@@ -139,52 +170,132 @@ public class MaxPropRouter extends ActiveRouter {
 				MaxPropRouter otherRouter = (MaxPropRouter)mRouter;
 
 				/* exchange ACKed message data */
-				this.ackedMessageIds.addAll(otherRouter.ackedMessageIds);
-				otherRouter.ackedMessageIds.addAll(this.ackedMessageIds);
+				this.updateAcks(otherRouter);
+				otherRouter.updateAcks(this);
 				deleteAckedMessages();
 				otherRouter.deleteAckedMessages();
 
 				/* update both meeting probabilities */
 				probs.updateMeetingProbFor(otherHost.getAddress());
 				otherRouter.probs.updateMeetingProbFor(getHost().getAddress());
+				this.probsSnapshot = otherRouter.probsSnapshot = null;
+				this.probsChanged(getHost().getAddress());
+				otherRouter.probsChanged(otherHost.getAddress());
 
 				/* exchange the transitive probabilities */
-				this.updateTransitiveProbs(otherRouter.allProbs);
-				otherRouter.updateTransitiveProbs(this.allProbs);
-				this.allProbs.put(otherHost.getAddress(),
-						otherRouter.probs.replicate());
-				otherRouter.allProbs.put(getHost().getAddress(),
-						this.probs.replicate());
+				this.updateTransitiveProbs(otherRouter);
+				otherRouter.updateTransitiveProbs(this);
+				this.setProbs(otherHost.getAddress(),
+						otherRouter.getProbsSnapshot());
+				otherRouter.setProbs(getHost().getAddress(),
+						this.getProbsSnapshot());
 			}
 		}
 		else {
 			/* connection went down, update transferred bytes average */
 			updateTransferredBytesAvg(con.getTotalBytesTransferred());
+			/* costs are calculated only from this host and from the
+			 * connected hosts */
+			costCalculators.remove(con.getOtherNode(getHost()).getAddress());
 		}
 	}
 
 	/**
 	 * Updates transitive probability values by replacing the current
-	 * MeetingProbabilitySets with the values from the given mapping
-	 * if the given sets have more recent updates.
-	 * @param p Mapping of the values of the other host
+	 * MeetingProbabilitySets with the values from the other router
+	 * if the other router's sets have more recent updates. Only the sets
+	 * that the other router has received after the previous exchange with
+	 * this router are checked (the older ones were checked then, and the
+	 * sets of this router only get more recent). The other router's own
+	 * probabilities are skipped, since they are exchanged separately.
+	 * @param other The other router
 	 */
-	private void updateTransitiveProbs(Map<Integer, MeetingProbabilitySet> p) {
-		for (Map.Entry<Integer, MeetingProbabilitySet> e : p.entrySet()) {
-			MeetingProbabilitySet myMps = this.allProbs.get(e.getKey());
+	private void updateTransitiveProbs(MaxPropRouter other) {
+		Integer otherAddress = other.getHost().getAddress();
+		Integer seenVersion = this.seenVersions.get(otherAddress);
+		List<Integer> changed = other.allProbs.getChangedSince(
+				seenVersion == null ? 0 : seenVersion);
+		this.seenVersions.put(otherAddress, other.allProbs.getVersion());
+
+		for (Integer address : changed) {
+			if (address.equals(otherAddress)) {
+				continue;
+			}
+			MeetingProbabilitySet mps = other.allProbs.get(address);
+			MeetingProbabilitySet myMps = this.allProbs.get(address);
 			if (myMps == null ||
-				e.getValue().getLastUpdateTime() > myMps.getLastUpdateTime() ) {
-				this.allProbs.put(e.getKey(), e.getValue().replicate());
+				mps.getLastUpdateTime() > myMps.getLastUpdateTime() ) {
+				this.setProbs(address, mps); // sets are not modified -> share
 			}
 		}
 	}
 
+	/**
+	 * Returns an unmodified copy of the current meeting probabilities of
+	 * this host. The same copy is returned until the probabilities are
+	 * updated.
+	 * @return A copy of the meeting probabilities
+	 */
+	private MeetingProbabilitySet getProbsSnapshot() {
+		if (this.probsSnapshot == null) {
+			this.probsSnapshot = this.probs.replicate();
+		}
+		return this.probsSnapshot;
+	}
+
+	/**
+	 * Sets the meeting probability set of a host
+	 * @param address Address of the host
+	 * @param mps The new probability set
+	 */
+	private void setProbs(Integer address, MeetingProbabilitySet mps) {
+		this.allProbs.put(address, mps);
+		probsChanged(address);
+	}
+
+	/**
+	 * Tells the cost calculators that the meeting probabilities of a host
+	 * have changed
+	 * @param address Address of the host
+	 */
+	private void probsChanged(int address) {
+		for (MaxPropDijkstra dijkstra : this.costCalculators.values()) {
+			dijkstra.probsChanged(address);
+		}
+	}
+
+	/**
+	 * Adds the ACKs that the other router has received after the previous
+	 * exchange with this router
+	 * @param other The other router
+	 */
+	private void updateAcks(MaxPropRouter other) {
+		Integer otherAddress = other.getHost().getAddress();
+		Integer seenVersion = this.seenAckVersions.get(otherAddress);
+		int version = this.ackedMessages.addAllSince(other.ackedMessages,
+				seenVersion == null ? 0 : seenVersion);
+		this.seenAckVersions.put(otherAddress, version);
+	}
+
 	/**
 	 * Deletes the messages from the message buffer that are known to be ACKed
 	 */
 	private void deleteAckedMessages() {
-		for (String id : this.ackedMessageIds) {
-			if (this.hasMessage(id) && !isSending(id)) {
+		List<String> ackedIds = null;
+		for (Message m : getMessageCollection()) {
+			if (this.ackedMessages.contains(m.getIntId())) {
+				if (ackedIds == null) {
+					ackedIds = new ArrayList<String>();
+				}
+				ackedIds.add(m.getId());
+			}
+		}
+		if (ackedIds == null) {
+			return;
+		}
+
+		for (String id : ackedIds) {
+			if (!isSending(id)) {
 				this.deleteMessage(id, false);
 			}
 		}
@@ -192,11 +303,10 @@ public class MaxPropRouter extends ActiveRouter {
 
 	@Override
 	public Message messageTransferred(String id, DTNHost from) {
-		this.costsForMessages = null; // new message -> invalidate costs
 		Message m = super.messageTransferred(id, from);
 		/* was this node the final recipient of the message? */
 		if (isDeliveredMessage(m)) {
-			this.ackedMessageIds.add(id);
+			this.ackedMessages.add(m.getIntId(), SimClock.getTime());
 		}
 		return m;
 	}
@@ -216,7 +326,8 @@ public class MaxPropRouter extends ActiveRouter {
 
 		/* was the message delivered to the final recipient? */
 		if (m.getTo() == recipient) {
-			this.ackedMessageIds.add(m.getId()); // yes, add to ACKed messages
+			/* yes, add to ACKed messages */
+			this.ackedMessages.add(m.getIntId(), SimClock.getTime());
 			this.deleteMessage(m.getId(), false); // delete from buffer
 		}
 
@@ -303,38 +414,28 @@ public class MaxPropRouter extends ActiveRouter {
 	/**
 	 * Returns the message delivery cost between two hosts from this host's
 	 * point of view. If there is no path between "from" and "to" host,
-	 * Double.MAX_VALUE is returned. Paths are calculated only to hosts
-	 * that this host has messages to.
+	 * Double.MAX_VALUE is returned. The costs are calculated only as far as
+	 * needed and the calculation is continued for further hosts until the
+	 * meeting probabilities it has used change.
 	 * @param from The host where a message is coming from
 	 * @param to The host where a message would be destined to
 	 * @return The cost of the cheapest path to the destination or
 	 * Double.MAX_VALUE if such a path doesn't exist
 	 */
 	public double getCost(DTNHost from, DTNHost to) {
-		/* check if the cached values are OK */
-		if (this.costsForMessages == null || lastCostFrom != from) {
-			/* cached costs are invalid -> calculate new costs */
-			this.allProbs.put(getHost().getAddress(), this.probs);
-			int fromIndex = from.getAddress();
-
-			/* calculate paths only to nodes we have messages to
-			 * (optimization) */
-			Set<Integer> toSet = new HashSet<Integer>();
-			for (Message m : getMessageCollection()) {
-				toSet.add(m.getTo().getAddress());
-			}
-
-			this.costsForMessages = dijkstra.getCosts(fromIndex, toSet);
-			this.lastCostFrom = from; // store source host for caching checks
+		Integer myAddress = getHost().getAddress();
+		if (this.allProbs.get(myAddress) != this.probs) {
+			setProbs(myAddress, this.probs);
 		}
 
-		if (costsForMessages.containsKey(to.getAddress())) {
-			return costsForMessages.get(to.getAddress());
-		}
-		else {
-			/* there's no known path to the given host */
-			return Double.MAX_VALUE;
+		MaxPropDijkstra dijkstra = this.costCalculators.get(from.getAddress());
+		if (dijkstra == null) {
+			dijkstra = new MaxPropDijkstra(this.allProbs.getAll());
+			this.costCalculators.put(from.getAddress(), dijkstra);
 		}
+
+		/* MAX_VALUE if there's no known path to the given host */
+		return dijkstra.getCost(from.getAddress(), to.getAddress());
 	}
 
 	/**
@@ -362,8 +463,9 @@ public class MaxPropRouter extends ActiveRouter {
 			for (Message m : msgCollection) {
 				/* skip messages that the other host has or that have
 				 * passed the other host */
-				if (othRouter.hasMessage(m.getId()) ||
-						m.getHops().contains(other)) {
+				if (othRouter.hasMessage(m.getIntId()) ||
+						m.getHops().contains(other) ||
+						isInSummaryVector(con, m)) {
 					continue;
 				}
 				/* skip message if this host has already sent it to the other
@@ -540,6 +642,11 @@ public class MaxPropRouter extends ActiveRouter {
 		}
 	}
 
+	@Override
+	public int getRequiredPathRecording() {
+		return Message.PATH_FULL;
+	}
+
 	/**
 	 * Message-Connection tuple comparator for the MaxProp routing
 	 * module. Uses {@link MaxPropComparator} on the messages of the tuples
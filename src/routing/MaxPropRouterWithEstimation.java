@@ -489,7 +489,7 @@ public class MaxPropRouterWithEstimation extends ActiveRouter {
 			for (Message m : msgCollection) {
 				/* skip messages that the other host has or that have
 				 * passed the other host */
-				if (othRouter.hasMessage(m.getId()) ||
+				if (othRouter.hasMessage(m.getIntId()) ||
 						m.getHops().contains(other)) {
 					continue;
 				}
@@ -658,6 +658,11 @@ public class MaxPropRouterWithEstimation extends ActiveRouter {
 		}
 	}
 
+	@Override
+	public int getRequiredPathRecording() {
+		return Message.PATH_FULL;
+	}
+
 	/**
 	 * Message-Connection tuple comparator for the MaxProp routing
 	 * module. Uses MaxPropComparator on the messages of the tuples
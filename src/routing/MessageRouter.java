@@ -4,6 +4,7 @@
  */
 package routing;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -21,6 +22,7 @@ import core.SettingsError;
 import core.SimClock;
 import core.SimError;
 import routing.util.RoutingInfo;
+import util.IntHashMap;
 import util.Tuple;
 
 /**
@@ -85,18 +87,23 @@ public abstract class MessageRouter {
 	public static final int MAX_TTL_VALUE = 35791394;
 
 	private List<MessageListener> mListeners;
-	/** The messages being transferred with msgID_hostName keys */
-	private HashMap<String, Message> incomingMessages;
+	/** The messages being transferred and the hosts they are from */
+	private List<Tuple<Message, DTNHost>> incomingMessages;
 	/** The messages this router is carrying */
 	private HashMap<String, Message> messages;
+	/** The carried messages with integer message ID keys (see
+	 * {@link Message#getIntId()}) for fast lookups */
+	private IntHashMap<Message> messageIndex;
 	/** The messages this router has received as the final recipient */
-	private HashMap<String, Message> deliveredMessages;
+	private IntHashMap<Message> deliveredMessages;
 	/** The messages that Applications on this router have blacklisted */
-	private HashMap<String, Object> blacklistedMessages;
+	private IntHashMap<Object> blacklistedMessages;
 	/** Host where this router belongs to */
 	private DTNHost host;
 	/** size of the buffer */
 	private long bufferSize;
+	/** total size of the messages in the buffer */
+	private long bufferOccupancy;
 	/** TTL for all messages */
 	protected int msgTtl;
 	/** Queue mode for sending messages */
@@ -159,10 +166,12 @@ public abstract class MessageRouter {
 	 * @param mListeners The message listeners
 	 */
 	public void init(DTNHost host, List<MessageListener> mListeners) {
-		this.incomingMessages = new HashMap<String, Message>();
+		this.incomingMessages = new ArrayList<Tuple<Message, DTNHost>>();
 		this.messages = new HashMap<String, Message>();
-		this.deliveredMessages = new HashMap<String, Message>();
-		this.blacklistedMessages = new HashMap<String, Object>();
+		this.messageIndex = new IntHashMap<Message>();
+		this.deliveredMessages = new IntHashMap<Message>();
+		this.blacklistedMessages = new IntHashMap<Object>();
+		this.bufferOccupancy = 0;
 		this.mListeners = mListeners;
 		this.host = host;
 	}
@@ -209,7 +218,7 @@ public abstract class MessageRouter {
 	 * @return The message
 	 */
 	protected Message getMessage(String id) {
-		return this.messages.get(id);
+		return this.messageIndex.get(Message.toIntId(id));
 	}
 
 	/**
@@ -218,7 +227,17 @@ public abstract class MessageRouter {
 	 * @return True if the router has message with this id, false if not
 	 */
 	public boolean hasMessage(String id) {
-		return this.messages.containsKey(id);
+		return hasMessage(Message.toIntId(id));
+	}
+
+	/**
+	 * Checks if this router has a message with certain integer id buffered.
+	 * @param intId Integer identifier of the message
+	 * (see {@link Message#getIntId()})
+	 * @return True if the router has message with this id, false if not
+	 */
+	public boolean hasMessage(int intId) {
+		return this.messageIndex.containsKey(intId);
 	}
 
 	/**
@@ -230,7 +249,7 @@ public abstract class MessageRouter {
 	 * this host as the final recipient.
 	 */
 	protected boolean isDeliveredMessage(Message m) {
-		return (this.deliveredMessages.containsKey(m.getId()));
+		return (this.deliveredMessages.containsKey(m.getIntId()));
 	}
 
 	/**
@@ -243,7 +262,17 @@ public abstract class MessageRouter {
 	 * @return <code>true</code> if blacklisted, <code>false</code> otherwise.
 	 */
 	protected boolean isBlacklistedMessage(String id) {
-		return this.blacklistedMessages.containsKey(id);
+		return isBlacklistedMessage(Message.toIntId(id));
+	}
+
+	/**
+	 * Returns <code>true</code> if the message has been blacklisted.
+	 * @param intId Integer id of the message (see {@link Message#getIntId()})
+	 * @return <code>true</code> if blacklisted, <code>false</code> otherwise.
+	 * @see #isBlacklistedMessage(String)
+	 */
+	protected boolean isBlacklistedMessage(int intId) {
+		return this.blacklistedMessages.containsKey(intId);
 	}
 
 	/**
@@ -282,17 +311,19 @@ public abstract class MessageRouter {
 	 * size isn't defined)
 	 */
 	public long getFreeBufferSize() {
-		long occupancy = 0;
-
 		if (this.getBufferSize() == Integer.MAX_VALUE) {
 			return Integer.MAX_VALUE;
 		}
 
-		for (Message m : getMessageCollection()) {
-			occupancy += m.getSize();
-		}
+		return this.getBufferSize() - this.bufferOccupancy;
+	}
 
-		return this.getBufferSize() - occupancy;
+	/**
+	 * Returns the total size of the messages in the buffer
+	 * @return The buffer occupancy (bytes)
+	 */
+	public long getBufferOccupancy() {
+		return this.bufferOccupancy;
 	}
 
 	/**
@@ -391,11 +422,11 @@ public abstract class MessageRouter {
 			// -> put to buffer
 			addToMessages(aMessage, false);
 		} else if (isFirstDelivery) {
-			this.deliveredMessages.put(id, aMessage);
+			this.deliveredMessages.put(incoming.getIntId(), aMessage);
 		} else if (outgoing == null) {
 			// Blacklist messages that an app wants to drop.
 			// Otherwise the peer will just try to send it back again.
-			this.blacklistedMessages.put(id, null);
+			this.blacklistedMessages.put(incoming.getIntId(), null);
 		}
 
 		for (MessageListener ml : this.mListeners) {
@@ -413,7 +444,7 @@ public abstract class MessageRouter {
 	 * @param from Who the message was from (previous hop).
 	 */
 	protected void putToIncomingBuffer(Message m, DTNHost from) {
-		this.incomingMessages.put(m.getId() + "_" + from.toString(), m);
+		this.incomingMessages.add(new Tuple<Message, DTNHost>(m, from));
 	}
 
 	/**
@@ -424,7 +455,14 @@ public abstract class MessageRouter {
 	 * @return The found message or null if such message wasn't found
 	 */
 	protected Message removeFromIncomingBuffer(String id, DTNHost from) {
-		return this.incomingMessages.remove(id + "_" + from.toString());
+		int intId = Message.toIntId(id);
+		for (int i=0, n=this.incomingMessages.size(); i < n; i++) {
+			Tuple<Message, DTNHost> t = this.incomingMessages.get(i);
+			if (t.getKey().getIntId() == intId && t.getValue() == from) {
+				return this.incomingMessages.remove(i).getKey();
+			}
+		}
+		return null;
 	}
 
 	/**
@@ -434,7 +472,13 @@ public abstract class MessageRouter {
 	 * @return True if such message is incoming right now
 	 */
 	protected boolean isIncomingMessage(String id) {
-		return this.incomingMessages.containsKey(id);
+		/* matches the message ID and sender keys of earlier versions */
+		for (Tuple<Message, DTNHost> t : this.incomingMessages) {
+			if (id.equals(t.getKey().getId() + "_" + t.getValue())) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -445,7 +489,12 @@ public abstract class MessageRouter {
 	 * message, if false, nothing is informed.
 	 */
 	protected void addToMessages(Message m, boolean newMessage) {
-		this.messages.put(m.getId(), m);
+		Message old = this.messages.put(m.getId(), m);
+		this.messageIndex.put(m.getIntId(), m);
+		if (old != null) {
+			this.bufferOccupancy -= old.getSize();
+		}
+		this.bufferOccupancy += m.getSize();
 
 		if (newMessage) {
 			for (MessageListener ml : this.mListeners) {
@@ -461,6 +510,10 @@ public abstract class MessageRouter {
 	 */
 	protected Message removeFromMessages(String id) {
 		Message m = this.messages.remove(id);
+		this.messageIndex.remove(Message.toIntId(id));
+		if (m != null) {
+			this.bufferOccupancy -= m.getSize();
+		}
 		return m;
 	}
 
@@ -593,6 +646,16 @@ public abstract class MessageRouter {
 		}
 	}
 
+	/**
+	 * Returns the lowest message path recording level this router needs
+	 * (see {@link Message#setPathRecording(int)}). Routers that use the
+	 * hop counts or paths of the messages must override this method.
+	 * @return The path recording level
+	 */
+	public int getRequiredPathRecording() {
+		return Message.PATH_NONE;
+	}
+
 	/**
 	 * Returns routing information about this router.
 	 * @return The routing information.
@@ -611,8 +674,8 @@ public abstract class MessageRouter {
 		ri.addMoreInfo(delivered);
 		ri.addMoreInfo(cons);
 
-		for (Message m : this.incomingMessages.values()) {
-			incoming.addMoreInfo(new RoutingInfo(m));
+		for (Tuple<Message, DTNHost> t : this.incomingMessages) {
+			incoming.addMoreInfo(new RoutingInfo(t.getKey()));
 		}
 
 		for (Message m : this.deliveredMessages.values()) {
@@ -72,6 +72,7 @@ public class SprayAndWaitRouter extends ActiveRouter {
 		}
 
 		msg.updateProperty(MSG_COUNT_PROPERTY, nrofCopies);
+		updateDropPriority(msg);
 		return msg;
 	}
 
@@ -155,6 +156,7 @@ public class SprayAndWaitRouter extends ActiveRouter {
 			nrofCopies--;
 		}
 		msg.updateProperty(MSG_COUNT_PROPERTY, nrofCopies);
+		updateDropPriority(msg);
 	}
 
 	@Override
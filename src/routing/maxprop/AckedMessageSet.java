@@ -0,0 +1,241 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package routing.maxprop;
+
+import core.SimClock;
+
+/**
+ * Set of the messages that are known to have reached their final
+ * destination (i.e., are ACKed), identified by their integer IDs. The IDs
+ * and the ACK times are kept in primitive arrays in the order they were
+ * added, with an open addressing hash table for the lookups. Every added
+ * ACK gets a new version number, so the ACKs added after a version can be
+ * copied to another set without going through the whole set.
+ * ACKs can be given a time to live; after it has passed (since the
+ * message was delivered), the ACK is ignored. The expired ACKs are removed
+ * when new ACKs are added, at most once per half of the time to live.
+ */
+public class AckedMessageSet {
+	/** Time to live value for ACKs that never expire */
+	public static final double INFINITE_TTL = Double.MAX_VALUE;
+	/** initial capacity of the entry arrays */
+	private static final int DEF_CAPACITY = 16;
+	/** value of free slots in the table */
+	private static final int FREE = -1;
+
+	/** entry indexes (or FREE); the length is a power of two */
+	private int[] table;
+	/** message IDs of the entries */
+	private int[] ids;
+	/** delivery times of the entries */
+	private double[] times;
+	/** versions of the entries (in increasing order) */
+	private int[] versions;
+	/** number of entries */
+	private int size;
+	/** version of the latest added ACK */
+	private int version;
+	/** time to live of the ACKs (seconds) */
+	private double ttl;
+	/** time when the expired ACKs are removed the next time */
+	private double nextRemoval;
+
+	/**
+	 * Creates a new set for ACKs that never expire
+	 */
+	public AckedMessageSet() {
+		this(INFINITE_TTL);
+	}
+
+	/**
+	 * Creates a new set
+	 * @param ttl Time to live of the ACKs (seconds since the delivery)
+	 */
+	public AckedMessageSet(double ttl) {
+		this.ttl = ttl;
+		this.ids = new int[DEF_CAPACITY];
+		this.times = new double[DEF_CAPACITY];
+		this.versions = new int[DEF_CAPACITY];
+		this.table = newTable(DEF_CAPACITY);
+		this.size = 0;
+		this.version = 0;
+		this.nextRemoval = ttl == INFINITE_TTL ? INFINITE_TTL : ttl / 2;
+	}
+
+	/**
+	 * Adds an ACK for a message
+	 * @param msgId Integer ID of the message
+	 * @param time The time when the message was delivered
+	 * @return True if the set did not contain a valid ACK for the message
+	 */
+	public boolean add(int msgId, double time) {
+		if (isExpired(time)) {
+			return false;
+		}
+		int slot = findSlot(msgId);
+		if (table[slot] != FREE) {
+			if (!isExpired(times[table[slot]])) {
+				return false;
+			}
+			removeExpired(true); // the expired ACK is replaced with a new one
+		}
+		else {
+			removeExpired(false);
+		}
+
+		if (size == ids.length) {
+			resize(ids.length * 2);
+		}
+		slot = findSlot(msgId);
+		version++;
+		ids[size] = msgId;
+		times[size] = time;
+		versions[size] = version;
+		table[slot] = size;
+		size++;
+		return true;
+	}
+
+	/**
+	 * Returns true if the set has a valid ACK for the message
+	 * @param msgId Integer ID of the message
+	 * @return True if the message is known to be delivered
+	 */
+	public boolean contains(int msgId) {
+		int e = table[findSlot(msgId)];
+		return e != FREE && !isExpired(times[e]);
+	}
+
+	/**
+	 * Adds the ACKs that were added to another set after the given version
+	 * of that set
+	 * @param other The other set
+	 * @param since The version of the other set
+	 * @return The current version of the other set
+	 */
+	public int addAllSince(AckedMessageSet other, int since) {
+		/* binary search for the first entry after the version */
+		int low = 0;
+		int high = other.size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (other.versions[mid] <= since) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+
+		for (int i = low; i < other.size; i++) {
+			add(other.ids[i], other.times[i]);
+		}
+		return other.version;
+	}
+
+	/**
+	 * Returns the current version of the set
+	 * @return The version of the latest added ACK (0 if nothing is added)
+	 */
+	public int getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Returns the number of ACKs in the set. The number may include expired
+	 * ACKs that are not removed yet.
+	 * @return The number of ACKs
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns true if an ACK with the given delivery time has expired
+	 */
+	private boolean isExpired(double time) {
+		return ttl != INFINITE_TTL && time + ttl < SimClock.getTime();
+	}
+
+	/**
+	 * Removes the expired ACKs if it's time for that
+	 * @param force If true, the ACKs are removed in any case
+	 */
+	private void removeExpired(boolean force) {
+		double now = SimClock.getTime();
+		if (now < nextRemoval && !force) {
+			return;
+		}
+		nextRemoval = now + ttl / 2;
+
+		int newSize = 0;
+		for (int i=0; i < size; i++) {
+			if (!isExpired(times[i])) {
+				ids[newSize] = ids[i];
+				times[newSize] = times[i];
+				versions[newSize] = versions[i];
+				newSize++;
+			}
+		}
+		if (newSize < size) {
+			size = newSize;
+			resize(ids.length);
+		}
+	}
+
+	/**
+	 * Moves the entries to arrays of the given capacity and rebuilds the
+	 * table
+	 */
+	private void resize(int capacity) {
+		if (capacity != ids.length) {
+			int[] newIds = new int[capacity];
+			double[] newTimes = new double[capacity];
+			int[] newVersions = new int[capacity];
+			System.arraycopy(ids, 0, newIds, 0, size);
+			System.arraycopy(times, 0, newTimes, 0, size);
+			System.arraycopy(versions, 0, newVersions, 0, size);
+			ids = newIds;
+			times = newTimes;
+			versions = newVersions;
+		}
+
+		table = newTable(capacity);
+		for (int i=0; i < size; i++) {
+			table[findSlot(ids[i])] = i;
+		}
+	}
+
+	/**
+	 * Returns the slot of a message ID or the free slot where it should be
+	 * added
+	 */
+	private int findSlot(int msgId) {
+		int mask = table.length - 1;
+		int slot = hash(msgId) & mask;
+		while (table[slot] != FREE && ids[table[slot]] != msgId) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns a free table that has room for the given number of entries
+	 * with load factor of at most one half
+	 */
+	private static int[] newTable(int capacity) {
+		int length = Integer.highestOneBit(capacity) * 4;
+		int[] table = new int[length];
+		for (int i=0; i < length; i++) {
+			table[i] = FREE;
+		}
+		return table;
+	}
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
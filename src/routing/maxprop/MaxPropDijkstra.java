@@ -4,36 +4,49 @@
  */
 package routing.maxprop;
 
-import java.util.Collection;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Queue;
 import java.util.Set;
 
 /**
  * Dijkstra's shortest path implementation for MaxProp Router module.
+ * The node distances and the priority queue (an indexed binary heap with
+ * decrease-key) are kept in primitive arrays indexed by the node addresses
+ * and reused between searches. A search is run only as far as the
+ * requested costs require, and it is continued from where it stopped when
+ * costs to further nodes are requested. A search stays valid until the
+ * probability set of a node whose links it has already used changes (see
+ * {@link #probsChanged(int)}).
  */
 public class MaxPropDijkstra {
 	/** Value for infinite distance  */
-	private static final Double INFINITY = Double.MAX_VALUE;
-	/** Initial size of the priority queue */
-	private static final int PQ_INIT_SIZE = 11;
-
-	/** Map of node distances from the source node */
-	private DistanceMap distancesFromStart;
-	/** Set of already visited nodes (where the shortest path is known) */
-	private Set<Integer> visited;
-	/** Priority queue of unvisited nodes discovered so far */
-	private Queue<Integer> unvisited;
-	/** Map of previous nodes on the shortest path(s) -- only used for
-	 * debugging purposes */
-	private Map<Integer, Integer> prevNodes;
+	private static final double INFINITY = Double.MAX_VALUE;
+	/** Initial size of the node arrays */
+	private static final int INIT_SIZE = 16;
+	/** Heap index value of visited nodes */
+	private static final int VISITED = -1;
+
 	/** Mapping of to other nodes' (whom this node has met) probability sets */
 	private Map<Integer, MeetingProbabilitySet> probs;
 
+	/** Node distances from the source node (valid for reached nodes) */
+	private double[] distances;
+	/** Number of the search that last reached the node (by address) */
+	private int[] reachedIn;
+	/** Index of the node in the heap or {@link #VISITED} (valid for reached
+	 * nodes) */
+	private int[] heapIndex;
+	/** Heap of unvisited nodes discovered so far */
+	private int[] heap;
+	private int heapSize;
+	/** Number of the current search */
+	private int search;
+	/** Address of the current search's source node */
+	private int source;
+	/** Is the current search still valid */
+	private boolean valid;
+
 	/**
 	 * Constructor.
 	 * @param probs A reference to the mapping of the known hosts meeting
@@ -41,184 +54,245 @@ public class MaxPropDijkstra {
 	 */
 	public MaxPropDijkstra(Map<Integer, MeetingProbabilitySet> probs) {
 		this.probs = probs;
+		this.distances = new double[INIT_SIZE];
+		this.reachedIn = new int[INIT_SIZE];
+		this.heapIndex = new int[INIT_SIZE];
+		this.heap = new int[INIT_SIZE];
+		this.search = 0;
+		this.valid = false;
 	}
 
 	/**
 	 * Initializes a new search with the first hop router node
 	 * @param firstHop The first hop router node
 	 */
-	private void initWith(Integer firstHop) {
-		this.unvisited = new PriorityQueue<Integer>(PQ_INIT_SIZE,
-				new DistanceComparator());
-		this.visited = new HashSet<Integer>();
-		this.prevNodes = new HashMap<Integer, Integer>();
-		this.distancesFromStart = new DistanceMap();
+	private void initWith(int firstHop) {
+		if (this.search == Integer.MAX_VALUE) {
+			Arrays.fill(reachedIn, 0); // search numbers wrap
+			this.search = 0;
+		}
+		this.search++;
+		this.heapSize = 0;
+		this.source = firstHop;
+		this.valid = true;
 
 		// set distance to source 0 and initialize unvisited queue
-		this.distancesFromStart.put(firstHop, 0);
-		this.unvisited.add(firstHop);
+		ensureCapacity(firstHop);
+		reach(firstHop, 0);
 	}
 
 	/**
 	 * Calculates total costs to the given set of target nodes. The cost to
 	 * a node is the sum of complements of probabilities that all the links
-	 * come up as the next contact of the nodes.
+	 * come up as the next contact of the nodes. Always starts a new search.
 	 * @param from The index (address) of the start node
 	 * @param to The address set of destination nodes
 	 * @return A map of (destination node, cost) tuples
 	 */
 	public Map<Integer, Double> getCosts(Integer from, Set<Integer> to) {
 		Map<Integer, Double> distMap = new HashMap<Integer, Double>();
-		int nrofNodesToFind = to.size();
 
 		initWith(from);
-		Integer node = null;
-
-		// always take the node with shortest distance
-		while ((node = unvisited.poll()) != null) {
-			if (to.contains(node)) {
-				// found one of the requested nodes
-				distMap.put(node, distancesFromStart.get(node));
-				nrofNodesToFind--;
-				if (nrofNodesToFind == 0) {
-					break; // all requested nodes found
-				}
+		for (Integer node : to) {
+			double cost = getCost(node);
+			if (cost != INFINITY) {
+				distMap.put(node, cost);
 			}
-
-			visited.add(node); // mark the node as visited
-			relax(node);       // add/update neighbor nodes' distances
 		}
 
 		return distMap;
 	}
 
+	/**
+	 * Returns the total cost from a node to another (see
+	 * {@link #getCosts(Integer, Set)}). Continues the previous search if it
+	 * had the same start node and is still valid.
+	 * @param from The index (address) of the start node
+	 * @param to The index (address) of the destination node
+	 * @return The cost or Double.MAX_VALUE if there's no path to the
+	 * destination
+	 */
+	public double getCost(int from, int to) {
+		if (!valid || source != from) {
+			initWith(from);
+		}
+		return getCost(to);
+	}
+
+	/**
+	 * Tells that the probability set of a node has changed (or was
+	 * added). Invalidates the current search if it has used the links of the
+	 * node.
+	 * @param node The index (address) of the node
+	 */
+	public void probsChanged(int node) {
+		if (valid && isVisited(node)) {
+			valid = false;
+		}
+	}
+
+	/**
+	 * Continues the current search until the given node is visited or
+	 * there are no more reachable nodes
+	 * @param node The index (address) of the node
+	 * @return The node's distance from the source node or
+	 * {@link #INFINITY} if it is not reachable
+	 */
+	private double getCost(int node) {
+		if (node < 0) {
+			return INFINITY;
+		}
+		// always take the node with shortest distance
+		while (!isVisited(node) && heapSize > 0) {
+			int next = poll();
+			relax(next);       // add/update neighbor nodes' distances
+		}
+
+		if (isVisited(node)) {
+			return distances[node];
+		}
+		return INFINITY;
+	}
+
 	/**
 	 * Relaxes the neighbors of a node (updates the shortest distances).
 	 * @param node The node whose neighbors are relaxed
 	 */
-	private void relax(Integer node) {
-		double nodeDist = distancesFromStart.get(node);
-		Collection<Integer> neighbors;
+	private void relax(int node) {
+		double nodeDist = distances[node];
+		MeetingProbabilitySet mps = this.probs.get(node);
 
-		if (!this.probs.containsKey(node)) {
+		if (mps == null) {
 			return; // node's neighbors are not known
 		}
 
-		neighbors =	this.probs.get(node).getAllProbs().keySet();
-
-		for (Integer n : neighbors) {
-			if (visited.contains(n)) {
-				continue; // skip visited nodes
-			}
-
+		for (Map.Entry<Integer, Double> e : mps.getAllProbs().entrySet()) {
+			int n = e.getKey();
 			// n node's distance from path's source node
-			double nDist = nodeDist + getDistance(node, n);
+			double nDist = nodeDist + (1 - e.getValue());
 
-			if (distancesFromStart.get(n) > nDist) {
+			ensureCapacity(n);
+			if (!isReached(n)) {
+				reach(n, nDist);
+			}
+			else if (heapIndex[n] != VISITED && distances[n] > nDist) {
 				// stored distance > found dist -> update
-				prevNodes.put(n, node); // for debugging
-				setDistance(n, nDist);
+				distances[n] = nDist;
+				siftUp(heapIndex[n]);
 			}
 		}
 	}
 
 	/**
-	 * Sets the distance from source node to a node
-	 * @param n The node whose distance is set
-	 * @param distance The distance of the node from the source node
+	 * Returns true if the node has been reached in the current search
 	 */
-	private void setDistance(Integer n, double distance) {
-		unvisited.remove(n); // remove node from old place in the queue
-		distancesFromStart.put(n, distance); // update distance
-		unvisited.add(n); // insert node to the new place in the queue
+	private boolean isReached(int node) {
+		return node < reachedIn.length && reachedIn[node] == search;
 	}
 
 	/**
-	 * Returns the "distance" between two nodes, i.e., the complement of the
-	 * probability that the next node "from" meets is "to". Works only if there
-	 * exist a probability value for "from" meeting "to".
-	 * @param from The first node
-	 * @param to The second node
-	 * @return The distance between the two nodes
+	 * Returns true if the shortest path to the node is known in the current
+	 * search
 	 */
-	private double getDistance(Integer from, Integer to) {
-		assert probs.containsKey(from) : "Node " + from + " has not met " + to +
-			" (it has met nodes " + probs.keySet() + ")";
-		return ( 1 - probs.get(from).getProbFor(to) );
+	private boolean isVisited(int node) {
+		return isReached(node) && heapIndex[node] == VISITED;
 	}
 
 	/**
-	 * Comparator that compares two nodes by their distance from
-	 * the source node.
+	 * Marks a node reached with the given distance and adds it to the heap
 	 */
-	private class DistanceComparator implements
-		Comparator<Integer> {
-
-		/**
-		 * Compares two map nodes by their distance from the source node
-		 * @return -1, 0 or 1 if node1's distance is smaller, equal to, or
-		 * bigger than node2's distance
-		 */
-		public int compare(Integer node1, Integer node2) {
-			double dist1 = distancesFromStart.get(node1);
-			double dist2 = distancesFromStart.get(node2);
-
-			if (dist1 > dist2) {
-				return 1;
-			}
-			else if (dist1 < dist2) {
-				return -1;
-			}
-			else {
-				return node1.compareTo(node2);
-			}
+	private void reach(int node, double distance) {
+		reachedIn[node] = search;
+		distances[node] = distance;
+		if (heapSize == heap.length) {
+			int[] tmp = new int[heap.length * 2];
+			System.arraycopy(heap, 0, tmp, 0, heapSize);
+			heap = tmp;
 		}
+		heap[heapSize] = node;
+		heapIndex[node] = heapSize;
+		heapSize++;
+		siftUp(heapSize - 1);
 	}
 
 	/**
-	 * Simple Map implementation for storing distances.
+	 * Removes the node with the shortest distance from the heap and marks it
+	 * visited (the shortest path to it is known)
+	 * @return The node
 	 */
-	private class DistanceMap {
-		private HashMap<Integer, Double> map;
-
-		/**
-		 * Constructor. Creates an empty distance map
-		 */
-		public DistanceMap() {
-			this.map = new HashMap<Integer, Double>();
+	private int poll() {
+		int first = heap[0];
+		heapSize--;
+		if (heapSize > 0) {
+			heap[0] = heap[heapSize];
+			heapIndex[heap[0]] = 0;
+			siftDown(0);
+		}
+		heapIndex[first] = VISITED;
+		return first;
+	}
+
+	private void siftUp(int i) {
+		int node = heap[i];
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (!isBefore(node, heap[parent])) {
+				break;
+			}
+			heap[i] = heap[parent];
+			heapIndex[heap[i]] = i;
+			i = parent;
 		}
+		heap[i] = node;
+		heapIndex[node] = i;
+	}
 
-		/**
-		 * Returns the distance to a node. If no distance value
-		 * is found, returns {@link MaxPropDijkstra#INFINITY} as the value.
-		 * @param node The node whose distance is requested
-		 * @return The distance to that node
-		 */
-		public double get(Integer node) {
-			Double value = map.get(node);
-			if (value != null) {
-				return value;
+	private void siftDown(int i) {
+		int node = heap[i];
+		int half = heapSize / 2;
+		while (i < half) {
+			int child = 2 * i + 1;
+			if (child + 1 < heapSize && isBefore(heap[child + 1], heap[child])) {
+				child++;
 			}
-			else {
-				return INFINITY;
+			if (!isBefore(heap[child], node)) {
+				break;
 			}
+			heap[i] = heap[child];
+			heapIndex[heap[i]] = i;
+			i = child;
 		}
+		heap[i] = node;
+		heapIndex[node] = i;
+	}
 
-		/**
-		 * Puts a new distance value for a map node
-		 * @param node The node
-		 * @param distance Distance to that node
-		 */
-		public void  put(Integer node, double distance) {
-			map.put(node, distance);
-		}
+	/**
+	 * Compares two nodes by their distance from the source node. Ties are
+	 * broken by the node index.
+	 * @return true if node1 should be visited before node2
+	 */
+	private boolean isBefore(int node1, int node2) {
+		double dist1 = distances[node1];
+		double dist2 = distances[node2];
+		return dist1 < dist2 || (dist1 == dist2 && node1 < node2);
+	}
 
-		/**
-		 * Returns a string representation of the map's contents
-		 * @return a string representation of the map's contents
-		 */
-		public String toString() {
-			return map.toString();
+	/**
+	 * Makes sure the node arrays have room for the given node index
+	 */
+	private void ensureCapacity(int node) {
+		if (node < reachedIn.length) {
+			return;
 		}
+		int size = Math.max(node + 1, reachedIn.length * 2);
+		double[] newDistances = new double[size];
+		int[] newReachedIn = new int[size];
+		int[] newHeapIndex = new int[size];
+		System.arraycopy(distances, 0, newDistances, 0, distances.length);
+		System.arraycopy(reachedIn, 0, newReachedIn, 0, reachedIn.length);
+		System.arraycopy(heapIndex, 0, newHeapIndex, 0, heapIndex.length);
+		distances = newDistances;
+		reachedIn = newReachedIn;
+		heapIndex = newHeapIndex;
 	}
 }
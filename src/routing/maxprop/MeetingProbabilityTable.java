@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package routing.maxprop;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Meeting probability sets of hosts mapped using the host addresses. Every
+ * change of the mapping gets a new version number and the changes are
+ * logged, so the hosts whose sets have changed since a version can be
+ * listed without going through all the sets. The log is compacted when it
+ * grows clearly larger than the mapping.
+ */
+public class MeetingProbabilityTable {
+	/** Initial size of the change log */
+	private static final int INIT_LOG_SIZE = 16;
+
+	/** the probability sets mapped using host's network address */
+	private Map<Integer, MeetingProbabilitySet> sets;
+	/** version of the latest change */
+	private int version;
+	/** addresses of the changed hosts in the order of the changes */
+	private int[] changedHosts;
+	/** versions of the logged changes (in increasing order) */
+	private int[] changeVersions;
+	private int nrofChanges;
+
+	/**
+	 * Creates an empty table
+	 */
+	public MeetingProbabilityTable() {
+		this.sets = new HashMap<Integer, MeetingProbabilitySet>();
+		this.version = 0;
+		this.changedHosts = new int[INIT_LOG_SIZE];
+		this.changeVersions = new int[INIT_LOG_SIZE];
+		this.nrofChanges = 0;
+	}
+
+	/**
+	 * Returns the probability set of a host
+	 * @param address Address of the host
+	 * @return The set or null if the host has no set
+	 */
+	public MeetingProbabilitySet get(Integer address) {
+		return this.sets.get(address);
+	}
+
+	/**
+	 * Sets the probability set of a host
+	 * @param address Address of the host
+	 * @param set The new set
+	 */
+	public void put(Integer address, MeetingProbabilitySet set) {
+		this.sets.put(address, set);
+		this.version++;
+
+		if (nrofChanges == changedHosts.length) {
+			if (nrofChanges > 2 * sets.size()) {
+				compact();
+			}
+			else {
+				int[] tmpHosts = new int[nrofChanges * 2];
+				int[] tmpVersions = new int[nrofChanges * 2];
+				System.arraycopy(changedHosts, 0, tmpHosts, 0, nrofChanges);
+				System.arraycopy(changeVersions, 0, tmpVersions, 0,
+						nrofChanges);
+				changedHosts = tmpHosts;
+				changeVersions = tmpVersions;
+			}
+		}
+		changedHosts[nrofChanges] = address;
+		changeVersions[nrofChanges] = version;
+		nrofChanges++;
+	}
+
+	/**
+	 * Returns a reference to the mapping of the sets. The mapping must not
+	 * be modified directly.
+	 * @return The sets mapped using the host addresses
+	 */
+	public Map<Integer, MeetingProbabilitySet> getAll() {
+		return this.sets;
+	}
+
+	/**
+	 * Returns the current version of the table
+	 * @return The version of the latest change (0 if nothing is set)
+	 */
+	public int getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Returns the addresses of the hosts whose sets have been set after the
+	 * given version of the table
+	 * @param since The version
+	 * @return The addresses in the order of the changes
+	 */
+	public List<Integer> getChangedSince(int since) {
+		/* binary search for the first change after the version */
+		int low = 0;
+		int high = nrofChanges;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (changeVersions[mid] <= since) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+
+		List<Integer> changed = new ArrayList<Integer>(nrofChanges - low);
+		for (int i = low; i < nrofChanges; i++) {
+			changed.add(changedHosts[i]);
+		}
+		return changed;
+	}
+
+	/**
+	 * Removes the log entries that have a later entry for the same host
+	 */
+	private void compact() {
+		Set<Integer> seen = new HashSet<Integer>();
+		int next = nrofChanges;
+		for (int i = nrofChanges - 1; i >= 0; i--) {
+			if (seen.add(changedHosts[i])) {
+				next--;
+				changedHosts[next] = changedHosts[i];
+				changeVersions[next] = changeVersions[i];
+			}
+		}
+		nrofChanges -= next;
+		System.arraycopy(changedHosts, next, changedHosts, 0, nrofChanges);
+		System.arraycopy(changeVersions, next, changeVersions, 0, nrofChanges);
+	}
+}
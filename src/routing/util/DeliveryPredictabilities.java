@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package routing.util;
+
+import core.DTNHost;
+
+/**
+ * Delivery predictabilities of a router (e.g., PRoPHET) for other hosts.
+ * The values are kept in a primitive array indexed by the host addresses.
+ * Aging all the values (multiplying them by the same factor) only updates
+ * a common scale factor, so it takes constant time; the actual values
+ * are computed when they are read.
+ */
+public class DeliveryPredictabilities {
+	/** scale factor under which the stored values are rescaled (to keep
+	 * them within the range of doubles) */
+	private static final double MIN_SCALE = 1e-100;
+	/** initial size of the arrays */
+	private static final int DEF_SIZE = 16;
+
+	/** the values divided by the scale, by host address */
+	private double[] values;
+	/** the known hosts by address (null for hosts without a value) */
+	private DTNHost[] hosts;
+	/** addresses of the known hosts in the order they were added */
+	private int[] known;
+	private int nrofKnown;
+	/** common scale factor of the values */
+	private double scale;
+
+	/**
+	 * Creates a new set without any values
+	 */
+	public DeliveryPredictabilities() {
+		this.values = new double[DEF_SIZE];
+		this.hosts = new DTNHost[DEF_SIZE];
+		this.known = new int[DEF_SIZE];
+		this.nrofKnown = 0;
+		this.scale = 1.0;
+	}
+
+	/**
+	 * Returns the predictability for a host
+	 * @param host The host
+	 * @return The predictability or 0 if the host has no value
+	 */
+	public double get(DTNHost host) {
+		int address = host.getAddress();
+		if (address >= hosts.length || hosts[address] == null) {
+			return 0;
+		}
+		return values[address] * scale;
+	}
+
+	/**
+	 * Sets the predictability for a host
+	 * @param host The host
+	 * @param value The new value
+	 */
+	public void set(DTNHost host, double value) {
+		int address = host.getAddress();
+		if (address >= hosts.length) {
+			grow(address + 1);
+		}
+		if (hosts[address] == null) {
+			if (nrofKnown == known.length) {
+				int[] tmp = new int[known.length * 2];
+				System.arraycopy(known, 0, tmp, 0, nrofKnown);
+				known = tmp;
+			}
+			known[nrofKnown++] = address;
+			hosts[address] = host;
+		}
+		values[address] = value / scale;
+	}
+
+	/**
+	 * Multiplies all values by the given factor
+	 * @param mult The factor
+	 */
+	public void age(double mult) {
+		scale *= mult;
+		if (scale < MIN_SCALE) {
+			for (int i=0; i < nrofKnown; i++) {
+				values[known[i]] *= scale;
+			}
+			scale = 1.0;
+		}
+	}
+
+	/**
+	 * Returns the number of hosts with a value
+	 * @return The number of hosts with a value
+	 */
+	public int size() {
+		return nrofKnown;
+	}
+
+	/**
+	 * Returns a host with a value. The hosts are numbered in the order they
+	 * got their first value.
+	 * @param index Index of the host (0 - size-1)
+	 * @return The host
+	 */
+	public DTNHost getHost(int index) {
+		return hosts[known[index]];
+	}
+
+	/**
+	 * Returns the value of a host by the host's index
+	 * @param index Index of the host (see {@link #getHost(int)})
+	 * @return The value
+	 */
+	public double getValue(int index) {
+		return values[known[index]] * scale;
+	}
+
+	private void grow(int minSize) {
+		int size = Math.max(minSize, hosts.length * 2);
+		double[] newValues = new double[size];
+		DTNHost[] newHosts = new DTNHost[size];
+		System.arraycopy(values, 0, newValues, 0, values.length);
+		System.arraycopy(hosts, 0, newHosts, 0, hosts.length);
+		values = newValues;
+		hosts = newHosts;
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package routing.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import util.IntHashMap;
+import util.Tuple;
+import core.Connection;
+import core.DTNHost;
+import core.Message;
+
+/**
+ * Index of the buffered messages of a router by their destination hosts.
+ * The index knows how many buffered messages each host is the destination
+ * of, so finding the messages that can be delivered to the connected hosts
+ * costs relative to the number of connections when there are no such
+ * messages. Otherwise the buffer is searched only until all the
+ * deliverable messages are found. The messages are returned in the
+ * iteration order of the router's message collection.
+ */
+public class DestinationIndex {
+	/** numbers of the buffered messages by their destination addresses */
+	private IntHashMap<Integer> counts;
+	/** the buffered messages by their integer IDs */
+	private IntHashMap<Message> messages;
+
+	/**
+	 * Creates a new, empty index
+	 */
+	public DestinationIndex() {
+		this.counts = new IntHashMap<Integer>();
+		this.messages = new IntHashMap<Message>();
+	}
+
+	/**
+	 * Adds a message that was added to the buffer. If the buffer already
+	 * had a message with the same ID, the message replaces it (also if the
+	 * new message has a different destination).
+	 * @param m The message
+	 */
+	public void add(Message m) {
+		Message old = messages.put(m.getIntId(), m);
+		if (old != null) {
+			changeCount(old.getTo().getAddress(), -1);
+		}
+		changeCount(m.getTo().getAddress(), 1);
+	}
+
+	/**
+	 * Removes a message that was removed from the buffer
+	 * @param m The message
+	 */
+	public void remove(Message m) {
+		Message old = messages.remove(m.getIntId());
+		if (old != null) {
+			changeCount(old.getTo().getAddress(), -1);
+		}
+	}
+
+	/**
+	 * Returns the number of buffered messages whose destination is the
+	 * given host
+	 * @param to The destination host
+	 * @return The number of messages
+	 */
+	public int getNrofMessagesTo(DTNHost to) {
+		Integer count = counts.get(to.getAddress());
+		return count == null ? 0 : count;
+	}
+
+	/**
+	 * Returns the buffered messages whose destination is the given host
+	 * @param to The destination host
+	 * @param buffer The router's message collection
+	 * @return A new list of the messages (in the order of the collection)
+	 */
+	public List<Message> getMessagesTo(DTNHost to,
+			Collection<Message> buffer) {
+		int left = getNrofMessagesTo(to);
+		List<Message> list = new ArrayList<Message>(left);
+		if (left == 0) {
+			return list;
+		}
+
+		for (Message m : buffer) {
+			if (m.getTo() == to) {
+				list.add(m);
+				if (--left == 0) {
+					break; // found all
+				}
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the buffered messages whose destination is the other host of
+	 * any of the connections, paired with the connections to their
+	 * destinations. If the destination is connected trough more than one
+	 * connection, the message is returned once per connection (in the
+	 * order of the connections).
+	 * @param host The host whose buffer this index is of
+	 * @param connections The connections of the host
+	 * @param buffer The router's message collection
+	 * @return A new list of the message-connection tuples (in the order of
+	 * the collection)
+	 */
+	public List<Tuple<Message, Connection>> getMessagesFor(DTNHost host,
+			List<Connection> connections, Collection<Message> buffer) {
+		List<Connection> matching = new ArrayList<Connection>();
+		IntHashMap<Boolean> counted = new IntHashMap<Boolean>();
+		int left = 0;
+
+		for (Connection con : connections) {
+			DTNHost to = con.getOtherNode(host);
+			int nrof = getNrofMessagesTo(to);
+			if (nrof == 0) {
+				continue;
+			}
+			matching.add(con);
+			if (counted.put(to.getAddress(), Boolean.TRUE) == null) {
+				left += nrof;
+			}
+		}
+
+		List<Tuple<Message, Connection>> tuples =
+			new ArrayList<Tuple<Message, Connection>>(left);
+		if (left == 0) {
+			return tuples;
+		}
+
+		for (Message m : buffer) {
+			boolean found = false;
+			for (int i=0, n=matching.size(); i < n; i++) {
+				Connection con = matching.get(i);
+				if (m.getTo() == con.getOtherNode(host)) {
+					tuples.add(new Tuple<Message, Connection>(m, con));
+					found = true;
+				}
+			}
+			if (found && --left == 0) {
+				break; // found all
+			}
+		}
+
+		return tuples;
+	}
+
+	/**
+	 * Changes the number of messages of a destination
+	 */
+	private void changeCount(int to, int change) {
+		Integer count = counts.get(to);
+		int newCount = (count == null ? 0 : count) + change;
+		if (newCount == 0) {
+			counts.remove(to);
+		}
+		else {
+			counts.put(to, newCount);
+		}
+	}
+}
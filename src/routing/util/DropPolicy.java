@@ -0,0 +1,378 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package routing.util;
+
+import java.util.Collection;
+import java.util.List;
+
+import util.IntHashMap;
+import core.Message;
+import core.Settings;
+
+/**
+ * <P>Buffer drop policy for routing modules. Decides which message is
+ * dropped first when an {@link routing.ActiveRouter} needs to make room for
+ * a new message. The policy keeps the messages of the buffer in a binary
+ * heap ordered by the drop priority of the messages (see
+ * {@link #getDropPriority(Message)}), so the next message to drop is found
+ * in logarithmic time. Messages with equal drop priority are dropped in
+ * the order of their receive times and then in the iteration order of the
+ * router's message collection (or in the order they were added to the
+ * buffer if the collection is not given).</P>
+ *
+ * <P>The policy is selected per host group with the
+ * {@link #DROP_POLICY_S} setting. Every router has its own replicate of
+ * the policy.</P>
+ */
+public abstract class DropPolicy {
+	/** Drop policy -setting id ({@value}). Name of the drop policy class
+	 * in the {@value #DROP_POLICY_PACKAGE} package. Default =
+	 * {@link OldestFirstDropPolicy} */
+	public static final String DROP_POLICY_S = "dropPolicy";
+	/** Package of the drop policy classes ({@value}) */
+	public static final String DROP_POLICY_PACKAGE = "routing.util.";
+
+	/** the messages by their integer IDs */
+	private IntHashMap<Entry> entries;
+	/** heap of the messages; the message to drop first is at index 0 */
+	private Entry[] heap;
+	private int size;
+	/** sequence number for the next message added */
+	private long nextSeq;
+
+	/**
+	 * Constructor.
+	 * @param s The settings of the router
+	 */
+	public DropPolicy(Settings s) {
+		init();
+	}
+
+	/**
+	 * Copy constructor.
+	 * @param proto The policy prototype
+	 */
+	protected DropPolicy(DropPolicy proto) {
+		init();
+	}
+
+	private void init() {
+		this.entries = new IntHashMap<Entry>();
+		this.heap = new Entry[8];
+		this.size = 0;
+		this.nextSeq = 0;
+	}
+
+	/**
+	 * Returns a replicate of this policy for a new router
+	 * @return A replicate of this policy
+	 */
+	public abstract DropPolicy replicate();
+
+	/**
+	 * Returns the drop priority of a message. Messages with lower priority
+	 * are dropped first. The priority of a buffered message must not change
+	 * unless {@link #update(Message)} is called after the change.
+	 * @param m The message
+	 * @return The drop priority
+	 */
+	protected abstract double getDropPriority(Message m);
+
+	/**
+	 * Creates a drop policy prototype based on the settings
+	 * @param s The settings of the router
+	 * @return The drop policy
+	 */
+	public static DropPolicy createPolicy(Settings s) {
+		if (!s.contains(DROP_POLICY_S)) {
+			return new OldestFirstDropPolicy(s);
+		}
+		return (DropPolicy)s.createIntializedObject(DROP_POLICY_PACKAGE +
+				s.getSetting(DROP_POLICY_S));
+	}
+
+	/**
+	 * Adds a message that was added to the buffer. If the buffer already
+	 * had a message with the same ID, the message replaces it.
+	 * @param m The message
+	 */
+	public void add(Message m) {
+		Entry e = entries.get(m.getIntId());
+		if (e != null) {
+			e.message = m;
+			update(m);
+			return;
+		}
+
+		e = new Entry(m, nextSeq++);
+		setPriority(e);
+		entries.put(m.getIntId(), e);
+
+		if (size == heap.length) {
+			Entry[] newHeap = new Entry[heap.length * 2];
+			System.arraycopy(heap, 0, newHeap, 0, size);
+			heap = newHeap;
+		}
+		heap[size] = e;
+		e.pos = size;
+		size++;
+		siftUp(e.pos);
+	}
+
+	/**
+	 * Removes a message that was removed from the buffer
+	 * @param m The message
+	 */
+	public void remove(Message m) {
+		Entry e = entries.remove(m.getIntId());
+		if (e == null) {
+			return;
+		}
+
+		size--;
+		if (e.pos < size) {
+			Entry last = heap[size];
+			heap[e.pos] = last;
+			last.pos = e.pos;
+			siftDown(siftUp(e.pos));
+		}
+		heap[size] = null;
+	}
+
+	/**
+	 * Updates the position of a message whose drop priority has changed.
+	 * Does nothing if the message is not in the buffer.
+	 * @param m The message
+	 */
+	public void update(Message m) {
+		Entry e = entries.get(m.getIntId());
+		if (e == null) {
+			return;
+		}
+		setPriority(e);
+		siftDown(siftUp(e.pos));
+	}
+
+	/**
+	 * Returns the message that should be dropped next. Messages with equal
+	 * priority and receive time are dropped in the order they were added.
+	 * @param excluded Messages that must not be dropped (e.g., messages
+	 * that are being sent). Messages with the same ID as any of these
+	 * messages are excluded.
+	 * @return The message to drop or null if all messages are excluded (or
+	 * there are no messages)
+	 */
+	public Message getNext(List<Message> excluded) {
+		Entry next = getNextEntry(excluded);
+		return next == null ? null : next.message;
+	}
+
+	/**
+	 * Returns the message that should be dropped next. Of the messages with
+	 * equal priority and receive time, the one that comes first in the
+	 * given collection is dropped.
+	 * @param excluded Messages that must not be dropped (see
+	 * {@link #getNext(List)})
+	 * @param buffer The router's message collection
+	 * @return The message to drop or null if all messages are excluded (or
+	 * there are no messages)
+	 */
+	public Message getNext(List<Message> excluded,
+			Collection<Message> buffer) {
+		Entry next = getNextEntry(excluded);
+		if (next == null) {
+			return null;
+		}
+
+		/* the entries with an equal key have only equal or excluded
+		 * entries above them in the heap */
+		IntHashMap<Entry> ties = new IntHashMap<Entry>();
+		int[] stack = new int[excluded.size() + 8];
+		int stackSize = 1;
+		stack[0] = 0;
+		while (stackSize > 0) {
+			int pos = stack[--stackSize];
+			if (compareKeys(heap[pos], next) > 0) {
+				continue;
+			}
+			if (!isExcluded(heap[pos].message, excluded)) {
+				ties.put(heap[pos].message.getIntId(), heap[pos]);
+			}
+			for (int child = 2 * pos + 1; child <= 2 * pos + 2; child++) {
+				if (child < size) {
+					if (stackSize == stack.length) {
+						int[] tmp = new int[stack.length * 2];
+						System.arraycopy(stack, 0, tmp, 0, stackSize);
+						stack = tmp;
+					}
+					stack[stackSize++] = child;
+				}
+			}
+		}
+		if (ties.size() == 1) {
+			return next.message;
+		}
+
+		for (Message m : buffer) {
+			if (ties.containsKey(m.getIntId())) {
+				return m;
+			}
+		}
+		return next.message;
+	}
+
+	/**
+	 * Returns the entry that should be dropped next (see
+	 * {@link #getNext(List)})
+	 */
+	private Entry getNextEntry(List<Message> excluded) {
+		if (size == 0) {
+			return null;
+		}
+		if (excluded.isEmpty()) {
+			return heap[0];
+		}
+
+		/* best first search from the top of the heap; only the children
+		 * of excluded messages can be the next candidates */
+		int[] candidates = new int[excluded.size() + 2];
+		int nrofCandidates = 1;
+		candidates[0] = 0;
+		while (nrofCandidates > 0) {
+			int best = 0;
+			for (int i=1; i < nrofCandidates; i++) {
+				if (less(heap[candidates[i]], heap[candidates[best]])) {
+					best = i;
+				}
+			}
+			int pos = candidates[best];
+			if (!isExcluded(heap[pos].message, excluded)) {
+				return heap[pos];
+			}
+
+			candidates[best] = candidates[--nrofCandidates];
+			for (int child = 2 * pos + 1; child <= 2 * pos + 2; child++) {
+				if (child < size) {
+					if (nrofCandidates == candidates.length) {
+						int[] tmp = new int[candidates.length * 2];
+						System.arraycopy(candidates, 0, tmp, 0, nrofCandidates);
+						candidates = tmp;
+					}
+					candidates[nrofCandidates++] = child;
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the number of messages in the policy's buffer
+	 * @return The number of messages
+	 */
+	public int size() {
+		return size;
+	}
+
+	private boolean isExcluded(Message m, List<Message> excluded) {
+		for (int i=0, n=excluded.size(); i < n; i++) {
+			if (excluded.get(i).getIntId() == m.getIntId()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void setPriority(Entry e) {
+		e.priority = getDropPriority(e.message);
+		e.receiveTime = e.message.getReceiveTime();
+	}
+
+	/**
+	 * Moves the entry at the given heap index up until the heap order is
+	 * restored
+	 * @return The new index of the entry
+	 */
+	private int siftUp(int pos) {
+		Entry e = heap[pos];
+		while (pos > 0) {
+			int parent = (pos - 1) / 2;
+			if (!less(e, heap[parent])) {
+				break;
+			}
+			heap[pos] = heap[parent];
+			heap[pos].pos = pos;
+			pos = parent;
+		}
+		heap[pos] = e;
+		e.pos = pos;
+		return pos;
+	}
+
+	/**
+	 * Moves the entry at the given heap index down until the heap order is
+	 * restored
+	 */
+	private void siftDown(int pos) {
+		Entry e = heap[pos];
+		while (true) {
+			int child = 2 * pos + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && less(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if (!less(heap[child], e)) {
+				break;
+			}
+			heap[pos] = heap[child];
+			heap[pos].pos = pos;
+			pos = child;
+		}
+		heap[pos] = e;
+		e.pos = pos;
+	}
+
+	/**
+	 * Returns true if the message of the first entry should be dropped
+	 * before the message of the second entry
+	 */
+	private static boolean less(Entry e1, Entry e2) {
+		int c = compareKeys(e1, e2);
+		return c < 0 || (c == 0 && e1.seq < e2.seq);
+	}
+
+	/**
+	 * Compares the drop priorities and then the receive times of two
+	 * entries
+	 */
+	private static int compareKeys(Entry e1, Entry e2) {
+		if (e1.priority != e2.priority) {
+			return e1.priority < e2.priority ? -1 : 1;
+		}
+		if (e1.receiveTime != e2.receiveTime) {
+			return e1.receiveTime < e2.receiveTime ? -1 : 1;
+		}
+		return 0;
+	}
+
+	/**
+	 * A buffered message with its cached drop priority
+	 */
+	private static class Entry {
+		private Message message;
+		private double priority;
+		private double receiveTime;
+		private final long seq;
+		/** index in the heap */
+		private int pos;
+
+		public Entry(Message message, long seq) {
+			this.message = message;
+			this.seq = seq;
+		}
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package routing.util;
+
+import routing.SprayAndWaitRouter;
+import core.Message;
+import core.Settings;
+
+/**
+ * Drop policy for {@link SprayAndWaitRouter} that drops the message with
+ * the fewest copies left to distribute first. Messages that have no copy
+ * count are dropped last.
+ */
+public class FewestCopiesDropPolicy extends DropPolicy {
+
+	public FewestCopiesDropPolicy(Settings s) {
+		super(s);
+	}
+
+	protected FewestCopiesDropPolicy(FewestCopiesDropPolicy proto) {
+		super(proto);
+	}
+
+	@Override
+	protected double getDropPriority(Message m) {
+		Integer nrofCopies = (Integer)m.getProperty(
+				SprayAndWaitRouter.MSG_COUNT_PROPERTY);
+		if (nrofCopies == null) {
+			return Double.MAX_VALUE;
+		}
+		return nrofCopies;
+	}
+
+	@Override
+	public FewestCopiesDropPolicy replicate() {
+		return new FewestCopiesDropPolicy(this);
+	}
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package routing.util;
+
+import core.Message;
+import core.Settings;
+
+/**
+ * Drop policy that drops the largest message first.
+ */
+public class LargestFirstDropPolicy extends DropPolicy {
+
+	public LargestFirstDropPolicy(Settings s) {
+		super(s);
+	}
+
+	protected LargestFirstDropPolicy(LargestFirstDropPolicy proto) {
+		super(proto);
+	}
+
+	@Override
+	protected double getDropPriority(Message m) {
+		return -m.getSize();
+	}
+
+	@Override
+	public LargestFirstDropPolicy replicate() {
+		return new LargestFirstDropPolicy(this);
+	}
+}
@@ -250,6 +250,14 @@ public class MessageTransferAcceptPolicy {
 		return false;
 	}
 
+	/**
+	 * Returns true if this policy has hop count conditions
+	 * @return true if this policy has hop count conditions
+	 */
+	public boolean usesHopCount() {
+		return hopCountSendPolicy != null || hopCountReceivePolicy != null;
+	}
+
 	/**
 	 * Checks the given messages hop count against the given policy arithmetic
 	 * condition
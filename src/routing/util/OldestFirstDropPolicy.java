@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package routing.util;
+
+import core.Message;
+import core.Settings;
+
+/**
+ * Drop policy that drops the message that was received first (the
+ * default policy).
+ */
+public class OldestFirstDropPolicy extends DropPolicy {
+
+	public OldestFirstDropPolicy(Settings s) {
+		super(s);
+	}
+
+	protected OldestFirstDropPolicy(OldestFirstDropPolicy proto) {
+		super(proto);
+	}
+
+	@Override
+	protected double getDropPriority(Message m) {
+		return m.getReceiveTime();
+	}
+
+	@Override
+	public OldestFirstDropPolicy replicate() {
+		return new OldestFirstDropPolicy(this);
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package routing.util;
+
+import core.Message;
+import core.Settings;
+
+/**
+ * Drop policy that drops the message with the shortest remaining TTL
+ * first. Messages with infinite TTL are dropped last.
+ */
+public class ShortestTtlDropPolicy extends DropPolicy {
+
+	public ShortestTtlDropPolicy(Settings s) {
+		super(s);
+	}
+
+	protected ShortestTtlDropPolicy(ShortestTtlDropPolicy proto) {
+		super(proto);
+	}
+
+	/**
+	 * Returns the time when the TTL of the message expires
+	 */
+	@Override
+	protected double getDropPriority(Message m) {
+		if (m.getInitTtl() == Message.INFINITE_TTL) {
+			return Double.MAX_VALUE;
+		}
+		return m.getCreationTime() + m.getInitTtl() * 60.0;
+	}
+
+	@Override
+	public ShortestTtlDropPolicy replicate() {
+		return new ShortestTtlDropPolicy(this);
+	}
+}
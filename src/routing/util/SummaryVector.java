@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package routing.util;
+
+import util.IntHashMap;
+import core.Message;
+
+/**
+ * Summary vector of a contact, i.e., the set of messages that the host on
+ * the other end of a connection is known to have (or to have had) during
+ * the contact. Like in the original epidemic routing protocol, the messages
+ * in the summary are not offered again during the same contact.
+ * The messages are identified by their integer IDs.
+ */
+public class SummaryVector {
+	/** the messages of the summary by their integer IDs */
+	private IntHashMap<Boolean> messages;
+
+	/**
+	 * Creates an empty summary vector
+	 */
+	public SummaryVector() {
+		this.messages = new IntHashMap<Boolean>();
+	}
+
+	/**
+	 * Adds a message to the summary
+	 * @param m The message
+	 */
+	public void add(Message m) {
+		this.messages.put(m.getIntId(), Boolean.TRUE);
+	}
+
+	/**
+	 * Returns true if the message is in the summary
+	 * @param m The message
+	 * @return True if the other host is known to have the message
+	 */
+	public boolean contains(Message m) {
+		return this.messages.containsKey(m.getIntId());
+	}
+
+	/**
+	 * Returns the number of messages in the summary
+	 * @return The number of messages in the summary
+	 */
+	public int size() {
+		return this.messages.size();
+	}
+}
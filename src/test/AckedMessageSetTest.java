@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package test;
+
+import junit.framework.TestCase;
+import routing.maxprop.AckedMessageSet;
+import core.SimClock;
+
+/**
+ * Tests for the ACK set of MaxProp
+ */
+public class AckedMessageSetTest extends TestCase {
+	private SimClock clock;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		SimClock.reset();
+		clock = SimClock.getInstance();
+	}
+
+	public void testAddAndContains() {
+		AckedMessageSet acks = new AckedMessageSet();
+		for (int i=0; i<1000; i += 2) {
+			assertTrue(acks.add(i, 0));
+		}
+		assertFalse(acks.add(10, 5));
+		assertEquals(500, acks.size());
+		assertEquals(500, acks.getVersion());
+		for (int i=0; i<1000; i++) {
+			assertEquals(i % 2 == 0, acks.contains(i));
+		}
+	}
+
+	public void testAddAllSince() {
+		AckedMessageSet acks1 = new AckedMessageSet();
+		AckedMessageSet acks2 = new AckedMessageSet();
+		acks1.add(1, 0);
+		acks1.add(2, 0);
+		int seen = acks2.addAllSince(acks1, 0);
+		assertEquals(2, seen);
+		assertTrue(acks2.contains(1));
+		assertTrue(acks2.contains(2));
+
+		acks1.add(3, 0);
+		acks2.add(4, 0);
+		assertEquals(3, acks2.addAllSince(acks1, seen));
+		assertEquals(4, acks2.size());
+		assertTrue(acks2.contains(3));
+		assertTrue(acks2.contains(4));
+		assertFalse(acks1.contains(4));
+	}
+
+	public void testExpiry() {
+		AckedMessageSet acks = new AckedMessageSet(100);
+		acks.add(1, 0);
+		clock.setTime(50);
+		acks.add(2, 50);
+		assertTrue(acks.contains(1));
+
+		clock.setTime(120);
+		assertFalse(acks.contains(1));
+		assertTrue(acks.contains(2));
+		assertFalse(acks.add(3, 10)); // already expired
+
+		/* expired ACKs are removed when new ones are added */
+		acks.add(4, 120);
+		assertEquals(2, acks.size());
+		assertTrue(acks.contains(2));
+		assertTrue(acks.contains(4));
+
+		/* the same message can be ACKed again after the ACK has expired */
+		clock.setTime(200);
+		assertTrue(acks.add(2, 200));
+		assertTrue(acks.contains(2));
+		assertEquals(2, acks.size());
+
+		/* expired ACKs are not copied to other sets */
+		AckedMessageSet other = new AckedMessageSet(100);
+		clock.setTime(230);
+		other.addAllSince(acks, 0);
+		assertFalse(other.contains(4));
+		assertTrue(other.contains(2));
+	}
+}
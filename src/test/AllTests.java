@@ -24,6 +24,7 @@ public class AllTests {
 
 		//$JUnit-BEGIN$
 		suite.addTestSuite(WorldTest.class);
+		suite.addTestSuite(ParallelHostUpdaterTest.class);
 		suite.addTestSuite(ConnectionTest.class);
 		suite.addTestSuite(ExternalMovementReaderTest.class);
 		suite.addTestSuite(ExternalMovementTest.class);
@@ -45,11 +46,22 @@ public class AllTests {
 		suite.addTestSuite(PointsOfInterestTest.class);
 		suite.addTestSuite(ActivenessHandlerTest.class);
 		suite.addTestSuite(MaxPropDijkstraTest.class);
+		suite.addTestSuite(MeetingProbabilityTableTest.class);
+		suite.addTestSuite(AckedMessageSetTest.class);
 		suite.addTestSuite(MaxPropRouterTest.class);
 		suite.addTestSuite(ScheduledUpdatesQueueTest.class);
+		suite.addTestSuite(MergedEventQueueTest.class);
+		suite.addTestSuite(IntHashMapTest.class);
+		suite.addTestSuite(CoordHashMapTest.class);
+		suite.addTestSuite(DropPolicyTest.class);
+		suite.addTestSuite(DestinationIndexTest.class);
+		suite.addTestSuite(DeliveryPredictabilitiesTest.class);
 		suite.addTestSuite(MessageTest.class);
 		suite.addTestSuite(ModuleCommunicationBusTest.class);
 		suite.addTestSuite(DTNHostTest.class);
+		suite.addTestSuite(IndexedConnectivityGridTest.class);
+		suite.addTestSuite(ContactDetectorTest.class);
+		suite.addTestSuite(HostMovementStoreTest.class);
 		//$JUnit-END$
 		return suite;
 	}
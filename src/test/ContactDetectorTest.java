@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+import movement.MovementModel;
+import movement.RandomWaypoint;
+import core.Connection;
+import core.ConnectionListener;
+import core.ContactDetector;
+import core.Coord;
+import core.DTNHost;
+import core.KinematicContactDetector;
+import core.NetworkInterface;
+import core.SimClock;
+
+/**
+ * Tests for the world-level ContactDetector and KinematicContactDetector
+ */
+public class ContactDetectorTest extends TestCase {
+	private static final int NROF_MOVING_HOSTS = 30;
+	private static final int NROF_ROUNDS = 3000;
+	private static final double STEP = 0.5;
+
+	private TestSettings ts;
+	private TestUtils utils;
+	private ConnListener cl;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		ts = new TestSettings();
+		ts.setNameSpace(TestUtils.IFACE_NS);
+		ts.putSetting(NetworkInterface.TRANSMIT_RANGE_S, "10");
+		ts.putSetting(NetworkInterface.TRANSMIT_SPEED_S, "1");
+
+		cl = new ConnListener();
+		List<ConnectionListener> cls = new ArrayList<ConnectionListener>();
+		cls.add(cl);
+		utils = new TestUtils(cls, null, ts);
+	}
+
+	private ContactDetector createDetector(boolean kinematic) {
+		if (kinematic) {
+			return new KinematicContactDetector(utils.getAllHosts());
+		}
+		return new ContactDetector(utils.getAllHosts());
+	}
+
+	public void testContacts() {
+		checkContacts(false);
+	}
+
+	public void testKinematicContacts() {
+		checkContacts(true);
+	}
+
+	public void testUnsortedStart() {
+		checkUnsortedStart(false);
+	}
+
+	public void testKinematicUnsortedStart() {
+		checkUnsortedStart(true);
+	}
+
+	private void checkContacts(boolean kinematic) {
+		DTNHost h1 = utils.createHost(new Coord(0, 0));
+		DTNHost h2 = utils.createHost(new Coord(5, 0));
+		DTNHost h3 = utils.createHost(new Coord(5, 9));
+		DTNHost h4 = utils.createHost(new Coord(100, 0));
+		ContactDetector cd = createDetector(kinematic);
+
+		cd.update();
+		assertEquals(2, cl.ups); // h1-h2 and h2-h3 (h1-h3 distance is ~10.3)
+		assertEquals(1, h1.getConnections().size());
+		assertEquals(2, h2.getConnections().size());
+		assertEquals(1, h3.getConnections().size());
+		assertEquals(0, h4.getConnections().size());
+
+		/* nothing moved -> no changes */
+		cd.update();
+		assertEquals(2, cl.ups);
+		assertEquals(0, cl.downs);
+
+		h2.setLocation(new Coord(95, 0));
+		cd.update();
+		assertEquals(2, cl.downs);
+		assertEquals(3, cl.ups);
+		assertEquals(0, h1.getConnections().size());
+		assertEquals(1, h2.getConnections().size());
+		assertEquals(0, h3.getConnections().size());
+		assertEquals(h4, h2.getConnections().get(0).getOtherNode(h2));
+	}
+
+	private void checkUnsortedStart(boolean kinematic) {
+		DTNHost h1 = utils.createHost(new Coord(50, 0));
+		DTNHost h2 = utils.createHost(new Coord(32, 0));
+		DTNHost h3 = utils.createHost(new Coord(41, 0));
+		ContactDetector cd = createDetector(kinematic);
+
+		cd.update();
+		assertEquals(2, cl.ups);
+		assertEquals(2, h3.getConnections().size());
+
+		h1.setLocation(new Coord(25, 0));
+		cd.update();
+		assertEquals(1, cl.downs);
+		assertEquals(3, cl.ups);
+		assertEquals(1, h1.getConnections().size());
+		assertEquals(h2, h1.getConnections().get(0).getOtherNode(h1));
+	}
+
+	public void testMovingHosts() {
+		List<String> expected = runMovingHosts(false);
+		int ups = cl.ups;
+		assertTrue(ups > 100); // enough contacts to compare
+
+		List<String> predicted = runMovingHosts(true);
+		for (int i=0; i<NROF_ROUNDS; i++) {
+			assertEquals("Round " + i, expected.get(i), predicted.get(i));
+		}
+		assertEquals(2 * ups, cl.ups);
+	}
+
+	/**
+	 * Moves random waypoint hosts (that pause at the waypoints) and
+	 * updates the contacts with a detector every round
+	 * @param kinematic If true, a kinematic detector is used
+	 * @return The connections after each round
+	 */
+	private List<String> runMovingHosts(boolean kinematic) {
+		ts.setNameSpace(null);
+		ts.putSetting(MovementModel.MOVEMENT_MODEL_NS + "." +
+				MovementModel.WORLD_SIZE, "200,200");
+		ts.putSetting(MovementModel.SPEED, "0.5,5");
+		ts.putSetting(MovementModel.WAIT_TIME, "0,20");
+		SimClock.reset();
+		DTNHost.reset();
+		MovementModel.reset();
+		MovementModel mmProto = new RandomWaypoint(ts);
+		ts.setNameSpace(TestUtils.IFACE_NS);
+
+		List<ConnectionListener> cls = new ArrayList<ConnectionListener>();
+		cls.add(cl);
+		utils = new TestUtils(cls, null, ts);
+		for (int i=0; i<NROF_MOVING_HOSTS; i++) {
+			utils.createHost(mmProto, null);
+		}
+		List<DTNHost> hosts = utils.getAllHosts();
+		ContactDetector cd = createDetector(kinematic);
+		SimClock clock = SimClock.getInstance();
+		List<String> rounds = new ArrayList<String>();
+
+		for (int i=0; i<NROF_ROUNDS; i++) {
+			clock.advance(STEP);
+			for (DTNHost h : hosts) {
+				h.move(STEP);
+			}
+			cd.update();
+			rounds.add(getConnections(hosts));
+		}
+		return rounds;
+	}
+
+	/**
+	 * Returns the connected host pairs in a sorted order
+	 */
+	private String getConnections(List<DTNHost> hosts) {
+		List<String> pairs = new ArrayList<String>();
+		for (DTNHost h : hosts) {
+			for (Connection c : h.getConnections()) {
+				DTNHost other = c.getOtherNode(h);
+				if (h.getAddress() < other.getAddress()) {
+					pairs.add(h + "-" + other);
+				}
+			}
+		}
+		Collections.sort(pairs);
+		return pairs.toString();
+	}
+
+	private class ConnListener implements ConnectionListener {
+		public int ups = 0;
+		public int downs = 0;
+
+		public void hostsConnected(DTNHost host1, DTNHost host2) {
+			ups++;
+		}
+
+		public void hostsDisconnected(DTNHost host1, DTNHost host2) {
+			downs++;
+		}
+	}
+}
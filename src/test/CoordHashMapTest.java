@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package test;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import util.CoordHashMap;
+import core.Coord;
+
+/**
+ * Tests for the coordinate keyed hash map
+ */
+public class CoordHashMapTest extends TestCase {
+	private CoordHashMap<String> map;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		map = new CoordHashMap<String>(2);
+	}
+
+	public void testPutAndGet() {
+		for (int i=0; i<1000; i++) {
+			assertNull(map.put(new Coord(i, -i), "v" + i));
+		}
+		assertEquals(1000, map.size());
+		for (int i=0; i<1000; i++) {
+			assertEquals("v" + i, map.get(new Coord(i, -i)));
+			assertEquals("v" + i, map.get(i, -i));
+		}
+		assertNull(map.get(new Coord(1, 1)));
+		assertFalse(map.containsKey(new Coord(-1, 1)));
+		assertTrue(map.containsKey(new Coord(1, -1)));
+
+		assertEquals("v5", map.put(new Coord(5, -5), "new"));
+		assertEquals("new", map.get(5, -5));
+		assertEquals(1000, map.size());
+
+		map.clear();
+		assertEquals(0, map.size());
+		assertNull(map.get(5, -5));
+	}
+
+	public void testKeysAreCopied() {
+		Coord c = new Coord(1, 2);
+		map.put(c, "a");
+		c.translate(1, 1);
+		assertEquals("a", map.get(new Coord(1, 2)));
+		assertNull(map.get(c));
+	}
+
+	public void testNegativeZero() {
+		map.put(new Coord(0.0, -0.0), "zero");
+		assertEquals("zero", map.get(new Coord(-0.0, 0.0)));
+		assertEquals(new Coord(0.0, 0.0).hashCode(),
+				new Coord(-0.0, -0.0).hashCode());
+	}
+
+	public void testIterationOrder() {
+		double[] xs = {5, 1, 3, 2, 4};
+		for (int i=0; i<xs.length; i++) {
+			map.put(new Coord(xs[i], 0), "v" + i);
+		}
+
+		int i = 0;
+		for (String v : map.values()) {
+			assertEquals("v" + i++, v);
+		}
+
+		Iterator<Map.Entry<Coord, String>> it = map.entrySet().iterator();
+		Map.Entry<Coord, String> e = it.next();
+		assertEquals(new Coord(5, 0), e.getKey());
+		assertEquals("v0", e.getValue());
+
+		map.put(new Coord(6, 0), "v5");
+		try {
+			it.next();
+			fail("Modification while iterating wasn't detected");
+		} catch (java.util.ConcurrentModificationException ok) {
+			/* expected */
+		}
+	}
+}
@@ -1,9 +1,11 @@
 package test;
 
 
+import core.Connection;
 import core.Coord;
 import core.DTNHost;
 import core.MessageListener;
+import core.ModuleCommunicationBus;
 import core.MovementListener;
 import core.NetworkInterface;
 import core.Settings;
@@ -16,8 +18,10 @@ import org.junit.BeforeClass;
 
 import routing.MessageRouter;
 import routing.PassiveRouter;
+import routing.util.EnergyModel;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import junit.framework.TestCase;
 
@@ -67,6 +71,140 @@ public class DTNHostTest extends TestCase {
     assertFalse("Radio reported as active.", host.isRadioActive());
   }
 
+  /**
+   * Tests that the connection list of a multi-interface host is updated
+   * when the connections of any interface change.
+   */
+  @Test
+  public void testMultipleInterfaceConnections() {
+    final DTNHost h1 = makeHost(2);
+    final DTNHost h2 = makeHost(2);
+
+    h1.forceConnection(h2, IFACE1_NS, true);
+    final List<Connection> first = h1.getConnections();
+    assertEquals(1, first.size());
+    final Connection c1 = first.get(0);
+
+    h1.forceConnection(h2, IFACE2_NS, true);
+    assertEquals(2, h1.getConnections().size());
+    assertEquals(2, h2.getConnections().size());
+    assertEquals("Earlier list changed.", 1, first.size());
+
+    h2.forceConnection(h1, IFACE1_NS, false);
+    assertEquals(1, h1.getConnections().size());
+    assertFalse(h1.getConnections().contains(c1));
+    assertEquals(1, h2.getConnections().size());
+    assertFalse(h2.getConnections().contains(c1));
+  }
+
+  /**
+   * Tests the case where an interface removes a torn down connection from
+   * its list only after it has informed the host.
+   */
+  @Test
+  public void testConnectionRemovedAfterNotification() {
+    checkConnectionRemovedAfterNotification(1);
+    checkConnectionRemovedAfterNotification(2);
+  }
+
+  private void checkConnectionRemovedAfterNotification(int nrofInterfaces) {
+    final DTNHost h1 = makeHost(nrofInterfaces);
+    final DTNHost h2 = makeHost(nrofInterfaces);
+    final ConnectionsRouter r1 = (ConnectionsRouter)h1.getRouter();
+
+    h1.forceConnection(h2, IFACE1_NS, true);
+    final Connection con = h1.getConnections().get(0);
+    h1.forceConnection(h2, IFACE1_NS, false);
+
+    /* the router was informed while the connection was still listed */
+    assertEquals(1, r1.lists.size());
+    assertTrue(r1.lists.get(0).contains(con));
+    assertEquals(0, h1.getConnections().size());
+    assertEquals(0, h2.getConnections().size());
+  }
+
+  /**
+   * Tests tearing down connections while iterating the connection list.
+   */
+  @Test
+  public void testTearDownWhileIterating() {
+    checkTearDownWhileIterating(1);
+    checkTearDownWhileIterating(2);
+  }
+
+  private void checkTearDownWhileIterating(int nrofInterfaces) {
+    final DTNHost h0 = makeHost(nrofInterfaces);
+    for (int i = 0; i < 3; i++) {
+      h0.forceConnection(makeHost(nrofInterfaces), IFACE1_NS, true);
+    }
+
+    final List<Connection> cons = h0.getConnections();
+    int nrofIterated = 0;
+    for (Connection c : cons) {
+      h0.forceConnection(c.getOtherNode(h0), IFACE1_NS, false);
+      nrofIterated++;
+    }
+    assertEquals(3, nrofIterated);
+    assertEquals(3, cons.size());
+    assertEquals(0, h0.getConnections().size());
+  }
+
+  /**
+   * Tests turning the radio off from router code while the router iterates
+   * the connections, and tearing all the connections down after that.
+   */
+  @Test
+  public void testRadioTurnedOffByRouter() {
+    final DTNHost h0 = makeHost(1);
+    final ConnectionsRouter r0 = (ConnectionsRouter)h0.getRouter();
+    for (int i = 0; i < 3; i++) {
+      h0.forceConnection(makeHost(1), IFACE1_NS, true);
+    }
+
+    r0.useEnergy = true;
+    h0.update(false); // router uses up the energy while iterating
+    assertFalse(h0.isRadioActive());
+    final List<Connection> cons = h0.getConnections();
+    assertEquals(3, cons.size());
+
+    r0.lists.clear();
+    h0.update(false); // inactive host's connections are torn down
+    assertEquals(3, r0.lists.size());
+    for (int i = 0; i < 3; i++) {
+      /* the dying connection is listed when the router is informed */
+      assertEquals(3 - i, r0.lists.get(i).size());
+    }
+    assertEquals(3, cons.size());
+    assertEquals(0, h0.getConnections().size());
+  }
+
+  private static DTNHost makeHost(int nrofInterfaces) {
+    final TestSettings ts = new TestSettings();
+    final List<NetworkInterface> interfaces =
+        new ArrayList<NetworkInterface>();
+    final ModuleCommunicationBus comBus = new ModuleCommunicationBus();
+
+    for (int i = 0; i < nrofInterfaces; i++) {
+      ts.setNameSpace(i == 0 ? IFACE1_NS : IFACE2_NS);
+      ts.putSetting(NetworkInterface.TRANSMIT_RANGE_S, "1.0");
+      ts.putSetting(NetworkInterface.TRANSMIT_SPEED_S, "1");
+      final NetworkInterface ni = new TestInterface(ts);
+      ts.setNameSpace("Group");
+      ni.setGroupSettings(ts); // activeness handler for the energy check
+      interfaces.add(ni);
+    }
+    comBus.addProperty(EnergyModel.ENERGY_VALUE_ID, 1.0);
+
+    return new DTNHost(
+            new ArrayList<MessageListener>(),
+            new ArrayList<MovementListener>(),
+            "",
+            interfaces,
+            comBus,
+            new StationaryMovement(new Coord(0, 0)),
+            new ConnectionsRouter(ts));
+  }
+
   private static MovementModel makeMovementModel() {
     return new MovementModel() {
       @Override
@@ -95,6 +233,54 @@ public class DTNHostTest extends TestCase {
   //==========================================================================//
   // Private
   //==========================================================================//
+  private static final String IFACE1_NS = "Interface1";
+  private static final String IFACE2_NS = "Interface2";
+
+  /**
+   * Router that stores the host's connection list every time a connection
+   * goes down and (optionally) uses up the host's energy while iterating
+   * the connections in its update.
+   */
+  private static class ConnectionsRouter extends PassiveRouter {
+    private final List<List<Connection>> lists =
+        new ArrayList<List<Connection>>();
+    private boolean useEnergy = false;
+
+    public ConnectionsRouter(Settings s) {
+      super(s);
+    }
+
+    protected ConnectionsRouter(ConnectionsRouter r) {
+      super(r);
+    }
+
+    @Override
+    public void update() {
+      super.update();
+      for (Connection c : getHost().getConnections()) {
+        if (useEnergy) {
+          getHost().getComBus().updateProperty(
+              EnergyModel.ENERGY_VALUE_ID, 0.0);
+        }
+      }
+    }
+
+    @Override
+    public void changedConnection(Connection con) {
+      if (!con.isUp()) {
+        final List<Connection> cons = getHost().getConnections();
+        for (Connection c : cons) {
+          c.getOtherNode(getHost()); // iterate during the teardown
+        }
+        lists.add(cons);
+      }
+    }
+
+    @Override
+    public MessageRouter replicate() {
+      return new ConnectionsRouter(this);
+    }
+  }
 
   //==========================================================================//
 }
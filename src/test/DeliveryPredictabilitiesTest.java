@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package test;
+
+import junit.framework.TestCase;
+import routing.util.DeliveryPredictabilities;
+import core.DTNHost;
+
+/**
+ * Tests for the lazily aged delivery predictabilities
+ */
+public class DeliveryPredictabilitiesTest extends TestCase {
+	private static final double DELTA = 1e-12;
+	private DeliveryPredictabilities preds;
+	private DTNHost h1, h2, h3;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		DTNHost.reset();
+		TestUtils utils = new TestUtils(null, null, new TestSettings());
+		h1 = utils.createHost();
+		h2 = utils.createHost();
+		for (int i=0; i<40; i++) {
+			utils.createHost(); // make h3's address larger than the arrays
+		}
+		h3 = utils.createHost();
+		preds = new DeliveryPredictabilities();
+	}
+
+	public void testSetAndAge() {
+		assertEquals(0.0, preds.get(h1));
+		assertEquals(0.0, preds.get(h3));
+		preds.set(h3, 0.5);
+		preds.set(h1, 0.8);
+		assertEquals(2, preds.size());
+		assertEquals(h3, preds.getHost(0));
+		assertEquals(h1, preds.getHost(1));
+
+		preds.age(0.5);
+		assertEquals(0.25, preds.get(h3), DELTA);
+		assertEquals(0.4, preds.getValue(1), DELTA);
+
+		preds.set(h2, 0.9); // new values are not aged by old aging
+		assertEquals(0.9, preds.get(h2), DELTA);
+		preds.age(0.5);
+		assertEquals(0.45, preds.get(h2), DELTA);
+		assertEquals(0.2, preds.get(h1), DELTA);
+	}
+
+	public void testLongAging() {
+		preds.set(h1, 1.0);
+		double expected = 1.0;
+		for (int i=0; i<1000; i++) {
+			preds.age(0.9);
+			expected *= 0.9;
+			if (i == 500) {
+				preds.set(h2, 0.5);
+			}
+		}
+		/* rescaling keeps the values correct */
+		assertEquals(1.0, preds.get(h1) / expected, DELTA);
+		assertEquals(1.0, preds.get(h2) / (0.5 * Math.pow(0.9, 499)), 1e-9);
+
+		preds.age(0);
+		assertEquals(0.0, preds.get(h1));
+		preds.set(h1, 0.3);
+		assertEquals(0.3, preds.get(h1), DELTA);
+	}
+}
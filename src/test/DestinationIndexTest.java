@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import routing.util.DestinationIndex;
+import util.Tuple;
+import core.CBRConnection;
+import core.Connection;
+import core.DTNHost;
+import core.Message;
+import core.NetworkInterface;
+
+/**
+ * Tests for the destination index of router buffers
+ */
+public class DestinationIndexTest extends TestCase {
+	private DestinationIndex index;
+	/** the messages of the buffer in their iteration order */
+	private Map<String, Message> buffer;
+	private DTNHost h0, h1, h2, h3;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		DTNHost.reset();
+		NetworkInterface.reset();
+		Message.reset();
+		TestUtils utils = new TestUtils(null, null, new TestSettings());
+		h0 = utils.createHost();
+		h1 = utils.createHost();
+		h2 = utils.createHost();
+		h3 = utils.createHost();
+		index = new DestinationIndex();
+		buffer = new LinkedHashMap<String, Message>();
+	}
+
+	private void add(Message m) {
+		buffer.put(m.getId(), m);
+		index.add(m);
+	}
+
+	private void remove(Message m) {
+		buffer.remove(m.getId());
+		index.remove(m);
+	}
+
+	private List<Message> messagesTo(DTNHost to) {
+		return index.getMessagesTo(to, buffer.values());
+	}
+
+	private Connection connect(DTNHost to) {
+		return new CBRConnection(h0, h0.getInterfaces().get(0), to,
+				to.getInterfaces().get(0), 1);
+	}
+
+	public void testMessagesTo() {
+		Message m1 = new Message(h0, h1, "M1", 1);
+		Message m2 = new Message(h0, h2, "M2", 1);
+		Message m3 = new Message(h0, h1, "M3", 1);
+		add(m1);
+		add(m2);
+		add(m3);
+
+		List<Message> to1 = messagesTo(h1);
+		assertEquals(2, index.getNrofMessagesTo(h1));
+		assertEquals(2, to1.size());
+		assertEquals(m1, to1.get(0));
+		assertEquals(m3, to1.get(1));
+		assertEquals(0, messagesTo(h3).size());
+
+		/* replaced messages keep their place, removed ones are gone */
+		Message m1copy = m1.replicate();
+		add(m1copy);
+		assertEquals(2, index.getNrofMessagesTo(h1));
+		assertEquals(m1copy, messagesTo(h1).get(0));
+		remove(m1copy);
+		remove(m2);
+		assertEquals(1, messagesTo(h1).size());
+		assertEquals(0, messagesTo(h2).size());
+		assertEquals(0, index.getNrofMessagesTo(h2));
+	}
+
+	public void testReplaceWithNewDestination() {
+		Message m1 = new Message(h0, h1, "M1", 1);
+		Message m2 = new Message(h0, h2, "M2", 1);
+		Message m3 = new Message(h0, h2, "M3", 1);
+		add(m1);
+		add(m2);
+		add(m3);
+
+		/* same ID, different destination -> the message moves */
+		Message m1moved = new Message(h0, h2, "M1", 1);
+		add(m1moved);
+		assertEquals(0, index.getNrofMessagesTo(h1));
+		assertEquals(0, messagesTo(h1).size());
+		List<Message> to2 = messagesTo(h2);
+		assertEquals(3, to2.size());
+		assertEquals(m1moved, to2.get(0)); // keeps its place in the buffer
+		assertEquals(m2, to2.get(1));
+		assertEquals(m3, to2.get(2));
+
+		remove(m1moved);
+		assertEquals(2, messagesTo(h2).size());
+		assertEquals(0, messagesTo(h1).size());
+	}
+
+	public void testBufferOrder() {
+		Message m1 = new Message(h0, h1, "M1", 1);
+		Message m2 = new Message(h0, h1, "M2", 1);
+		index.add(m1);
+		index.add(m2);
+		buffer.put(m2.getId(), m2); // buffer iterates in another order
+		buffer.put(m1.getId(), m1);
+
+		List<Message> to1 = messagesTo(h1);
+		assertEquals(m2, to1.get(0));
+		assertEquals(m1, to1.get(1));
+
+		List<Connection> cons = new ArrayList<Connection>();
+		cons.add(connect(h1));
+		List<Tuple<Message, Connection>> tuples =
+			index.getMessagesFor(h0, cons, buffer.values());
+		assertEquals(m2, tuples.get(0).getKey());
+		assertEquals(m1, tuples.get(1).getKey());
+	}
+
+	public void testMessagesForConnections() {
+		Message m1 = new Message(h0, h2, "M1", 1);
+		Message m2 = new Message(h0, h1, "M2", 1);
+		Message m3 = new Message(h0, h3, "M3", 1);
+		Message m4 = new Message(h0, h2, "M4", 1);
+		add(m1);
+		add(m2);
+		add(m3);
+		add(m4);
+
+		Connection c1 = connect(h1);
+		Connection c2 = connect(h2);
+		Connection c2b = connect(h2);
+		List<Connection> cons = new ArrayList<Connection>();
+		cons.add(c1);
+		cons.add(c2);
+
+		/* messages are in buffer order, not in connection order */
+		List<Tuple<Message, Connection>> tuples =
+			index.getMessagesFor(h0, cons, buffer.values());
+		assertEquals(3, tuples.size());
+		assertEquals(m1, tuples.get(0).getKey());
+		assertEquals(c2, tuples.get(0).getValue());
+		assertEquals(m2, tuples.get(1).getKey());
+		assertEquals(c1, tuples.get(1).getValue());
+		assertEquals(m4, tuples.get(2).getKey());
+		assertEquals(c2, tuples.get(2).getValue());
+
+		/* a message is listed once per connection to its destination */
+		cons.add(c2b);
+		tuples = index.getMessagesFor(h0, cons, buffer.values());
+		assertEquals(5, tuples.size());
+		assertEquals(m1, tuples.get(0).getKey());
+		assertEquals(c2, tuples.get(0).getValue());
+		assertEquals(m1, tuples.get(1).getKey());
+		assertEquals(c2b, tuples.get(1).getValue());
+		assertEquals(m4, tuples.get(4).getKey());
+		assertEquals(c2b, tuples.get(4).getValue());
+
+		cons.remove(c2);
+		cons.remove(c2b);
+		tuples = index.getMessagesFor(h0, cons, buffer.values());
+		assertEquals(1, tuples.size());
+		assertEquals(m2, tuples.get(0).getKey());
+	}
+}
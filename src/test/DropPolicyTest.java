@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import routing.SprayAndWaitRouter;
+import routing.util.DropPolicy;
+import routing.util.FewestCopiesDropPolicy;
+import routing.util.LargestFirstDropPolicy;
+import routing.util.OldestFirstDropPolicy;
+import routing.util.ShortestTtlDropPolicy;
+import core.Message;
+import core.SimClock;
+
+/**
+ * Tests for the buffer drop policies
+ */
+public class DropPolicyTest extends TestCase {
+	private static final List<Message> NONE = Collections.emptyList();
+	private TestSettings ts;
+	private SimClock clock;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		ts = new TestSettings();
+		clock = SimClock.getInstance();
+		clock.setTime(0);
+	}
+
+	private Message newMessage(String id, int size, double receiveTime) {
+		Message m = new Message(null, null, id, size);
+		m.setReceiveTime(receiveTime);
+		return m;
+	}
+
+	public void testOldestFirst() {
+		DropPolicy p = new OldestFirstDropPolicy(ts).replicate();
+		List<Message> msgs = new ArrayList<Message>();
+		double[] times = {5, 3, 8, 3, 1, 9, 4};
+		for (int i=0; i < times.length; i++) {
+			msgs.add(newMessage("old" + i, 10, times[i]));
+			p.add(msgs.get(i));
+		}
+
+		assertEquals(msgs.get(4), p.getNext(NONE));
+		p.remove(msgs.get(4));
+		/* equal receive times -> first added is dropped first */
+		assertEquals(msgs.get(1), p.getNext(NONE));
+		p.remove(msgs.get(1));
+		assertEquals(msgs.get(3), p.getNext(NONE));
+		assertEquals(5, p.size());
+
+		/* messages being sent (or their replicates) are skipped */
+		List<Message> sending = new ArrayList<Message>();
+		sending.add(msgs.get(3).replicate());
+		assertEquals(msgs.get(6), p.getNext(sending));
+		sending.add(msgs.get(6));
+		assertEquals(msgs.get(0), p.getNext(sending));
+
+		for (Message m : msgs) {
+			p.remove(m);
+		}
+		assertEquals(0, p.size());
+		assertNull(p.getNext(NONE));
+	}
+
+	public void testBufferOrderTies() {
+		DropPolicy p = new OldestFirstDropPolicy(ts);
+		Random rng = new Random(1);
+		List<Message> buffer = new ArrayList<Message>();
+		for (int i=0; i < 200; i++) {
+			Message m = newMessage("tie" + i, 10, rng.nextInt(10));
+			buffer.add(m);
+			p.add(m);
+		}
+		Collections.shuffle(buffer, rng); // iteration order != added order
+
+		for (int round=0; round < 150; round++) {
+			List<Message> sending = new ArrayList<Message>();
+			for (int i=0; i < 3; i++) {
+				sending.add(buffer.get(rng.nextInt(buffer.size())));
+			}
+
+			/* the first oldest message of the buffer that isn't sent */
+			Message oldest = null;
+			for (Message m : buffer) {
+				if (!sending.contains(m) && (oldest == null ||
+						oldest.getReceiveTime() > m.getReceiveTime())) {
+					oldest = m;
+				}
+			}
+			assertEquals(oldest, p.getNext(sending, buffer));
+
+			buffer.remove(oldest);
+			p.remove(oldest);
+		}
+	}
+
+	public void testAllExcluded() {
+		DropPolicy p = new OldestFirstDropPolicy(ts);
+		Message m = newMessage("excl", 10, 0);
+		p.add(m);
+		assertNull(p.getNext(Collections.singletonList(m)));
+	}
+
+	public void testLargestFirst() {
+		DropPolicy p = new LargestFirstDropPolicy(ts);
+		Message m1 = newMessage("large1", 10, 0);
+		Message m2 = newMessage("large2", 30, 1);
+		Message m3 = newMessage("large3", 20, 2);
+		p.add(m1);
+		p.add(m2);
+		p.add(m3);
+		assertEquals(m2, p.getNext(NONE));
+		p.remove(m2);
+		assertEquals(m3, p.getNext(NONE));
+	}
+
+	public void testShortestTtl() {
+		DropPolicy p = new ShortestTtlDropPolicy(ts);
+		Message m1 = newMessage("ttl1", 10, 0);
+		Message m2 = newMessage("ttl2", 10, 0);
+		m2.setTtl(20);
+		clock.setTime(300);
+		Message m3 = newMessage("ttl3", 10, 0);
+		m3.setTtl(10); // expires before m2
+		p.add(m1);
+		p.add(m2);
+		p.add(m3);
+		assertEquals(m3, p.getNext(NONE));
+		p.remove(m3);
+		assertEquals(m2, p.getNext(NONE));
+		p.remove(m2);
+		assertEquals(m1, p.getNext(NONE));
+	}
+
+	public void testFewestCopies() {
+		DropPolicy p = new FewestCopiesDropPolicy(ts);
+		Message m1 = newMessage("copies1", 10, 0);
+		Message m2 = newMessage("copies2", 10, 1);
+		m1.addProperty(SprayAndWaitRouter.MSG_COUNT_PROPERTY, 4);
+		m2.addProperty(SprayAndWaitRouter.MSG_COUNT_PROPERTY, 2);
+		p.add(m1);
+		p.add(m2);
+		assertEquals(m2, p.getNext(NONE));
+
+		m1.updateProperty(SprayAndWaitRouter.MSG_COUNT_PROPERTY, 1);
+		p.update(m1);
+		assertEquals(m1, p.getNext(NONE));
+	}
+
+	public void testCreatePolicy() {
+		assertTrue(DropPolicy.createPolicy(ts) instanceof OldestFirstDropPolicy);
+		ts.putSetting(DropPolicy.DROP_POLICY_S, "LargestFirstDropPolicy");
+		assertTrue(DropPolicy.createPolicy(ts) instanceof
+				LargestFirstDropPolicy);
+	}
+}
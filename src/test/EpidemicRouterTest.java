@@ -4,6 +4,7 @@
  */
 package test;
 
+import routing.ActiveRouter;
 import routing.EpidemicRouter;
 import routing.MessageRouter;
 import core.DTNHost;
@@ -321,6 +322,30 @@ public class EpidemicRouterTest extends AbstractRouterTest {
 		assertFalse(mc.next());
 	}
 
+	/**
+	 * Tests that the buffer occupancy follows adding and removing messages
+	 */
+	public void testBufferOccupancy() {
+		MessageRouter r1 = h1.getRouter();
+		assertEquals(0, r1.getBufferOccupancy());
+		assertEquals(BUFFER_SIZE, r1.getFreeBufferSize());
+
+		h1.createNewMessage(new Message(h1, h3, msgId1, BUFFER_SIZE/4));
+		h1.createNewMessage(new Message(h1, h3, msgId2, BUFFER_SIZE/2));
+		assertEquals(BUFFER_SIZE/4 + BUFFER_SIZE/2, r1.getBufferOccupancy());
+		assertEquals(BUFFER_SIZE - BUFFER_SIZE/4 - BUFFER_SIZE/2,
+				r1.getFreeBufferSize());
+
+		h1.deleteMessage(msgId1, false);
+		assertEquals(BUFFER_SIZE/2, r1.getBufferOccupancy());
+
+		/* the oldest message is dropped to make room */
+		h1.createNewMessage(new Message(h1, h3, "big", BUFFER_SIZE - 1));
+		assertEquals(1, h1.getNrofMessages());
+		assertEquals(BUFFER_SIZE - 1, r1.getBufferOccupancy());
+		assertEquals(1, r1.getFreeBufferSize());
+	}
+
 	/**
 	 * Tests if the FIFO queue management works
 	 */
@@ -499,6 +524,81 @@ public class EpidemicRouterTest extends AbstractRouterTest {
 		assertFalse(mc.next());
 	}
 
+	/**
+	 * Tests that messages are dropped right when their TTL passes if exact
+	 * TTL expiry is enabled
+	 */
+	public void testExactTtlExpiry() {
+		DTNHost h7 = createHostWithRouterSetting(ActiveRouter.EXACT_TTL_EXPIRY_S,
+				"h7");
+
+		Message m1 = new Message(h7, h3, msgId1, 1);
+		h7.createNewMessage(m1);
+		clock.advance(10);
+		Message m2 = new Message(h7, h3, msgId2, 1);
+		h7.createNewMessage(m2);
+		checkCreates(2);
+
+		clock.advance(TTL*60 - 11);
+		h7.update(true);
+		assertFalse(mc.next()); // not expired yet
+
+		clock.advance(1);
+		h7.update(true); // msg1 has lived exactly its TTL
+		assertTrue(mc.next());
+		assertEquals(mc.TYPE_DELETE, mc.getLastType());
+		assertEquals(msgId1, mc.getLastMsg().getId());
+		assertFalse(mc.next());
+
+		clock.advance(9);
+		h7.update(true);
+		assertFalse(mc.next()); // msg2 has still a second left
+
+		clock.advance(1);
+		h7.update(true);
+		assertTrue(mc.next());
+		assertEquals(mc.TYPE_DELETE, mc.getLastType());
+		assertEquals(msgId2, mc.getLastMsg().getId());
+		assertFalse(mc.next());
+	}
+
+	/**
+	 * Tests that messages that the other host is known to have (had) are not
+	 * offered again during the same contact if summary vectors are used
+	 */
+	public void testSummaryVectors() {
+		DTNHost h7 = createHostWithRouterSetting(ActiveRouter.SUMMARY_VECTORS_S,
+				"h7");
+		DTNHost h8 = utils.createHost(c0, "h8");
+
+		Message m1 = new Message(h7, h3, msgId1, 1);
+		h7.createNewMessage(m1);
+		checkCreates(1);
+
+		h7.connect(h8);
+		updateAllNodes();
+		clock.advance(2);
+		updateAllNodes();
+		checkTransferStart(h7, h8, msgId1);
+		assertTrue(mc.next());
+		assertEquals(mc.TYPE_RELAY, mc.getLastType());
+
+		h8.deleteMessage(msgId1, true);
+		assertTrue(mc.next());
+		assertEquals(mc.TYPE_DELETE, mc.getLastType());
+
+		updateAllNodes();
+		clock.advance(2);
+		updateAllNodes();
+		assertFalse(mc.next()); // h8 had the message during this contact
+
+		/* new contact -> the message is offered again */
+		disconnect(h8);
+		h7.connect(h8);
+		updateAllNodes();
+		checkTransferStart(h7, h8, msgId1);
+	}
+
 	public void testResponse() {
 		Message m1 = new Message(h1,h3, msgId1, 1);
 		m1.setResponseSize(1);
@@ -539,6 +639,21 @@ public class EpidemicRouterTest extends AbstractRouterTest {
 		assertFalse(mc.next());
 	}
 
+	/**
+	 * Creates a host whose router has the given boolean setting enabled.
+	 * The hosts created after this with the test utils get the same router.
+	 * @param key Name of the router setting
+	 * @param name Name of the host
+	 * @return The new host
+	 */
+	private DTNHost createHostWithRouterSetting(String key, String name) {
+		ts.setNameSpace(null);
+		ts.putSetting(key, "true");
+		utils.setMessageRouterProto(new EpidemicRouter(ts));
+		ts.putSetting(key, "false"); // settings are shared with other tests
+		return utils.createHost(c0, name);
+	}
+
 	private void newMessage(String id, DTNHost from, DTNHost to) {
 		Message m = new Message(from, to, id, 1);
 		from.createNewMessage(m);
@@ -5,17 +5,22 @@
 package test;
 
 import input.BinaryEventsReader;
+import input.CompactEventsReader;
+import input.CompactEventsWriter;
 import input.ExternalEvent;
 import input.ExternalEventsQueue;
 import input.ExternalEventsReader;
 import input.MessageCreateEvent;
+import input.PrefetchingEventsReader;
 import input.StandardEventsReader;
 
 import java.io.File;
 import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.List;
 
 import junit.framework.TestCase;
+import core.SimError;
 
 public class ExternalEventsQueueTest extends TestCase {
 	private final String[] stdinput = {
@@ -66,6 +71,84 @@ public class ExternalEventsQueueTest extends TestCase {
 	}
 
 
+	public void testPrefetchEEQ() {
+		int preload = 3;
+		eeq = new ExternalEventsQueue(tempFile.getAbsolutePath(), preload,
+				true);
+		checkEeq(eeq, preload);
+		assertEquals(Double.MAX_VALUE, eeq.nextEventsTime());
+	}
+
+
+	public void testPrefetchEndAndError() {
+		PrefetchingEventsReader r = new PrefetchingEventsReader(
+				new StandardEventsReader(tempFile), 2);
+		int nrofEvents = 0;
+		for (List<ExternalEvent> events = r.readEvents(100);
+				events.size() > 0; events = r.readEvents(100)) {
+			nrofEvents += events.size();
+		}
+		assertEquals(msgTimes.length, nrofEvents);
+		assertEquals(0, r.readEvents(100).size()); // end stays
+		r.close();
+
+		r = new PrefetchingEventsReader(new ExternalEventsReader() {
+			private int nrofReads = 0;
+			public List<ExternalEvent> readEvents(int nrof) {
+				if (nrofReads++ > 0) {
+					throw new IllegalStateException("read error");
+				}
+				List<ExternalEvent> events = new ArrayList<ExternalEvent>();
+				events.add(new ExternalEvent(1.0));
+				return events;
+			}
+			public void close() {}
+		}, 1);
+		assertEquals(1, r.readEvents(1).size());
+		for (int i=0; i < 2; i++) { // the error is thrown on every call
+			try {
+				r.readEvents(1);
+				fail("Read error was not thrown");
+			} catch (IllegalStateException e) {
+				assertEquals("read error", e.getMessage());
+			}
+		}
+		r.close();
+	}
+
+
+	public void testPrefetchMalformedInput() throws Exception {
+		File badFile = File.createTempFile("eeqBadTest", ".tmp");
+		PrintWriter out = new PrintWriter(badFile);
+		out.println("1 C M1 1 2 100");
+		out.println("2 BOGUS x");
+		out.close();
+
+		eeq = new ExternalEventsQueue(badFile.getAbsolutePath(), 1, true);
+		assertEquals(1.0, eeq.nextEventsTime());
+		try {
+			eeq.nextEvent(); // reading the next events fails
+			fail("Malformed input was not reported");
+		} catch (SimError e) {
+			// expected
+		}
+
+		PrefetchingEventsReader r = new PrefetchingEventsReader(
+				new StandardEventsReader(badFile), 1);
+		assertEquals(1, r.readEvents(1).size());
+		for (int i=0; i < 2; i++) { // the error is thrown on every call
+			try {
+				r.readEvents(1);
+				fail("Malformed input was not reported");
+			} catch (SimError e) {
+				// expected
+			}
+		}
+		r.close();
+		assertTrue(badFile.delete());
+	}
+
+
 	public void testBinaryEEQ() throws Exception{
 		int preload = 7;
 		File tmpBinFile = File.createTempFile("TempBinTest",
@@ -82,6 +165,32 @@ public class ExternalEventsQueueTest extends TestCase {
 	}
 
 
+	public void testCompactEEQ() throws Exception{
+		int preload = 4;
+		File tmpFile = File.createTempFile("TempCompactTest",
+				CompactEventsReader.COMPACT_EXT);
+		assertEquals(msgTimes.length,
+				CompactEventsWriter.convert(tempFile, tmpFile));
+
+		eeq = new ExternalEventsQueue(tmpFile.getAbsolutePath(), preload);
+		checkEeq(eeq, preload);
+
+		/* all fields of the events must survive the conversion */
+		List<ExternalEvent> textEvents =
+			new StandardEventsReader(tempFile).readEvents(100);
+		CompactEventsReader r = new CompactEventsReader(tmpFile);
+		List<ExternalEvent> events = r.readEvents(100);
+		r.close();
+		assertEquals(textEvents.size(), events.size());
+		for (int i=0; i < events.size(); i++) {
+			assertEquals(textEvents.get(i).toString(),
+					events.get(i).toString());
+		}
+
+		assertTrue(tmpFile.delete());
+	}
+
+
 	private void checkEeq(ExternalEventsQueue eeq, int preloadVal) {
 		ExternalEvent ee;
 		assertEquals(msgTimes[0],eeq.nextEventsTime());
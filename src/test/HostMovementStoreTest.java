@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import movement.MovementModel;
+import movement.RandomWaypoint;
+import core.Coord;
+import core.DTNHost;
+import core.HostMovementStore;
+import core.SimClock;
+
+/**
+ * Tests for the struct of arrays movement of HostMovementStore
+ */
+public class HostMovementStoreTest extends TestCase {
+	private static final int NROF_HOSTS = 20;
+	private static final int NROF_STEPS = 2000;
+	private static final double STEP = 1.0;
+
+	private SimClock clock;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		clock = SimClock.getInstance();
+	}
+
+	/**
+	 * Creates moving hosts starting from the same state every time
+	 */
+	private List<DTNHost> createHosts() {
+		TestSettings ts = new TestSettings();
+		ts.putSetting(MovementModel.MOVEMENT_MODEL_NS + "." +
+				MovementModel.WORLD_SIZE, "1000,1000");
+		SimClock.reset();
+		DTNHost.reset();
+		MovementModel.reset();
+		TestUtils utils = new TestUtils(null, null, ts);
+		ts.setNameSpace(null);
+		MovementModel mmProto = new RandomWaypoint(ts);
+
+		for (int i=0; i<NROF_HOSTS; i++) {
+			utils.createHost(mmProto, null);
+		}
+		return utils.getAllHosts();
+	}
+
+	private List<Coord> getLocations(List<DTNHost> hosts) {
+		List<Coord> locs = new ArrayList<Coord>();
+		for (DTNHost h : hosts) {
+			locs.add(h.getLocation().clone());
+		}
+		return locs;
+	}
+
+	public void testSameAsSerialMovement() {
+		List<DTNHost> hosts = createHosts();
+		for (int i=0; i<NROF_STEPS; i++) {
+			for (DTNHost h : hosts) {
+				h.move(STEP);
+			}
+			clock.advance(STEP);
+		}
+		List<Coord> expected = getLocations(hosts);
+
+		hosts = createHosts();
+		HostMovementStore store = new HostMovementStore(hosts);
+		for (int i=0; i<NROF_STEPS; i++) {
+			store.moveAll(STEP);
+			clock.advance(STEP);
+		}
+		List<Coord> locs = getLocations(hosts);
+
+		for (int i=0; i<NROF_HOSTS; i++) {
+			assertEquals(expected.get(i).getX(), locs.get(i).getX());
+			assertEquals(expected.get(i).getY(), locs.get(i).getY());
+		}
+	}
+
+	public void testSetLocation() {
+		List<DTNHost> hosts = createHosts();
+		HostMovementStore store = new HostMovementStore(hosts);
+		store.moveAll(STEP);
+		clock.advance(STEP);
+
+		DTNHost h = hosts.get(0);
+		Coord c = new Coord(500, 500);
+		h.setLocation(c);
+		store.moveAll(STEP);
+
+		/* host continues from the new location */
+		assertEquals(h.getSpeed() * STEP, h.getLocation().distance(c), 0.001);
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package test;
+
+import interfaces.ConnectivityGrid;
+import interfaces.IndexedConnectivityGrid;
+
+import java.util.Collection;
+
+import junit.framework.TestCase;
+import core.Coord;
+import core.DTNHost;
+import core.NetworkInterface;
+import core.World;
+
+/**
+ * Tests for the IndexedConnectivityGrid
+ */
+public class IndexedConnectivityGridTest extends TestCase {
+	private static final String INDEXED_GRID =
+		World.OPTIMIZATION_SETTINGS_NS + "." +
+		IndexedConnectivityGrid.INDEXED_GRID_S;
+	private static final String CELL_SIZE_MULT =
+		World.OPTIMIZATION_SETTINGS_NS + "." +
+		ConnectivityGrid.CELL_SIZE_MULT_S;
+
+	private TestSettings ts;
+	private TestUtils utils;
+	private IndexedConnectivityGrid grid;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		ts = new TestSettings();
+		ts.putSetting(INDEXED_GRID, "true");
+		ts.putSetting(CELL_SIZE_MULT, "1");
+		IndexedConnectivityGrid.reset();
+
+		ts.setNameSpace(TestUtils.IFACE_NS);
+		ts.putSetting(NetworkInterface.TRANSMIT_RANGE_S, "10");
+		ts.putSetting(NetworkInterface.TRANSMIT_SPEED_S, "1");
+		utils = new TestUtils(null, null, ts);
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		ts.setNameSpace(null);
+		ts.putSetting(INDEXED_GRID, "false");
+		IndexedConnectivityGrid.reset();
+	}
+
+	private NetworkInterface createInterface(double x, double y) {
+		DTNHost h = utils.createHost(new Coord(x, y));
+		NetworkInterface ni = h.getInterfaces().get(0);
+		if (grid == null) {
+			grid = IndexedConnectivityGrid.IndexedConnectivityGridFactory(
+					ni.getInterfaceType().hashCode(), 10);
+		}
+		/* interfaces are added to the grid before the host has a location */
+		grid.updateLocation(ni);
+		return ni;
+	}
+
+	public void testNearInterfaces() {
+		NetworkInterface n1 = createInterface(5, 5);
+		NetworkInterface n2 = createInterface(15, 15);
+		NetworkInterface n3 = createInterface(35, 5);
+
+		Collection<NetworkInterface> near = grid.getNearInterfaces(n1);
+		assertEquals(2, near.size());
+		assertTrue(near.contains(n1));
+		assertTrue(near.contains(n2));
+		assertFalse(near.contains(n3));
+		assertEquals(3, grid.getAllInterfaces().size());
+	}
+
+	public void testUpdateLocation() {
+		NetworkInterface n1 = createInterface(5, 5);
+		NetworkInterface n2 = createInterface(6, 6);
+		NetworkInterface n3 = createInterface(35, 5);
+
+		n3.getHost().setLocation(new Coord(14, 5));
+		grid.updateLocation(n3);
+		assertTrue(grid.getNearInterfaces(n1).contains(n3));
+
+		n1.getHost().setLocation(new Coord(55, 55));
+		grid.updateLocation(n1);
+		Collection<NetworkInterface> near = grid.getNearInterfaces(n2);
+		assertEquals(2, near.size());
+		assertTrue(near.contains(n3));
+		assertFalse(near.contains(n1));
+		assertEquals(1, grid.getNearInterfaces(n1).size());
+	}
+
+	public void testNearCells() {
+		NetworkInterface n1 = createInterface(5, 5);
+		NetworkInterface n2 = createInterface(25, 5);
+		int[] cells = new int[IndexedConnectivityGrid.MAX_NEAR_CELLS];
+
+		int nrofCells = grid.getNearCells(n1, cells);
+		assertEquals(IndexedConnectivityGrid.MAX_NEAR_CELLS, nrofCells);
+
+		int found = 0;
+		for (int c=0; c < nrofCells; c++) {
+			for (int i=0; i < grid.getNrofInterfaces(cells[c]); i++) {
+				assertSame(n1, grid.getInterface(cells[c], i));
+				found++;
+			}
+		}
+		assertEquals(1, found);
+		assertFalse(grid.getNearInterfaces(n1).contains(n2));
+	}
+
+	public void testRemoveInterface() {
+		NetworkInterface n1 = createInterface(5, 5);
+		NetworkInterface n2 = createInterface(5, 6);
+		NetworkInterface n3 = createInterface(6, 5);
+
+		grid.removeInterface(n1);
+		assertEquals(-1, n1.getOptimizerIndex());
+		assertEquals(2, grid.getAllInterfaces().size());
+
+		Collection<NetworkInterface> near = grid.getNearInterfaces(n3);
+		assertEquals(2, near.size());
+		assertTrue(near.contains(n2));
+		assertTrue(near.contains(n3));
+		assertEquals(0, grid.getNearInterfaces(n1).size());
+
+		/* the moved interface must still be updatable */
+		n3.getHost().setLocation(new Coord(95, 95));
+		grid.updateLocation(n3);
+		assertEquals(1, grid.getNearInterfaces(n2).size());
+	}
+}
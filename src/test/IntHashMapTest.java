@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import util.IntHashMap;
+
+/**
+ * Tests for the IntHashMap
+ */
+public class IntHashMapTest extends TestCase {
+	private IntHashMap<String> map;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		map = new IntHashMap<String>();
+	}
+
+	public void testPutGetRemove() {
+		assertNull(map.put(1, "a"));
+		assertNull(map.put(-5, "b"));
+		assertNull(map.put(100, null));
+		assertEquals(3, map.size());
+
+		assertEquals("a", map.get(1));
+		assertEquals("b", map.get(-5));
+		assertNull(map.get(100));
+		assertTrue(map.containsKey(100));
+		assertFalse(map.containsKey(2));
+
+		assertEquals("a", map.put(1, "c"));
+		assertEquals("c", map.get(1));
+		assertEquals(3, map.size());
+
+		assertEquals("b", map.remove(-5));
+		assertNull(map.remove(-5));
+		assertFalse(map.containsKey(-5));
+		assertEquals(2, map.size());
+	}
+
+	public void testInsertionOrder() {
+		for (int i=0; i < 100; i++) {
+			map.put(i * 7, "" + i);
+		}
+		for (int i=0; i < 100; i += 3) {
+			map.remove(i * 7);
+		}
+		map.put(3, "x");
+		map.put(0, "y");
+
+		List<String> expected = new ArrayList<String>();
+		for (int i=0; i < 100; i++) {
+			if (i % 3 != 0) {
+				expected.add("" + i);
+			}
+		}
+		expected.add("x");
+		expected.add("y");
+		assertEquals(expected, new ArrayList<String>(map.values()));
+	}
+
+	public void testRandomOperations() {
+		Map<Integer, String> reference = new HashMap<Integer, String>();
+		Random rng = new Random(1);
+
+		for (int i=0; i < 100000; i++) {
+			int key = rng.nextInt(500);
+			if (rng.nextBoolean()) {
+				assertEquals(reference.put(key, "" + i), map.put(key, "" + i));
+			}
+			else {
+				assertEquals(reference.remove(key), map.remove(key));
+			}
+			assertEquals(reference.size(), map.size());
+		}
+
+		for (int key=0; key < 500; key++) {
+			assertEquals(reference.get(key), map.get(key));
+			assertEquals(reference.containsKey(key), map.containsKey(key));
+		}
+		assertEquals(reference.size(), map.values().size());
+		assertTrue(map.values().containsAll(reference.values()));
+	}
+
+	public void testClear() {
+		map.put(1, "a");
+		map.put(2, "b");
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertFalse(map.containsKey(1));
+		assertFalse(map.values().iterator().hasNext());
+		map.put(2, "c");
+		assertEquals("c", map.get(2));
+	}
+
+	public void testConcurrentModification() {
+		map.put(1, "a");
+		map.put(2, "b");
+		map.put(3, "c");
+		try {
+			for (String s : map.values()) {
+				map.remove(s.equals("a") ? 3 : 1);
+			}
+			fail("Modification while iterating should be detected");
+		} catch (ConcurrentModificationException e) {
+			// expected
+		}
+	}
+}
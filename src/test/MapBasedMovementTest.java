@@ -54,6 +54,7 @@ public class MapBasedMovementTest extends TestCase {
 
 	private void setupMapData(String okTypes, String speed, String wTime) {
 		Settings.init(null);
+		MovementModel.reset(); // same random choices regardless of other tests
 		StringReader input = new StringReader(WKT);
 
 		WKTMapReader reader = new WKTMapReader(true);
@@ -120,10 +121,10 @@ public class MapBasedMovementTest extends TestCase {
 		p = mbm.getPath();
 		coords = p.getCoords();
 
-		assertEquals(c2, coords.get(0)); // starts from n2
+		assertEquals(c1, coords.get(0)); // starts from n1
 
 		// should move route n1-n2-n6-n2-n1-n2 ...
-		for (int i=1; i<coords.size()-4; i+= 4) {
+		for (int i=0; i<coords.size()-4; i+= 4) {
 			assertEquals(c1, coords.get(i));
 			assertEquals(c2, coords.get(i+1));
 			assertEquals(c6, coords.get(i+2));
@@ -139,10 +140,10 @@ public class MapBasedMovementTest extends TestCase {
 		mbm.getInitialLocation();
 		Path p = mbm.getPath();
 		List<Coord> coords = p.getCoords();
-		// should move between n1 and n2
+		// should move between n2 and n1
 		for (int i=0; i<coords.size()-1; i+= 2) {
-			assertEquals(c2, coords.get(i+1));
-			assertEquals(c1, coords.get(i));
+			assertEquals(c2, coords.get(i));
+			assertEquals(c1, coords.get(i+1));
 		}
 
 		n6.addType(1); // n6 is both 1 and 2
@@ -151,12 +152,12 @@ public class MapBasedMovementTest extends TestCase {
 		p = mbm.getPath();
 		coords = p.getCoords();
 
-		assertEquals(c2, coords.get(0)); // starts from n2
-		// should move route n6-n2-n1-n2...
-		for (int i=1; i<coords.size()-4; i+= 4) {
-			assertEquals(c6, coords.get(i));
+		assertEquals(c1, coords.get(0)); // starts from n1
+		// should move route n1-n2-n6-n2...
+		for (int i=0; i<coords.size()-4; i+= 4) {
+			assertEquals(c1, coords.get(i));
 			assertEquals(c2, coords.get(i+1));
-			assertEquals(c1, coords.get(i+2));
+			assertEquals(c6, coords.get(i+2));
 			assertEquals(c2, coords.get(i+3));
 		}
 
@@ -154,4 +154,40 @@ public class MaxPropDijkstraTest extends TestCase {
 
 	}
 
+	public void testIncrementalCosts() {
+		mapping.get(0).updateMeetingProbFor(1);
+		mapping.get(1).updateMeetingProbFor(2);
+		mapping.get(1).updateMeetingProbFor(3);
+		mapping.get(3).updateMeetingProbFor(4);
+
+		assertEquals(0.0, mpd.getCost(0, 1));
+		assertEquals(0.5, mpd.getCost(0, 2), DELTA);
+		/* search is continued to nodes further away */
+		assertEquals(0.5, mpd.getCost(0, 4), DELTA);
+		assertEquals(Double.MAX_VALUE, mpd.getCost(0, 5));
+		assertEquals(0.5, mpd.getCost(1, 4), DELTA);
+
+		/* change of a node whose links were used */
+		mapping.get(1).updateMeetingProbFor(4);
+		mpd.probsChanged(1);
+		assertEquals(0.5, mpd.getCost(1, 4), DELTA);
+		assertEquals(0.75, mpd.getCost(1, 2), DELTA);
+
+		/* change of a node whose links were not used yet */
+		assertEquals(0.0, mpd.getCost(0, 1));
+		mapping.get(4).updateMeetingProbFor(2);
+		mpd.probsChanged(4);
+		assertEquals(0.5, mpd.getCost(0, 4), DELTA);
+		assertEquals(0.5, mpd.getCost(0, 2), DELTA); // through node 4
+
+		for (int i=0; i<NROF_HOSTS; i++) {
+			targets.add(i);
+		}
+		Map<Integer, Double> result = mpd.getCosts(0, targets);
+		assertEquals(5, result.size());
+		for (int i=0; i<NROF_HOSTS; i++) {
+			assertEquals(result.get(i), mpd.getCost(0, i), DELTA);
+		}
+	}
+
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import routing.maxprop.MeetingProbabilitySet;
+import routing.maxprop.MeetingProbabilityTable;
+
+/**
+ * Tests for the versioned meeting probability table of MaxProp
+ */
+public class MeetingProbabilityTableTest extends TestCase {
+	private MeetingProbabilityTable table;
+	private MeetingProbabilitySet set1, set2;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		table = new MeetingProbabilityTable();
+		set1 = new MeetingProbabilitySet();
+		set2 = new MeetingProbabilitySet();
+	}
+
+	public void testChangedSince() {
+		assertEquals(0, table.getVersion());
+		assertTrue(table.getChangedSince(0).isEmpty());
+
+		table.put(3, set1);
+		table.put(1, set1);
+		int version = table.getVersion();
+		table.put(2, set2);
+		table.put(3, set2);
+
+		assertEquals(4, table.getVersion());
+		assertEquals(3, table.getAll().size());
+		assertEquals(set2, table.get(3));
+		assertNull(table.get(4));
+		assertEquals(Arrays.asList(3, 1, 2, 3), table.getChangedSince(0));
+		assertEquals(Arrays.asList(2, 3), table.getChangedSince(version));
+		assertTrue(table.getChangedSince(table.getVersion()).isEmpty());
+	}
+
+	public void testCompaction() {
+		for (int i=0; i<1000; i++) {
+			table.put(i % 3, set1);
+		}
+		assertEquals(1000, table.getVersion());
+		List<Integer> changed = table.getChangedSince(0);
+		/* the older changes of the same hosts are removed from the log */
+		assertTrue(changed.size() < 100);
+		assertEquals(Arrays.asList(1, 2, 0),
+				changed.subList(changed.size() - 3, changed.size()));
+		assertEquals(Arrays.asList(2, 0), table.getChangedSince(998));
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package test;
+
+import input.EventQueue;
+import input.ExternalEvent;
+import input.MergedEventQueue;
+import input.ScheduledUpdatesQueue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the MergedEventQueue
+ */
+public class MergedEventQueueTest extends TestCase {
+	private static double MAX = Double.MAX_VALUE;
+	private ScheduledUpdatesQueue suq;
+	private List<EventQueue> queues;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		suq = new ScheduledUpdatesQueue();
+		queues = new ArrayList<EventQueue>();
+	}
+
+	private MergedEventQueue createQueue() {
+		return new MergedEventQueue(Collections.singletonList(suq), queues);
+	}
+
+	public void testEmpty() {
+		MergedEventQueue meq = createQueue();
+		assertEquals(MAX, meq.nextEventsTime());
+		assertEquals(MAX, meq.nextEvent().getTime());
+	}
+
+	public void testOrder() {
+		queues.add(new TestQueue("a", 1, 5, 9));
+		queues.add(new TestQueue("b", 2, 3, 10));
+		queues.add(new TestQueue("c", 4));
+		MergedEventQueue meq = createQueue();
+
+		double[] expected = {1, 2, 3, 4, 5, 9, 10};
+		for (double time : expected) {
+			assertEquals(time, meq.nextEventsTime());
+			assertEquals(time, meq.nextEvent().getTime());
+		}
+		assertEquals(MAX, meq.nextEventsTime());
+	}
+
+	public void testScheduledUpdates() {
+		queues.add(new TestQueue("a", 2, 6));
+		MergedEventQueue meq = createQueue();
+
+		assertEquals(2.0, meq.nextEventsTime());
+		suq.addUpdate(1); // requested after the queue was created
+		assertEquals(1.0, meq.nextEventsTime());
+		assertEquals(1.0, meq.nextEvent().getTime());
+		assertEquals(2.0, meq.nextEvent().getTime());
+
+		suq.addUpdate(4);
+		assertEquals(4.0, meq.nextEvent().getTime());
+		assertEquals(6.0, meq.nextEvent().getTime());
+		assertEquals(MAX, meq.nextEventsTime());
+	}
+
+	public void testEqualTimes() {
+		TestQueue a = new TestQueue("a", 1, 3);
+		TestQueue b = new TestQueue("b", 1, 2);
+		queues.add(a);
+		queues.add(b);
+		suq.addUpdate(1);
+		MergedEventQueue meq = createQueue();
+
+		/* scheduled updates first, then in the order of the queue list */
+		ExternalEvent ee = meq.nextEvent();
+		assertFalse(ee instanceof TestEvent);
+		assertEquals("a", ((TestEvent)meq.nextEvent()).queue);
+		assertEquals("b", ((TestEvent)meq.nextEvent()).queue);
+		assertEquals("b", ((TestEvent)meq.nextEvent()).queue);
+		assertEquals("a", ((TestEvent)meq.nextEvent()).queue);
+	}
+
+	/**
+	 * Event queue with events at fixed times
+	 */
+	private class TestQueue implements EventQueue {
+		private String name;
+		private double[] times;
+		private int next;
+
+		public TestQueue(String name, double... times) {
+			this.name = name;
+			this.times = times;
+			this.next = 0;
+		}
+
+		public ExternalEvent nextEvent() {
+			if (next == times.length) {
+				return new ExternalEvent(MAX);
+			}
+			return new TestEvent(name, times[next++]);
+		}
+
+		public double nextEventsTime() {
+			return next == times.length ? MAX : times[next];
+		}
+	}
+
+	private class TestEvent extends ExternalEvent {
+		private static final long serialVersionUID = 1L;
+		private String queue;
+
+		public TestEvent(String queue, double time) {
+			super(time);
+			this.queue = queue;
+		}
+	}
+}
@@ -12,6 +12,7 @@ import org.junit.Test;
 import core.DTNHost;
 import core.Message;
 import core.SimClock;
+import core.SimError;
 
 public class MessageTest extends TestCase {
 
@@ -60,5 +61,98 @@ public class MessageTest extends TestCase {
 		assertEquals(value2, msg.getProperty("bar"));
 	}
 
+	@Test
+	public void testReplicateProperties() {
+		msg.addProperty("foo", "value1");
+		Message rep = msg.replicate();
+		assertEquals("value1", rep.getProperty("foo"));
+
+		rep.updateProperty("foo", "value2");
+		rep.addProperty("bar", "value3");
+		assertEquals("value2", rep.getProperty("foo"));
+		assertEquals("value1", msg.getProperty("foo"));
+		assertNull(msg.getProperty("bar"));
+
+		msg.updateProperty("foo", "value4");
+		assertEquals("value2", rep.getProperty("foo"));
+	}
+
+	@Test
+	public void testReplicateData() {
+		Message rep = msg.replicate();
+		assertEquals(msg.getId(), rep.getId());
+		assertTrue(msg.getUniqueId() != rep.getUniqueId());
+
+		rep.setTtl(20);
+		rep.setAppID("app");
+		assertEquals(10, msg.getTtl());
+		assertNull(msg.getAppID());
+		assertEquals(20, rep.getTtl());
+		assertEquals("app", rep.getAppID());
+	}
+
+	@Test
+	public void testReplicatePath() {
+		TestUtils utils = new TestUtils(null, null, new TestSettings());
+		DTNHost h1 = utils.createHost();
+		DTNHost h2 = utils.createHost();
+		DTNHost h3 = utils.createHost();
+
+		Message m = new Message(h1, h3, "M2", 100);
+		Message rep1 = m.replicate();
+		rep1.addNodeOnPath(h2);
+		Message rep2 = rep1.replicate();
+		rep2.addNodeOnPath(h3);
+		rep1.addNodeOnPath(h3);
+
+		assertEquals(0, m.getHopCount());
+		assertEquals(2, rep1.getHopCount());
+		assertEquals(2, rep2.getHopCount());
+		assertEquals(h1, m.getHops().get(0));
+		assertEquals(h2, rep2.getHops().get(1));
+		assertEquals(h3, rep2.getHops().get(2));
+		assertTrue(rep2.getHops().contains(h2));
+		assertFalse(m.getHops().contains(h2));
+		assertEquals("[" + h1 + ", " + h2 + ", " + h3 + "]",
+				rep1.getHops().toString());
+
+		/* iterated paths give the same nodes and can't be changed */
+		Object[] nodes = rep1.getHops().toArray();
+		nodes[0] = h3;
+		assertEquals(h1, rep1.getHops().get(0));
+		assertEquals(h3, rep1.getHops().get(2));
+		assertEquals("[" + h1 + ", " + h2 + ", " + h3 + "]",
+				rep1.getHops().toString());
+	}
+
+	@Test
+	public void testPathRecordingLevels() {
+		Message.setPathRecording(Message.PATH_HOP_COUNT);
+		try {
+			Message m = new Message(from, to, "M2", 100);
+			m.addNodeOnPath(to);
+			Message rep = m.replicate();
+			rep.addNodeOnPath(from);
+			assertEquals(1, m.getHopCount());
+			assertEquals(2, rep.getHopCount());
+			try {
+				m.getHops();
+				fail("Paths should not be recorded");
+			} catch (SimError e) {
+				// expected
+			}
+
+			Message.setPathRecording(Message.PATH_NONE);
+			try {
+				m.getHopCount();
+				fail("Hop counts should not be recorded");
+			} catch (SimError e) {
+				// expected
+			}
+		} finally {
+			Message.setPathRecording(Message.PATH_FULL);
+		}
+	}
+
 
 }
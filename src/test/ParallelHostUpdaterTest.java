@@ -0,0 +1,172 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package test;
+
+import input.EventQueue;
+import interfaces.ConnectivityGrid;
+import interfaces.SimpleBroadcastInterface;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import movement.MovementModel;
+import movement.RandomWaypoint;
+import routing.EpidemicRouter;
+import routing.MessageRouter;
+import core.ConnectionListener;
+import core.DTNHost;
+import core.Message;
+import core.MessageListener;
+import core.ModuleCommunicationBus;
+import core.NetworkInterface;
+import core.SimClock;
+import core.UpdateListener;
+import core.World;
+
+/**
+ * Tests that the parallel host update gives the same results as the serial
+ * update
+ */
+public class ParallelHostUpdaterTest extends TestCase {
+	private static final int NROF_HOSTS = 40;
+	private static final int NROF_ROUNDS = 1500;
+	private static final double UP_INTERVAL = 1.0;
+	private static final int MSG_INTERVAL = 10;
+	/** grid cell size multiplier that makes the cell larger than the world
+	 * (with the 30 m range) */
+	private static final int SINGLE_CELL_MULT = 20;
+
+	/**
+	 * Runs the same scenario with the given update settings
+	 * @param nrofThreads Number of update threads or 0 for serial update
+	 * @param cellSizeMult Connectivity grid cell size multiplier
+	 * @return The connection and message events of the run
+	 */
+	private List<String> runScenario(int nrofThreads, int cellSizeMult) {
+		TestSettings ts = new TestSettings();
+		ts.putSetting(MovementModel.MOVEMENT_MODEL_NS + "." +
+				MovementModel.WORLD_SIZE, "500,500");
+		ts.putSetting(World.OPTIMIZATION_SETTINGS_NS + "." +
+				ConnectivityGrid.CELL_SIZE_MULT_S, "" + cellSizeMult);
+		if (nrofThreads > 0) {
+			ts.putSetting(World.OPTIMIZATION_SETTINGS_NS + "." +
+					World.PARALLEL_UPDATE_S, "true");
+			ts.putSetting(World.OPTIMIZATION_SETTINGS_NS + "." +
+					World.NROF_UPDATE_THREADS_S, "" + nrofThreads);
+		}
+		ts.putSetting(MovementModel.SPEED, "0.5,13.9");
+		ts.putSetting(MovementModel.WAIT_TIME, "0,60");
+		ts.putSetting(MessageRouter.B_SIZE_S, "5000");
+		ts.putSetting(MessageRouter.MSG_TTL_S, "60");
+
+		SimClock.reset();
+		DTNHost.reset();
+		Message.reset();
+		MovementModel.reset();
+		NetworkInterface.reset();
+		ConnectivityGrid.reset();
+
+		EventLog log = new EventLog();
+		List<MessageListener> mls = new ArrayList<MessageListener>();
+		mls.add(log);
+		List<ConnectionListener> cls = new ArrayList<ConnectionListener>();
+		cls.add(log);
+
+		MovementModel mmProto = new RandomWaypoint(ts);
+		MessageRouter mrProto = new EpidemicRouter(ts);
+		ts.setNameSpace(TestUtils.IFACE_NS);
+		ts.putSetting(NetworkInterface.TRANSMIT_RANGE_S, "30");
+		ts.putSetting(NetworkInterface.TRANSMIT_SPEED_S, "250");
+		NetworkInterface niProto = new SimpleBroadcastInterface(ts);
+		niProto.setClisteners(cls);
+		ts.setNameSpace(null);
+
+		List<DTNHost> hosts = new ArrayList<DTNHost>();
+		for (int i=0; i<NROF_HOSTS; i++) {
+			List<NetworkInterface> li = new ArrayList<NetworkInterface>();
+			li.add(niProto);
+			hosts.add(new DTNHost(mls, null, "h", li,
+					new ModuleCommunicationBus(), mmProto, mrProto));
+		}
+
+		World world = new World(hosts, 500, 500, UP_INTERVAL,
+				new ArrayList<UpdateListener>(), true,
+				new ArrayList<EventQueue>());
+		for (int i=0; i<NROF_ROUNDS; i++) {
+			if (i % MSG_INTERVAL == 0) {
+				int k = i / MSG_INTERVAL;
+				DTNHost from = hosts.get(k % NROF_HOSTS);
+				DTNHost to = hosts.get((k * 7 + 3) % NROF_HOSTS);
+				from.createNewMessage(new Message(from, to, "M" + k, 1000));
+			}
+			world.update();
+		}
+		return log.events;
+	}
+
+	public void testSameAsSerialUpdate() {
+		/* all hosts are in the same grid cell, so it doesn't matter when
+		 * the hosts' grid locations are updated */
+		List<String> serial = runScenario(0, SINGLE_CELL_MULT);
+		assertTrue(serial.size() > 1000); // enough happens to compare
+
+		assertEquals(serial, runScenario(1, SINGLE_CELL_MULT));
+		assertEquals(serial, runScenario(4, SINGLE_CELL_MULT));
+	}
+
+	public void testSameWithAnyNrofThreads() {
+		List<String> oneThread = runScenario(1,
+				ConnectivityGrid.DEF_CON_CELL_SIZE_MULT);
+		assertTrue(oneThread.size() > 1000);
+
+		assertEquals(oneThread, runScenario(2,
+				ConnectivityGrid.DEF_CON_CELL_SIZE_MULT));
+		assertEquals(oneThread, runScenario(4,
+				ConnectivityGrid.DEF_CON_CELL_SIZE_MULT));
+	}
+
+	/**
+	 * Logs connection and message events with their times
+	 */
+	private class EventLog implements ConnectionListener, MessageListener {
+		public List<String> events = new ArrayList<String>();
+
+		private void log(String event) {
+			events.add(SimClock.getTime() + " " + event);
+		}
+
+		public void hostsConnected(DTNHost host1, DTNHost host2) {
+			log("up " + host1 + " " + host2);
+		}
+
+		public void hostsDisconnected(DTNHost host1, DTNHost host2) {
+			log("down " + host1 + " " + host2);
+		}
+
+		public void newMessage(Message m) {
+			log("new " + m);
+		}
+
+		public void messageTransferStarted(Message m, DTNHost from,
+				DTNHost to) {
+			log("start " + m + " " + from + " " + to);
+		}
+
+		public void messageDeleted(Message m, DTNHost where, boolean dropped) {
+			log("delete " + m + " " + where + " " + dropped);
+		}
+
+		public void messageTransferAborted(Message m, DTNHost from,
+				DTNHost to) {
+			log("abort " + m + " " + from + " " + to);
+		}
+
+		public void messageTransferred(Message m, DTNHost from, DTNHost to,
+				boolean firstDelivery) {
+			log("relay " + m + " " + from + " " + to + " " + firstDelivery);
+		}
+	}
+}
@@ -13,6 +13,7 @@ import junit.framework.TestCase;
 import core.DTNHost;
 import core.ModuleCommunicationBus;
 import core.NetworkInterface;
+import core.SettingsError;
 import core.SimClock;
 import core.UpdateListener;
 import core.World;
@@ -101,6 +102,21 @@ public class WorldTest extends TestCase {
 
 	}
 
+	public void testParallelUpdateWithBulkMovement() {
+		TestSettings ts = new TestSettings();
+		String ns = World.OPTIMIZATION_SETTINGS_NS + ".";
+		ts.putSetting(ns + World.PARALLEL_UPDATE_S, "true");
+		ts.putSetting(ns + World.BULK_MOVEMENT_S, "true");
+		try {
+			new World(new ArrayList<DTNHost>(), worldSizeX, worldSizeY,
+					upInterval, new ArrayList<UpdateListener>(),
+					simulateConnections, eQueues);
+			fail("Parallel update and bulk movement were both accepted");
+		} catch (SettingsError e) {
+			// expected
+		}
+	}
+
 
 	/** Dummy scenario for providing test values for the World */
 	@SuppressWarnings("serial")
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package ui;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Locale;
+
+import core.SimClock;
+
+/**
+ * Headless user interface for benchmarking. Runs the simulation without
+ * any output and measures the wall clock time, garbage collection time
+ * and peak heap usage of the initialization and simulation phases.
+ */
+public class DTNSimBenchmarkUI extends DTNSimUI {
+	/** Tab separated names of the values returned by {@link #toString()} */
+	public static final String RESULT_HEADER = "init_s\trun_s\tsim_s\t" +
+		"sim_s_per_s\tinit_gc_s\trun_gc_s\tgc_count\tpeak_heap_mb";
+
+	private double initTime;
+	private double runTime;
+	private double simTime;
+	private double initGcTime;
+	private double runGcTime;
+	private long gcCount;
+	private long peakHeap;
+	/** wall clock time (nanoseconds) and JVM GC time (milliseconds) at the
+	 * start of the initialization and the simulation phases */
+	private long startNanos, runStartNanos, startGc, runStartGc;
+
+	@Override
+	public void start() {
+		resetPeakHeap();
+		long startGcCount = getJvmGcCount();
+		this.startGc = getJvmGcTime();
+		this.startNanos = System.nanoTime();
+
+		super.start(); // initializes the model and calls runSim()
+
+		this.runGcTime = (getJvmGcTime() - runStartGc) / 1000.0;
+		this.gcCount = getJvmGcCount() - startGcCount;
+		this.peakHeap = getPeakHeap();
+	}
+
+	protected void runSim() {
+		double endTime = scen.getEndTime();
+		double startSimTime = SimClock.getTime();
+
+		/* everything before this was initialization */
+		this.runStartGc = getJvmGcTime();
+		this.runStartNanos = System.nanoTime();
+		this.initTime = (runStartNanos - startNanos) / 1e9;
+		this.initGcTime = (runStartGc - startGc) / 1000.0;
+
+		while (SimClock.getTime() < endTime && !simCancelled) {
+			world.update();
+		}
+
+		this.runTime = (System.nanoTime() - runStartNanos) / 1e9;
+		this.simTime = SimClock.getTime() - startSimTime;
+		simDone = true;
+		done();
+	}
+
+	/**
+	 * Returns the wall clock time (seconds) of the initialization phase
+	 * (settings, scenario and movement model warmup)
+	 */
+	public double getInitTime() {
+		return initTime;
+	}
+
+	/**
+	 * Returns the wall clock time (seconds) of the simulation phase
+	 */
+	public double getRunTime() {
+		return runTime;
+	}
+
+	/**
+	 * Returns the simulated time (seconds) of the simulation phase
+	 */
+	public double getSimTime() {
+		return simTime;
+	}
+
+	/**
+	 * Returns the simulated seconds per wall clock second of the
+	 * simulation phase
+	 */
+	public double getThroughput() {
+		return runTime > 0 ? simTime / runTime : 0;
+	}
+
+	/**
+	 * Returns the garbage collection time (seconds) of the whole run
+	 */
+	public double getGcTime() {
+		return initGcTime + runGcTime;
+	}
+
+	/**
+	 * Returns the peak heap usage (bytes) of the whole run
+	 */
+	public long getPeakHeapUsage() {
+		return peakHeap;
+	}
+
+	/**
+	 * Returns the results as tab separated values in the order of
+	 * {@link #RESULT_HEADER}
+	 */
+	public String toString() {
+		return String.format(Locale.US,
+				"%.3f\t%.3f\t%.1f\t%.2f\t%.3f\t%.3f\t%d\t%.1f", initTime,
+				runTime, simTime, getThroughput(), initGcTime, runGcTime,
+				gcCount, peakHeap / (1024.0 * 1024.0));
+	}
+
+	/**
+	 * Returns the total garbage collection time (milliseconds) of the JVM
+	 */
+	private static long getJvmGcTime() {
+		long time = 0;
+		for (GarbageCollectorMXBean gc :
+				ManagementFactory.getGarbageCollectorMXBeans()) {
+			time += Math.max(0, gc.getCollectionTime());
+		}
+		return time;
+	}
+
+	/**
+	 * Returns the total number of garbage collections of the JVM
+	 */
+	private static long getJvmGcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean gc :
+				ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, gc.getCollectionCount());
+		}
+		return count;
+	}
+
+	/**
+	 * Resets the peak usage of all heap memory pools
+	 */
+	private static void resetPeakHeap() {
+		for (MemoryPoolMXBean pool :
+				ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	/**
+	 * Returns the sum of the peak usages (bytes) of all heap memory pools
+	 */
+	private static long getPeakHeap() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool :
+				ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+}
@@ -7,8 +7,11 @@ package ui;
 import java.util.Vector;
 
 import report.Report;
+import routing.MessageRouter;
 import core.ApplicationListener;
 import core.ConnectionListener;
+import core.DTNHost;
+import core.Message;
 import core.MessageListener;
 import core.MovementListener;
 import core.Settings;
@@ -110,6 +113,7 @@ public abstract class DTNSimUI {
 						reportClass));
 			}
 
+			setPathRecording(settings);
 			this.world = this.scen.getWorld();
 			world.warmupMovementModel(warmupTime);
 		}
@@ -125,6 +129,68 @@ public abstract class DTNSimUI {
 		}
 	}
 
+	/**
+	 * Sets the message path recording level to the level given in the
+	 * settings or, if it's not given, to the lowest level that the user
+	 * interface, reports and routers need.
+	 * @param settings The settings
+	 * @throws SettingsError if the given level is invalid or lower than the
+	 * level needed
+	 */
+	private void setPathRecording(Settings settings) {
+		String setting = SimScenario.SCENARIO_NS + "." +
+			SimScenario.PATH_RECORDING_S;
+		int required = getRequiredPathRecording();
+		Object requiredBy = this;
+
+		for (Report r : this.reports) {
+			if (r.getRequiredPathRecording() > required) {
+				required = r.getRequiredPathRecording();
+				requiredBy = r;
+			}
+		}
+		for (DTNHost host : scen.getHosts()) {
+			MessageRouter r = host.getRouter();
+			if (r.getRequiredPathRecording() > required) {
+				required = r.getRequiredPathRecording();
+				requiredBy = r;
+			}
+		}
+
+		if (!settings.contains(setting)) {
+			Message.setPathRecording(required);
+			return;
+		}
+
+		String value = settings.getSetting(setting);
+		int level = -1;
+		for (int i=0; i < Message.PATH_RECORDING_NAMES.length; i++) {
+			if (Message.PATH_RECORDING_NAMES[i].equals(value)) {
+				level = i;
+			}
+		}
+		if (level < 0) {
+			throw new SettingsError("Invalid value '" + value +
+					"' for setting " + setting);
+		}
+		if (level < required) {
+			throw new SettingsError(requiredBy.getClass().getSimpleName() +
+					" needs at least path recording level '" +
+					Message.PATH_RECORDING_NAMES[required] + "' (" + setting +
+					" = " + value + ")");
+		}
+		Message.setPathRecording(level);
+	}
+
+	/**
+	 * Returns the lowest message path recording level this user interface
+	 * needs (see {@link Message#setPathRecording(int)})
+	 * @return The path recording level
+	 */
+	protected int getRequiredPathRecording() {
+		return Message.PATH_NONE;
+	}
+
 	/**
 	 * Runs maintenance jobs that are needed before exiting.
 	 */
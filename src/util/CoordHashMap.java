@@ -0,0 +1,279 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package util;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import core.Coord;
+
+/**
+ * Hash map with coordinate keys. The x and y values of the keys are stored
+ * in primitive arrays and hashed to an open addressing (linear probing)
+ * table of indexes to the entry arrays, so the map doesn't keep references
+ * to the key objects (changing a coordinate object after using it as a key
+ * doesn't change the map) and no objects are created per entry. The
+ * entries are iterated in the order they were added. Removing single
+ * mappings is not supported.
+ */
+public class CoordHashMap<V> extends AbstractMap<Coord, V>
+		implements Serializable {
+	private static final long serialVersionUID = 1L;
+	/** initial capacity of the entry arrays */
+	private static final int DEF_CAPACITY = 16;
+	/** value of free slots in the table */
+	private static final int FREE = -1;
+
+	/** entry indexes (or FREE); the length is a power of two */
+	private int[] table;
+	private double[] xs;
+	private double[] ys;
+	private Object[] values;
+	/** number of mappings */
+	private int size;
+	/** number of structural modifications (for detecting concurrent
+	 * modifications while iterating) */
+	private transient int modCount;
+
+	/**
+	 * Creates a new, empty map
+	 */
+	public CoordHashMap() {
+		this(DEF_CAPACITY);
+	}
+
+	/**
+	 * Creates a new, empty map
+	 * @param capacity Number of mappings that fit without resizing
+	 */
+	public CoordHashMap(int capacity) {
+		capacity = Math.max(capacity, 1);
+		this.xs = new double[capacity];
+		this.ys = new double[capacity];
+		this.values = new Object[capacity];
+		this.table = newTable(capacity);
+		this.size = 0;
+	}
+
+	/**
+	 * Returns the value of a location
+	 * @param x The x coordinate of the location
+	 * @param y The y coordinate of the location
+	 * @return The value or null if the map has no value for the location
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(double x, double y) {
+		int entry = table[findSlot(x, y)];
+		return entry == FREE ? null : (V)values[entry];
+	}
+
+	@Override
+	public V get(Object key) {
+		if (!(key instanceof Coord)) {
+			return null;
+		}
+		Coord c = (Coord)key;
+		return get(c.getX(), c.getY());
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		if (!(key instanceof Coord)) {
+			return false;
+		}
+		Coord c = (Coord)key;
+		return table[findSlot(c.getX(), c.getY())] != FREE;
+	}
+
+	@Override
+	public V put(Coord key, V value) {
+		return put(key.getX(), key.getY(), value);
+	}
+
+	/**
+	 * Sets the value of a location
+	 * @param x The x coordinate of the location
+	 * @param y The y coordinate of the location
+	 * @param value The value
+	 * @return The previous value of the location or null if it had no value
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(double x, double y, V value) {
+		int slot = findSlot(x, y);
+		if (table[slot] != FREE) {
+			V old = (V)values[table[slot]];
+			values[table[slot]] = value;
+			return old;
+		}
+
+		if (size == xs.length) {
+			resize(xs.length * 2);
+			slot = findSlot(x, y);
+		}
+		xs[size] = x;
+		ys[size] = y;
+		values[size] = value;
+		table[slot] = size;
+		size++;
+		modCount++;
+		return null;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		for (int i=0; i < size; i++) {
+			values[i] = null;
+		}
+		for (int i=0; i < table.length; i++) {
+			table[i] = FREE;
+		}
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Returns a view of the values in the order they were added
+	 * @return The values
+	 */
+	@Override
+	public Collection<V> values() {
+		return new AbstractCollection<V>() {
+			public Iterator<V> iterator() {
+				return new EntryIterator<V>() {
+					@SuppressWarnings("unchecked")
+					protected V get(int i) {
+						return (V)values[i];
+					}
+				};
+			}
+
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Returns a view of the mappings in the order they were added. The keys
+	 * of the entries are new coordinate objects.
+	 * @return The mappings
+	 */
+	@Override
+	public Set<Entry<Coord, V>> entrySet() {
+		return new AbstractSet<Entry<Coord, V>>() {
+			public Iterator<Entry<Coord, V>> iterator() {
+				return new EntryIterator<Entry<Coord, V>>() {
+					@SuppressWarnings("unchecked")
+					protected Entry<Coord, V> get(int i) {
+						return new SimpleImmutableEntry<Coord, V>(
+								new Coord(xs[i], ys[i]), (V)values[i]);
+					}
+				};
+			}
+
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Returns the slot of a location or the free slot where it should be
+	 * added
+	 */
+	private int findSlot(double x, double y) {
+		int mask = table.length - 1;
+		int slot = Coord.hashCode(x, y) & mask;
+		int entry;
+		while ((entry = table[slot]) != FREE &&
+				!(xs[entry] == x && ys[entry] == y)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Moves the entries to arrays of the given capacity and rebuilds the
+	 * table
+	 */
+	private void resize(int capacity) {
+		double[] newXs = new double[capacity];
+		double[] newYs = new double[capacity];
+		Object[] newValues = new Object[capacity];
+		System.arraycopy(xs, 0, newXs, 0, size);
+		System.arraycopy(ys, 0, newYs, 0, size);
+		System.arraycopy(values, 0, newValues, 0, size);
+		xs = newXs;
+		ys = newYs;
+		values = newValues;
+
+		table = newTable(capacity);
+		for (int i=0; i < size; i++) {
+			table[findSlot(xs[i], ys[i])] = i;
+		}
+	}
+
+	/**
+	 * Returns a free table that has room for the given number of entries
+	 * with load factor of at most one half
+	 */
+	private static int[] newTable(int capacity) {
+		int length = Integer.highestOneBit(capacity) * 4;
+		int[] table = new int[length];
+		for (int i=0; i < length; i++) {
+			table[i] = FREE;
+		}
+		return table;
+	}
+
+	/**
+	 * Iterator over the entry arrays
+	 */
+	private abstract class EntryIterator<E> implements Iterator<E> {
+		private int next;
+		private int expectedModCount;
+
+		public EntryIterator() {
+			this.next = 0;
+			this.expectedModCount = modCount;
+		}
+
+		/**
+		 * Returns the iterated object of an entry
+		 * @param i Index of the entry
+		 */
+		protected abstract E get(int i);
+
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		public E next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (next >= size) {
+				throw new NoSuchElementException();
+			}
+			return get(next++);
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
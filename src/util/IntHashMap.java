@@ -0,0 +1,311 @@
+/*
+ * Copyright 2026 Aalto University, ComNet
+ * Released under GPLv3. See LICENSE.txt for details.
+ */
+package util;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Hash map with primitive int keys. The keys are hashed to an open
+ * addressing (linear probing) table of indexes to the entry arrays, so no
+ * objects are created per entry and the keys are not boxed. The entries are
+ * iterated in the order they were added. Null values are allowed.
+ */
+public class IntHashMap<V> {
+	/** initial capacity of the entry arrays */
+	private static final int DEF_CAPACITY = 8;
+	/** value of removed entries */
+	private static final Object REMOVED = new Object();
+	/** value of free slots in the table */
+	private static final int FREE = -1;
+
+	/** entry indexes (or FREE); the length is a power of two */
+	private int[] table;
+	private int[] keys;
+	private Object[] values;
+	/** number of used entries (including removed ones) */
+	private int nrofEntries;
+	/** number of mappings */
+	private int size;
+	/** number of structural modifications (for detecting concurrent
+	 * modifications while iterating) */
+	private int modCount;
+
+	/**
+	 * Creates a new, empty map
+	 */
+	public IntHashMap() {
+		this(DEF_CAPACITY);
+	}
+
+	/**
+	 * Creates a new, empty map
+	 * @param capacity Number of mappings that fit without resizing
+	 */
+	public IntHashMap(int capacity) {
+		capacity = Math.max(capacity, 1);
+		this.keys = new int[capacity];
+		this.values = new Object[capacity];
+		this.table = newTable(capacity);
+		this.nrofEntries = 0;
+		this.size = 0;
+	}
+
+	/**
+	 * Returns the value of a key
+	 * @param key The key
+	 * @return The value or null if the map has no value for the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		int slot = findSlot(key);
+		if (table[slot] == FREE) {
+			return null;
+		}
+		return (V)values[table[slot]];
+	}
+
+	/**
+	 * Returns true if the map has a value for the key
+	 * @param key The key
+	 * @return True if the map has a value for the key
+	 */
+	public boolean containsKey(int key) {
+		return table[findSlot(key)] != FREE;
+	}
+
+	/**
+	 * Sets the value of a key
+	 * @param key The key
+	 * @param value The value
+	 * @return The previous value of the key or null if it had no value
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		int slot = findSlot(key);
+		if (table[slot] != FREE) {
+			V old = (V)values[table[slot]];
+			values[table[slot]] = value;
+			return old;
+		}
+
+		if (nrofEntries == keys.length) {
+			resize(size < nrofEntries / 2 ? keys.length : keys.length * 2);
+			slot = findSlot(key);
+		}
+		keys[nrofEntries] = key;
+		values[nrofEntries] = value;
+		table[slot] = nrofEntries;
+		nrofEntries++;
+		size++;
+		modCount++;
+		return null;
+	}
+
+	/**
+	 * Removes the value of a key
+	 * @param key The key
+	 * @return The removed value or null if the key had no value
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(int key) {
+		int slot = findSlot(key);
+		int entry = table[slot];
+		if (entry == FREE) {
+			return null;
+		}
+
+		V old = (V)values[entry];
+		values[entry] = REMOVED;
+		size--;
+		modCount++;
+		if (entry == nrofEntries - 1) {
+			nrofEntries--; // the last entry can be reused right away
+		}
+
+		/* shift the following slots of the probe sequence backwards, so
+		 * there are no holes in the sequences */
+		int mask = table.length - 1;
+		int free = slot;
+		for (int i = (slot + 1) & mask; table[i] != FREE; i = (i + 1) & mask) {
+			int home = hash(keys[table[i]]) & mask;
+			if (((i - home) & mask) >= ((i - free) & mask)) {
+				table[free] = table[i];
+				free = i;
+			}
+		}
+		table[free] = FREE;
+
+		return old;
+	}
+
+	/**
+	 * Returns the number of mappings
+	 * @return The number of mappings
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns true if the map is empty
+	 * @return True if the map is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes all mappings
+	 */
+	public void clear() {
+		for (int i=0; i < nrofEntries; i++) {
+			values[i] = null;
+		}
+		for (int i=0; i < table.length; i++) {
+			table[i] = FREE;
+		}
+		nrofEntries = 0;
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Returns a view of the values in the order they were added. The
+	 * view doesn't support removing values. Like with the java.util
+	 * collections, modifying the map while iterating the values makes the
+	 * iterator throw ConcurrentModificationException.
+	 * @return The values
+	 */
+	public Collection<V> values() {
+		return new AbstractCollection<V>() {
+			public Iterator<V> iterator() {
+				return new ValueIterator();
+			}
+
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int i=0; i < nrofEntries; i++) {
+			if (values[i] != REMOVED) {
+				sb.append(sb.length() > 1 ? ", " : "");
+				sb.append(keys[i] + "=" + values[i]);
+			}
+		}
+		return sb.append("}").toString();
+	}
+
+	/**
+	 * Returns the slot of a key or the free slot where it should be added
+	 */
+	private int findSlot(int key) {
+		int mask = table.length - 1;
+		int slot = hash(key) & mask;
+		while (table[slot] != FREE && keys[table[slot]] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Moves the entries to arrays of the given capacity, dropping the
+	 * removed entries, and rebuilds the table
+	 */
+	private void resize(int capacity) {
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		int oldNrofEntries = nrofEntries;
+
+		if (capacity != keys.length) {
+			keys = new int[capacity];
+			values = new Object[capacity];
+		}
+		table = newTable(capacity);
+		nrofEntries = 0;
+
+		for (int i=0; i < oldNrofEntries; i++) {
+			if (oldValues[i] != REMOVED) {
+				keys[nrofEntries] = oldKeys[i];
+				values[nrofEntries] = oldValues[i];
+				table[findSlot(oldKeys[i])] = nrofEntries;
+				nrofEntries++;
+			}
+		}
+		for (int i=nrofEntries; i < oldNrofEntries; i++) {
+			values[i] = null;
+		}
+	}
+
+	/**
+	 * Returns a free table that has room for the given number of entries
+	 * with load factor of at most one half
+	 */
+	private static int[] newTable(int capacity) {
+		int length = Integer.highestOneBit(capacity) * 4;
+		int[] table = new int[length];
+		for (int i=0; i < length; i++) {
+			table[i] = FREE;
+		}
+		return table;
+	}
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Iterator over the values that are not removed
+	 */
+	private class ValueIterator implements Iterator<V> {
+		private int next;
+		private int expectedModCount;
+
+		public ValueIterator() {
+			this.next = 0;
+			this.expectedModCount = modCount;
+			skipRemoved();
+		}
+
+		public boolean hasNext() {
+			return next < nrofEntries;
+		}
+
+		@SuppressWarnings("unchecked")
+		public V next() {
+			checkModCount();
+			if (next >= nrofEntries) {
+				throw new NoSuchElementException();
+			}
+			V value = (V)values[next++];
+			skipRemoved();
+			return value;
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		private void checkModCount() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		private void skipRemoved() {
+			while (next < nrofEntries && values[next] == REMOVED) {
+				next++;
+			}
+		}
+	}
+}